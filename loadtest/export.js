@@ -0,0 +1,63 @@
+// k6 benchmark for the user export formats (xlsx, pdf, csv, ndjson).
+// Seed the demo organization with loadtest/seed-export-users.sql first, see loadtest/README.md.
+import http from 'k6/http';
+import { check } from 'k6';
+import { Trend } from 'k6/metrics';
+
+const BASE_URL = __ENV.BASE_URL || 'http://localhost:8080';
+const EMAIL = __ENV.EMAIL || 'admin@demo.com';
+const PASSWORD = __ENV.PASSWORD || 'admin12345';
+const ROWS = Number(__ENV.ROWS || 100000);
+const FORMATS = (__ENV.FORMATS || 'csv,ndjson,xlsx,pdf').split(',');
+const ENCODING = __ENV.ENCODING || 'identity';
+
+const durations = {};
+for (const format of FORMATS) {
+    durations[format] = new Trend(`export_${format}`, true);
+}
+
+export const options = {
+    scenarios: {
+        export: {
+            executor: 'per-vu-iterations',
+            vus: 1,
+            iterations: Number(__ENV.ITERATIONS || 3),
+            maxDuration: '2h',
+        },
+    },
+    summaryTrendStats: ['avg', 'min', 'max', 'p(50)'],
+};
+
+export function setup() {
+    const res = http.post(`${BASE_URL}/api/v1/auth/login`,
+        JSON.stringify({ email: EMAIL, password: PASSWORD }),
+        { headers: { 'Content-Type': 'application/json' } });
+    check(res, { 'login ok': (r) => r.status === 200 });
+    return { token: res.json('accessToken') };
+}
+
+export default function (data) {
+    const params = {
+        headers: { Authorization: `Bearer ${data.token}`, 'Accept-Encoding': ENCODING },
+        responseType: 'none',
+        timeout: '30m',
+    };
+    for (const format of FORMATS) {
+        const res = http.get(`${BASE_URL}/api/v1/users/export?format=${format}`, params);
+        check(res, { [`${format} 200`]: (r) => r.status === 200 });
+        durations[format].add(res.timings.duration);
+    }
+}
+
+export function handleSummary(data) {
+    const lines = [`rows=${ROWS} encoding=${ENCODING}`, 'format   avg ms      rows/s'];
+    for (const format of FORMATS) {
+        const avg = data.metrics[`export_${format}`].values.avg;
+        const rate = Math.round(ROWS / (avg / 1000));
+        lines.push(`${format.padEnd(8)} ${avg.toFixed(0).padStart(7)} ${String(rate).padStart(11)}`);
+    }
+    return {
+        stdout: lines.join('\n') + '\n',
+        [`export-${ROWS}.json`]: JSON.stringify(data, null, 2),
+    };
+}
@@ -0,0 +1,16 @@
+-- Seeds benchmark users into the demo organization, which is what admin@demo.com exports.
+-- Uses MariaDB's SEQUENCE engine: pick seq_1_to_10000, seq_1_to_100000 or seq_1_to_1000000 below,
+-- and run the cleanup statements before seeding a different size.
+SET @org = (SELECT organization_id FROM users WHERE email = 'admin@demo.com');
+SET @role = (SELECT id FROM roles WHERE name = 'USER' AND organization_id = @org);
+
+INSERT INTO users (email, password, full_name, organization_id, deleted)
+SELECT CONCAT('bench', seq, '@export.test'), '!', CONCAT('Bench User ', seq), @org, 0
+FROM seq_1_to_100000;
+
+INSERT INTO user_roles (user_id, role_id)
+SELECT id, @role FROM users WHERE email LIKE 'bench%@export.test';
+
+-- Cleanup:
+-- DELETE ur FROM user_roles ur JOIN users u ON u.id = ur.user_id WHERE u.email LIKE 'bench%@export.test';
+-- DELETE FROM users WHERE email LIKE 'bench%@export.test';
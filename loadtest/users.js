@@ -0,0 +1,41 @@
+// k6 load test for the user endpoints.
+// Run against an instance started with the loadtest profile, see loadtest/README.md.
+import http from 'k6/http';
+import { check } from 'k6';
+
+const BASE_URL = __ENV.BASE_URL || 'http://localhost:8080';
+const EMAIL = __ENV.EMAIL || 'admin@demo.com';
+const PASSWORD = __ENV.PASSWORD || 'admin12345';
+
+export const options = {
+    scenarios: {
+        api: {
+            executor: 'constant-arrival-rate',
+            rate: Number(__ENV.RATE || 500),
+            timeUnit: '1s',
+            duration: __ENV.DURATION || '2m',
+            preAllocatedVUs: 200,
+            maxVUs: Number(__ENV.MAX_VUS || 2000),
+        },
+    },
+    summaryTrendStats: ['avg', 'p(50)', 'p(95)', 'p(99)', 'max'],
+    thresholds: {
+        http_req_failed: ['rate<0.01'],
+    },
+};
+
+export function setup() {
+    const res = http.post(`${BASE_URL}/api/v1/auth/login`,
+        JSON.stringify({ email: EMAIL, password: PASSWORD }),
+        { headers: { 'Content-Type': 'application/json' } });
+    check(res, { 'login ok': (r) => r.status === 200 });
+    return { token: res.json('accessToken') };
+}
+
+export default function (data) {
+    const params = { headers: { Authorization: `Bearer ${data.token}` } };
+    const res = Math.random() < 0.8
+        ? http.get(`${BASE_URL}/api/v1/users?page=0&size=20`, params)
+        : http.get(`${BASE_URL}/api/v1/users/1`, params);
+    check(res, { 'status 200': (r) => r.status === 200 });
+}
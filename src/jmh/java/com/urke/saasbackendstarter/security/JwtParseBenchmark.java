@@ -0,0 +1,62 @@
+package com.urke.saasbackendstarter.security;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-request JWT cost of the authentication filter. {@code parses = 1} is the current filter
+ * (parse once, validate the parsed claims); {@code parses = 3} is the previous one, which verified
+ * the signature separately for the subject, the validation and the expiry check.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtParseBenchmark {
+
+    private static final String SECRET = "first-secret-key-that-is-long-enough-for-hmac-sha-256-signing";
+
+    @Param({"1", "2", "3"})
+    int parses;
+
+    private JwtTokenProvider provider;
+    private UserDetails userDetails;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        provider = new JwtTokenProvider(SECRET, "v1", List.of(), "", 3_600_000, false, "hmac", "", "",
+                new PrincipalRevocationRegistry(3_600_000));
+        userDetails = User.withUsername("user@example.com").password("x").authorities("ROLE_USER").build();
+        token = provider.generateToken(userDetails);
+    }
+
+    @Benchmark
+    public Authentication authenticate() {
+        ParsedToken parsed = provider.parseToken(token);
+        for (int i = 1; i < parses; i++) {
+            parsed = provider.parseToken(token);
+        }
+        if (!provider.validateToken(parsed, userDetails)) {
+            throw new IllegalStateException("token did not validate");
+        }
+        return provider.getAuthentication(parsed, userDetails);
+    }
+}
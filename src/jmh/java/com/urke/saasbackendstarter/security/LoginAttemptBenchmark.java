@@ -0,0 +1,69 @@
+package com.urke.saasbackendstarter.security;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link LoginAttemptService} under credential stuffing: failures and block checks spread over
+ * {@code keys} distinct emails, far more than the table's default capacity, from several threads.
+ * Run with {@code -t} to change the thread count.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(4)
+@Fork(value = 1, jvmArgs = "-Xmx2g")
+public class LoginAttemptBenchmark {
+
+    @Param({"1000000", "5000000"})
+    int keys;
+
+    @Param({"262144"})
+    int capacity;
+
+    private LoginAttemptService service;
+    private String[] emails;
+
+    @Setup
+    public void setUp() {
+        service = new LoginAttemptService(5, Duration.ofMinutes(15), Duration.ofMinutes(15), capacity);
+        emails = new String[keys];
+        for (int i = 0; i < keys; i++) {
+            emails[i] = "stuffing-" + i + "@example.com";
+        }
+        // Start from a full table, as after a sustained attack.
+        for (String email : emails) {
+            service.loginFailed(email);
+        }
+    }
+
+    @Benchmark
+    public void loginFailed() {
+        service.loginFailed(randomEmail());
+    }
+
+    @Benchmark
+    public boolean isBlocked() {
+        return service.isBlocked(randomEmail());
+    }
+
+    private String randomEmail() {
+        return emails[ThreadLocalRandom.current().nextInt(emails.length)];
+    }
+}
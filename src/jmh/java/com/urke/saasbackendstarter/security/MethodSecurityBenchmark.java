@@ -0,0 +1,79 @@
+package com.urke.saasbackendstarter.security;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.expression.Expression;
+import org.springframework.security.access.expression.ExpressionUtils;
+import org.springframework.security.access.expression.method.DefaultMethodSecurityExpressionHandler;
+import org.springframework.security.access.expression.method.MethodSecurityExpressionHandler;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.util.SimpleMethodInvocation;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of one {@code @PreAuthorize} check with {@link BitmaskMethodSecurityExpressionHandler}
+ * ({@code handler = bitmask}) and with the stock SpEL handler ({@code handler = stock}), which
+ * builds the principal's authority string set on every evaluation.
+ * <p>
+ * The expression is parsed once, as Spring Security does per annotated method; each invocation
+ * creates the evaluation context and evaluates it, like a secured method call. The principal holds
+ * {@code permissions} permissions but not {@code USER_VIEW_ALL}, so both operands are evaluated.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MethodSecurityBenchmark {
+
+    @Param({"bitmask", "stock"})
+    String handler;
+
+    @Param({"4", "32"})
+    int permissions;
+
+    @Param({"hasAuthority('USER_VIEW_ALL') or hasRole('ADMIN')"})
+    String expression;
+
+    private MethodSecurityExpressionHandler expressionHandler;
+    private Expression parsed;
+    private Authentication authentication;
+    private SimpleMethodInvocation invocation;
+
+    @Setup
+    public void setUp() throws NoSuchMethodException {
+        expressionHandler = "bitmask".equals(handler)
+                ? new BitmaskMethodSecurityExpressionHandler()
+                : new DefaultMethodSecurityExpressionHandler();
+        parsed = expressionHandler.getExpressionParser().parseExpression(expression);
+
+        Set<String> permissionNames = new HashSet<>();
+        for (int i = 0; i < permissions; i++) {
+            permissionNames.add("PERMISSION_" + i);
+        }
+        CustomUserDetails principal = new CustomUserDetails(1L, "ann@acme.com", "x", 7001L,
+                Set.of("ADMIN"), permissionNames);
+        authentication = new UsernamePasswordAuthenticationToken(principal, null, principal.getAuthorities());
+        invocation = new SimpleMethodInvocation(new Object(), Object.class.getMethod("toString"));
+    }
+
+    @Benchmark
+    public boolean evaluate() {
+        return ExpressionUtils.evaluateAsBoolean(parsed,
+                expressionHandler.createEvaluationContext(() -> authentication, invocation));
+    }
+}
@@ -8,7 +8,9 @@ import java.time.LocalDateTime;
 import com.urke.saasbackendstarter.domain.Organization;
 
 @Entity
-@Table(name = "audit_logs")
+@Table(name = "audit_logs", indexes = {
+    @Index(name = "idx_audit_logs_org_timestamp", columnList = "organization_id, timestamp, id")
+})
 @Getter
 @Setter
 @NoArgsConstructor
@@ -1,6 +1,7 @@
 package com.urke.saasbackendstarter.audit;
 
 import com.urke.saasbackendstarter.dto.AuditLogDTO;
+import com.urke.saasbackendstarter.dto.CursorPage;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
@@ -10,10 +11,14 @@ import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Window;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.LocalDateTime;
+
 /**
  * REST controller for exposing audit log endpoints.
  * All endpoints are restricted to administrators.
@@ -63,10 +68,51 @@ public class AuditLogController {
             @RequestParam(required = false) String entityType) {
 
         Pageable pageable = PageRequest.of(page, size);
-        Page<AuditLogDTO> dtoPage = auditLogService
-                .findPagedFiltered(action, entityType, pageable)
-                .map(AuditLogMapper::toDTO);
+        return ResponseEntity.ok(auditLogService.findDTOsFiltered(action, entityType, pageable));
+    }
+
+    /**
+     * Retrieve audit logs newest first with keyset pagination, with optional filtering.
+     *
+     * @param cursor Opaque cursor from the previous response, or null for the first slice
+     * @param size Slice size
+     * @param action Optional action filter
+     * @param entityType Optional entity type filter
+     * @param includeTotal Whether to also count all matching logs
+     * @return Slice of AuditLogDTO with the cursor for the next slice
+     */
+    @Operation(
+        summary = "Scroll audit logs (keyset pagination)",
+        description = "Cursor-based alternative to the paged listing, newest first. Pass nextCursor from the previous "
+                + "response to get the next slice; its cost does not grow with depth. Only accessible to administrators.",
+        security = @SecurityRequirement(name = "bearerAuth"),
+        parameters = {
+            @Parameter(name = "cursor", description = "Opaque cursor from the previous response (omit for the first slice)"),
+            @Parameter(name = "size", description = "Slice size (default: 10, max: 100)", example = "10"),
+            @Parameter(name = "action", description = "Optional filter by action"),
+            @Parameter(name = "entityType", description = "Optional filter by entity type"),
+            @Parameter(name = "includeTotal", description = "Also return the total number of matching logs (extra count query)")
+        },
+        responses = {
+            @ApiResponse(responseCode = "200", description = "Slice of audit logs returned"),
+            @ApiResponse(responseCode = "400", description = "Invalid cursor"),
+            @ApiResponse(responseCode = "401", description = "Unauthorized"),
+            @ApiResponse(responseCode = "403", description = "Forbidden")
+        }
+    )
+    @GetMapping("/scroll")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<CursorPage<AuditLogDTO>> scroll(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(required = false) String action,
+            @RequestParam(required = false) String entityType,
+            @RequestParam(defaultValue = "false") boolean includeTotal) {
 
-        return ResponseEntity.ok(dtoPage);
+        ScrollPosition position = CursorPage.position(cursor, "timestamp", LocalDateTime::parse);
+        Window<AuditLog> window = auditLogService.scrollFiltered(action, entityType, position, CursorPage.limit(size));
+        Long total = includeTotal ? auditLogService.countFiltered(action, entityType) : null;
+        return ResponseEntity.ok(CursorPage.of(window, AuditLogMapper::toDTO,
+                AuditLog::getTimestamp, AuditLog::getId, total));
     }
 }
\ No newline at end of file
@@ -1,10 +1,17 @@
 package com.urke.saasbackendstarter.audit;
 
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import com.urke.saasbackendstarter.domain.Organization;
+import com.urke.saasbackendstarter.dto.AuditLogDTO;
 
 /**
  * Repository for accessing audit log records.
@@ -25,4 +32,34 @@ public interface AuditLogRepository extends JpaRepository<AuditLog, Long> {
      * Returns paged audit logs filtered by entityType (case-insensitive, contains) and organization.
      */
     Page<AuditLog> findByOrganizationAndEntityTypeContainingIgnoreCase(Organization organization, String entityType, Pageable pageable);
+
+    /**
+     * Returns paged audit logs of an organization directly as DTOs, optionally filtered by action
+     * and/or entity type (case-insensitive, contains).
+     */
+    @Query("SELECT new com.urke.saasbackendstarter.dto.AuditLogDTO("
+            + "a.id, a.action, a.entityType, a.entityId, a.message, a.timestamp, a.actorEmail) "
+            + "FROM AuditLog a WHERE a.organization = :organization "
+            + "AND (:action IS NULL OR LOWER(a.action) LIKE LOWER(CONCAT('%', :action, '%'))) "
+            + "AND (:entityType IS NULL OR LOWER(a.entityType) LIKE LOWER(CONCAT('%', :entityType, '%')))")
+    Page<AuditLogDTO> findDTOs(@Param("organization") Organization organization,
+                               @Param("action") String action,
+                               @Param("entityType") String entityType,
+                               Pageable pageable);
+
+    /**
+     * Keyset-paginated variants of the queries above. They seek past the scroll position instead of
+     * using {@code OFFSET} and never run a count query.
+     */
+    Window<AuditLog> findByOrganization(Organization organization, ScrollPosition position, Sort sort, Limit limit);
+
+    Window<AuditLog> findByOrganizationAndActionContainingIgnoreCase(Organization organization, String action, ScrollPosition position, Sort sort, Limit limit);
+
+    Window<AuditLog> findByOrganizationAndEntityTypeContainingIgnoreCase(Organization organization, String entityType, ScrollPosition position, Sort sort, Limit limit);
+
+    long countByOrganization(Organization organization);
+
+    long countByOrganizationAndActionContainingIgnoreCase(Organization organization, String action);
+
+    long countByOrganizationAndEntityTypeContainingIgnoreCase(Organization organization, String entityType);
 }
\ No newline at end of file
@@ -1,9 +1,19 @@
 package com.urke.saasbackendstarter.audit;
 
+import com.urke.saasbackendstarter.dto.AuditLogDTO;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Window;
 
 public interface AuditLogService {
     void log(String action, String entityType, Long entityId, String message, String actorEmail);
     Page<AuditLog> findPagedFiltered(String action, String entityType, Pageable pageable);
+
+    /**
+     * Same filtering as {@link #findPagedFiltered}, but selects the DTO columns directly.
+     */
+    Page<AuditLogDTO> findDTOsFiltered(String action, String entityType, Pageable pageable);
+    Window<AuditLog> scrollFiltered(String action, String entityType, ScrollPosition position, int limit);
+    long countFiltered(String action, String entityType);
 }
@@ -1,10 +1,15 @@
 package com.urke.saasbackendstarter.audit;
 
 import com.urke.saasbackendstarter.domain.Organization;
+import com.urke.saasbackendstarter.dto.AuditLogDTO;
 import com.urke.saasbackendstarter.security.CurrentUserProvider;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -17,6 +22,9 @@ public class AuditLogServiceImpl implements AuditLogService {
     private final AuditLogRepository auditLogRepository;
     private final CurrentUserProvider currentUserProvider;
 
+    /** Newest first; matches the (organization_id, timestamp, id) index read backwards. */
+    private static final Sort SCROLL_SORT = Sort.by(Sort.Direction.DESC, "timestamp", "id");
+
     @Override
     @Transactional
     public void log(String action, String entityType, Long entityId, String message, String actorEmail) {
@@ -47,4 +55,46 @@ public class AuditLogServiceImpl implements AuditLogService {
             return auditLogRepository.findByOrganization(org, pageable);
         }
     }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Page<AuditLogDTO> findDTOsFiltered(String action, String entityType, Pageable pageable) {
+        Organization org = currentUserProvider.getCurrentOrganization();
+
+        // As in findPagedFiltered, an action filter takes precedence over the entity type.
+        if (action != null && !action.isBlank()) {
+            return auditLogRepository.findDTOs(org, action, null, pageable);
+        } else if (entityType != null && !entityType.isBlank()) {
+            return auditLogRepository.findDTOs(org, null, entityType, pageable);
+        } else {
+            return auditLogRepository.findDTOs(org, null, null, pageable);
+        }
+    }
+
+    @Override
+    public Window<AuditLog> scrollFiltered(String action, String entityType, ScrollPosition position, int limit) {
+        Organization org = currentUserProvider.getCurrentOrganization();
+        Limit max = Limit.of(limit);
+
+        if (action != null && !action.isBlank()) {
+            return auditLogRepository.findByOrganizationAndActionContainingIgnoreCase(org, action, position, SCROLL_SORT, max);
+        } else if (entityType != null && !entityType.isBlank()) {
+            return auditLogRepository.findByOrganizationAndEntityTypeContainingIgnoreCase(org, entityType, position, SCROLL_SORT, max);
+        } else {
+            return auditLogRepository.findByOrganization(org, position, SCROLL_SORT, max);
+        }
+    }
+
+    @Override
+    public long countFiltered(String action, String entityType) {
+        Organization org = currentUserProvider.getCurrentOrganization();
+
+        if (action != null && !action.isBlank()) {
+            return auditLogRepository.countByOrganizationAndActionContainingIgnoreCase(org, action);
+        } else if (entityType != null && !entityType.isBlank()) {
+            return auditLogRepository.countByOrganizationAndEntityTypeContainingIgnoreCase(org, entityType);
+        } else {
+            return auditLogRepository.countByOrganization(org);
+        }
+    }
 }
@@ -0,0 +1,13 @@
+package com.urke.saasbackendstarter.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableAsync;
+
+/**
+ * Enables {@code @Async} methods. They run on Spring Boot's application task executor, which uses
+ * virtual threads when {@code spring.threads.virtual.enabled} is set.
+ */
+@Configuration
+@EnableAsync
+public class AsyncConfig {
+}
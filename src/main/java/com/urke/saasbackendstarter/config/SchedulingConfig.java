@@ -0,0 +1,13 @@
+package com.urke.saasbackendstarter.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Enables {@code @Scheduled} background jobs. They run on virtual threads when
+ * {@code spring.threads.virtual.enabled} is set.
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
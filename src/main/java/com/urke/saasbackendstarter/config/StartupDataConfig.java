@@ -12,7 +12,7 @@ import org.springframework.boot.CommandLineRunner;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Profile;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
 
 import java.util.Set;
 
@@ -26,7 +26,7 @@ public class StartupDataConfig {
             PermissionRepository permissionRepository,
             UserRepository userRepository,
             OrganizationRepository organizationRepository,
-            BCryptPasswordEncoder passwordEncoder
+            PasswordEncoder passwordEncoder
     ) {
         return args -> {
             Organization demoOrg = organizationRepository.findBySlugAndDeletedFalse("demo-org")
@@ -1,14 +1,22 @@
 package com.urke.saasbackendstarter.config;
 
+import com.urke.saasbackendstarter.security.CurrentUser;
 import io.swagger.v3.oas.models.OpenAPI;
 import io.swagger.v3.oas.models.info.Info;
 import io.swagger.v3.oas.models.security.SecurityRequirement;
 import io.swagger.v3.oas.models.security.SecurityScheme;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springdoc.core.utils.SpringDocUtils;
 
 @Configuration
 public class SwaggerConfig {
+
+    static {
+        // @CurrentUser parameters are resolved from the security context, not from the request.
+        SpringDocUtils.getConfig().addAnnotationsToIgnore(CurrentUser.class);
+    }
+
     @Bean
     public OpenAPI openAPI() {
         return new OpenAPI()
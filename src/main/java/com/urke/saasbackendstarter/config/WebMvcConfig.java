@@ -0,0 +1,28 @@
+package com.urke.saasbackendstarter.config;
+
+import com.urke.saasbackendstarter.security.CurrentUserArgumentResolver;
+import com.urke.saasbackendstarter.security.CurrentUserProvider;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.method.support.HandlerMethodArgumentResolver;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.util.List;
+
+/**
+ * Spring MVC customizations.
+ * <p>
+ * Registers the {@code @CurrentUser} argument resolver for controllers.
+ */
+@Configuration
+@RequiredArgsConstructor
+public class WebMvcConfig implements WebMvcConfigurer {
+
+    private final ObjectProvider<CurrentUserProvider> currentUserProvider;
+
+    @Override
+    public void addArgumentResolvers(List<HandlerMethodArgumentResolver> resolvers) {
+        resolvers.add(new CurrentUserArgumentResolver(currentUserProvider));
+    }
+}
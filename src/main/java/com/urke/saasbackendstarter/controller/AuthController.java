@@ -52,7 +52,7 @@ public class AuthController {
 
     @Operation(
         summary = "Refresh JWT token",
-        description = "Obtain new access token using refresh token.",
+        description = "Exchange a refresh token for a new access token and a new refresh token. Each refresh token can be used once.",
         responses = {
             @ApiResponse(responseCode = "200", description = "Token refreshed"),
             @ApiResponse(responseCode = "401", description = "Invalid or expired refresh token")
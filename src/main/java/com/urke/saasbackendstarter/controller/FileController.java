@@ -3,9 +3,9 @@ package com.urke.saasbackendstarter.controller;
 import com.urke.saasbackendstarter.domain.UserFile;
 import com.urke.saasbackendstarter.domain.User;
 import com.urke.saasbackendstarter.service.FileUploadService;
-import com.urke.saasbackendstarter.service.UserService;
 import com.urke.saasbackendstarter.dto.UserFileDTO;
 import com.urke.saasbackendstarter.mapper.UserFileMapper;
+import com.urke.saasbackendstarter.security.CurrentUser;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
@@ -22,7 +22,6 @@ import org.springframework.web.multipart.MultipartFile;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.security.Principal;
 import java.util.List;
 import java.util.Locale;
 
@@ -39,7 +38,6 @@ import java.util.Locale;
 public class FileController {
 
     private final FileUploadService fileUploadService;
-    private final UserService userService;
     private final MessageSource messageSource;
     private static final Logger log = LoggerFactory.getLogger(FileController.class);
 
@@ -56,19 +54,12 @@ public class FileController {
     @PostMapping(value = "/upload", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
     public ResponseEntity<String> upload(
             @RequestParam("file") MultipartFile file,
-            Principal principal,
+            @CurrentUser User user,
             Locale locale
     ) {
-        log.info("File upload requested by user: {}", principal.getName());
+        log.info("File upload requested by user: {}", user.getEmail());
         log.debug("File name: {}, size: {}", file.getOriginalFilename(), file.getSize());
 
-        User user = userService.findByEmailWithOrganization(principal.getName())
-                .orElseThrow(() -> {
-                    log.warn("User not found: {}", principal.getName());
-                    return new com.urke.saasbackendstarter.exception.UserNotFoundException(
-                        messageSource.getMessage("user.notfound", null, locale));
-                });
-
         if (user.getOrganization() == null) {
             log.error("User {} has no organization set!", user.getEmail());
             throw new com.urke.saasbackendstarter.exception.FileUploadException("User has no organization set.");
@@ -101,12 +92,8 @@ public class FileController {
     @GetMapping("/{fileId}/download")
     public ResponseEntity<byte[]> download(
             @PathVariable Long fileId,
-            Principal principal,
-            Locale locale
+            @CurrentUser User user
     ) {
-        User user = userService.findByEmail(principal.getName())
-                .orElseThrow(() -> new com.urke.saasbackendstarter.exception.UserNotFoundException(
-                    messageSource.getMessage("user.notfound", null, locale)));
         byte[] data = fileUploadService.downloadFile(fileId, user);
         return ResponseEntity.ok()
                 .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + fileId + "\"")
@@ -125,12 +112,8 @@ public class FileController {
     )
     @GetMapping("/my")
     public ResponseEntity<List<UserFileDTO>> listMyFiles(
-            Principal principal,
-            Locale locale
+            @CurrentUser User user
     ) {
-        User user = userService.findByEmail(principal.getName())
-                .orElseThrow(() -> new com.urke.saasbackendstarter.exception.UserNotFoundException(
-                        messageSource.getMessage("user.notfound", null, locale)));
         List<UserFile> files = fileUploadService.listFiles(user);
         List<UserFileDTO> result = files.stream()
                 .map(UserFileMapper::toDTO)
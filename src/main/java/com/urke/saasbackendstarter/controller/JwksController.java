@@ -0,0 +1,59 @@
+package com.urke.saasbackendstarter.controller;
+
+import com.urke.saasbackendstarter.security.JwtTokenProvider;
+import io.jsonwebtoken.security.Jwks;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.security.PublicKey;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Publishes the public JWT verification keys as a JSON Web Key Set, so gateways and other
+ * services can verify access tokens locally. Only available with {@code jwt.signing-mode=keystore}.
+ */
+@Tag(name = "JWKS", description = "Public keys for verifying access tokens.")
+@RestController
+public class JwksController {
+
+    private final JwtTokenProvider jwtTokenProvider;
+    private final CacheControl cacheControl;
+
+    public JwksController(JwtTokenProvider jwtTokenProvider,
+                          @Value("${jwt.jwks.max-age:PT15M}") Duration maxAge) {
+        this.jwtTokenProvider = jwtTokenProvider;
+        this.cacheControl = CacheControl.maxAge(maxAge).cachePublic();
+    }
+
+    @Operation(
+        summary = "JSON Web Key Set",
+        description = "Public keys for all accepted key ids (kid). Not available when tokens are HMAC-signed.",
+        responses = {
+            @ApiResponse(responseCode = "200", description = "Key set returned"),
+            @ApiResponse(responseCode = "404", description = "Asymmetric signing is not enabled")
+        }
+    )
+    @GetMapping("/.well-known/jwks.json")
+    public ResponseEntity<Map<String, Object>> getJwks() {
+        Map<String, PublicKey> publicKeys = jwtTokenProvider.getPublicKeys();
+        if (publicKeys.isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+        List<Map<String, Object>> keys = new ArrayList<>();
+        publicKeys.forEach((keyId, key) ->
+                keys.add(new LinkedHashMap<>(Jwks.builder().key(key).id(keyId).publicKeyUse("sig").build())));
+        return ResponseEntity.ok()
+                .cacheControl(cacheControl)
+                .body(Map.of("keys", keys));
+    }
+}
@@ -1,6 +1,7 @@
 package com.urke.saasbackendstarter.controller;
 
 import com.urke.saasbackendstarter.domain.Organization;
+import com.urke.saasbackendstarter.dto.CursorPage;
 import com.urke.saasbackendstarter.dto.organization.OrganizationCreateRequest;
 import com.urke.saasbackendstarter.dto.organization.OrganizationSummary;
 import com.urke.saasbackendstarter.mapper.OrganizationMapper;
@@ -16,6 +17,8 @@ import org.springframework.context.MessageSource;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Window;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
@@ -84,14 +87,41 @@ public class OrganizationController {
             @RequestParam(required = false) String name) {
 
         Pageable pageable = PageRequest.of(page, size);
-        Page<Organization> orgPage;
-        if (name != null && !name.isBlank()) {
-            orgPage = organizationService.findAllByNameFilter(name, pageable);
-        } else {
-            orgPage = organizationService.findAll(pageable);
+        return ResponseEntity.ok(organizationService.findSummaries(name, pageable));
+    }
+
+    /**
+     * Retrieve organizations with keyset pagination, optionally filtered by name.
+     */
+    @Operation(
+        summary = "Scroll organizations (keyset pagination)",
+        description = "Cursor-based alternative to the paged listing, ordered by name. Pass nextCursor from the previous "
+                + "response to get the next slice; its cost does not grow with depth.",
+        security = @SecurityRequirement(name = "bearerAuth"),
+        parameters = {
+            @Parameter(name = "cursor", description = "Opaque cursor from the previous response (omit for the first slice)"),
+            @Parameter(name = "size", description = "Slice size (default: 10, max: 100)", example = "10"),
+            @Parameter(name = "name", description = "Optional name filter (case-insensitive)"),
+            @Parameter(name = "includeTotal", description = "Also return the total number of matching organizations (extra count query)")
+        },
+        responses = {
+            @ApiResponse(responseCode = "200", description = "Slice of organizations returned"),
+            @ApiResponse(responseCode = "400", description = "Invalid cursor"),
+            @ApiResponse(responseCode = "401", description = "Unauthorized")
         }
-        Page<OrganizationSummary> summaries = orgPage.map(organizationMapper::toSummary);
-        return ResponseEntity.ok(summaries);
+    )
+    @GetMapping("/scroll")
+    public ResponseEntity<CursorPage<OrganizationSummary>> scroll(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(required = false) String name,
+            @RequestParam(defaultValue = "false") boolean includeTotal) {
+
+        ScrollPosition position = CursorPage.position(cursor, "name", value -> value);
+        Window<Organization> window = organizationService.scroll(name, position, CursorPage.limit(size));
+        Long total = includeTotal ? organizationService.count(name) : null;
+        return ResponseEntity.ok(CursorPage.of(window, organizationMapper::toSummary,
+                Organization::getName, Organization::getId, total));
     }
 
     /**
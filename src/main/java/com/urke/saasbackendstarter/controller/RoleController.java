@@ -61,11 +61,7 @@ public class RoleController {
     @PreAuthorize("hasRole('ADMIN')")
     public ResponseEntity<List<RoleDTO>> getAllRolesForOrganization(
             @PathVariable Long organizationId) {
-        List<Role> roles = roleService.findAllByOrganizationId(organizationId);
-        List<RoleDTO> roleDTOs = roles.stream()
-                .map(RoleMapper::toDTO)
-                .collect(Collectors.toList());
-        return ResponseEntity.ok(roleDTOs);
+        return ResponseEntity.ok(roleService.findDTOsByOrganizationId(organizationId));
     }
 
     @Operation(
@@ -2,13 +2,17 @@ package com.urke.saasbackendstarter.controller;
 
 import com.urke.saasbackendstarter.domain.Organization;
 import com.urke.saasbackendstarter.domain.User;
+import com.urke.saasbackendstarter.dto.CursorPage;
 import com.urke.saasbackendstarter.dto.user.UserSummary;
 import com.urke.saasbackendstarter.dto.user.UserDetails;
 import com.urke.saasbackendstarter.dto.user.UserCreateRequest;
 import com.urke.saasbackendstarter.dto.user.UserUpdateRequest;
 import com.urke.saasbackendstarter.mapper.UserMapper;
 import com.urke.saasbackendstarter.exception.UserNotFoundException;
+import com.urke.saasbackendstarter.security.CurrentUser;
 import com.urke.saasbackendstarter.security.CurrentUserProvider;
+import com.urke.saasbackendstarter.security.CustomUserDetails;
+import com.urke.saasbackendstarter.service.UserExportFormat;
 import com.urke.saasbackendstarter.service.UserExportService;
 import com.urke.saasbackendstarter.service.UserService;
 import io.swagger.v3.oas.annotations.Operation;
@@ -20,21 +24,25 @@ import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.context.MessageSource;
 import org.springframework.context.i18n.LocaleContextHolder;
+import org.springframework.data.domain.KeysetScrollPosition;
 import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Window;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
-import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import org.springframework.web.bind.annotation.RequestBody;
 
+import java.io.IOException;
+import java.io.OutputStream;
 import java.security.Principal;
-import java.util.List;
+import java.util.Locale;
+import java.util.zip.GZIPOutputStream;
 
 @Tag(
     name = "Users",
@@ -45,6 +53,8 @@ import java.util.List;
 @RequiredArgsConstructor
 public class UserController {
 
+    private static final int GZIP_BUFFER_SIZE = 8 * 1024;
+
     private final UserService userService;
     private final UserExportService userExportService;
     private final CurrentUserProvider currentUserProvider;
@@ -99,29 +109,63 @@ public class UserController {
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "10") int size,
             @RequestParam(required = false) String email,
-            Principal principal) {
+            @CurrentUser CustomUserDetails principal) {
 
         Pageable pageable = PageRequest.of(page, size);
-        User currentUser = userService.findByEmail(principal.getName())
-                .orElseThrow(() -> new UserNotFoundException(msg("user.notfound")));
 
-        boolean isAdmin = currentUser.getRoles().stream()
-                .map(r -> r.getName())
-                .anyMatch(role -> role.equals("ADMIN"));
+        boolean isAdmin = principal.hasAuthority("ROLE_ADMIN");
+
+        if (!isAdmin) {
+            return ResponseEntity.ok(userService.findSummariesByOrganization(
+                    principal.getOrganizationId(), email, pageable));
+        }
+
+        return ResponseEntity.ok(userService.findSummaries(email, pageable));
+    }
+
+    @Operation(
+        summary = "Scroll users (keyset pagination)",
+        description = "Cursor-based alternative to the paged listing, ordered by email. Pass nextCursor from the previous "
+                + "response to get the next slice; its cost does not grow with depth. Same visibility rules as the paged listing.",
+        security = @SecurityRequirement(name = "bearerAuth"),
+        parameters = {
+            @Parameter(name = "cursor", description = "Opaque cursor from the previous response (omit for the first slice)"),
+            @Parameter(name = "size", description = "Slice size (default: 10, max: 100)", example = "10"),
+            @Parameter(name = "email", description = "Optional email filter"),
+            @Parameter(name = "includeTotal", description = "Also return the total number of matching users (extra count query)")
+        },
+        responses = {
+            @ApiResponse(responseCode = "200", description = "Slice of users returned"),
+            @ApiResponse(responseCode = "400", description = "Invalid cursor"),
+            @ApiResponse(responseCode = "401", description = "Unauthorized"),
+            @ApiResponse(responseCode = "403", description = "Forbidden")
+        }
+    )
+    @GetMapping("/scroll")
+    @PreAuthorize("hasAuthority('USER_VIEW_ALL') or hasRole('ADMIN')")
+    public ResponseEntity<CursorPage<UserSummary>> scroll(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(required = false) String email,
+            @RequestParam(defaultValue = "false") boolean includeTotal,
+            @CurrentUser CustomUserDetails principal) {
+
+        KeysetScrollPosition position = CursorPage.position(cursor, "email", value -> value);
+        int limit = CursorPage.limit(size);
+
+        boolean isAdmin = principal.hasAuthority("ROLE_ADMIN");
 
-        Page<User> usersPage;
+        Window<User> window;
+        Long total = null;
         if (isAdmin) {
-            if (email != null && !email.isBlank()) {
-                usersPage = userService.findAllByEmailFilter(email, pageable);
-            } else {
-                usersPage = userService.findAll(pageable);
-            }
+            window = userService.scroll(email, position, limit);
+            if (includeTotal) total = userService.count(email);
         } else {
-            List<User> users = userService.findAllByOrganization(currentUser.getOrganization());
-            usersPage = new PageImpl<>(users, pageable, users.size());
+            Long organizationId = principal.getOrganizationId();
+            window = userService.scrollByOrganization(organizationId, email, position, limit);
+            if (includeTotal) total = userService.countByOrganization(organizationId, email);
         }
-        Page<UserSummary> result = usersPage.map(userMapper::toSummary);
-        return ResponseEntity.ok(result);
+        return ResponseEntity.ok(CursorPage.of(window, userMapper::toSummary, User::getEmail, User::getId, total));
     }
 
     @Operation(
@@ -148,25 +192,9 @@ public class UserController {
     public ResponseEntity<UserSummary> updateUser(
     		@PathVariable Long id,
     	    @Valid @RequestBody UserUpdateRequest request,
-    	    Principal principal) {
+    	    @CurrentUser CustomUserDetails principal) {
 
-        User currentUser = userService.findByEmail(principal.getName())
-                .orElseThrow(() -> new UserNotFoundException(msg("user.notfound")));
-        User targetUser = userService.findById(id)
-                .orElseThrow(() -> new UserNotFoundException(msg("user.notfound")));
-
-        boolean isAdmin = currentUser.getRoles().stream()
-                .map(r -> r.getName())
-                .anyMatch(role -> role.equals("ADMIN"));
-
-        if (!isAdmin) {
-            if (!currentUser.getOrganization().getId().equals(targetUser.getOrganization().getId())) {
-                throw new ResponseStatusException(HttpStatus.FORBIDDEN, msg("org.notfound"));
-            }
-            if (!currentUser.getId().equals(id)) {
-                throw new ResponseStatusException(HttpStatus.FORBIDDEN, msg("user.notfound"));
-            }
-        }
+        requireSelfOrAdmin(principal, id);
 
         User updated = userService.updateUser(id, request);
         return ResponseEntity.ok(userMapper.toSummary(updated));
@@ -190,19 +218,15 @@ public class UserController {
     @PreAuthorize("hasAuthority('USER_VIEW_ALL') or hasRole('ADMIN') or hasAuthority('USER_UPDATE_SELF')")
     public ResponseEntity<UserDetails> getById(
             @PathVariable Long id,
-            Principal principal) {
-        User currentUser = userService.findByEmail(principal.getName())
-                .orElseThrow(() -> new UserNotFoundException(msg("user.notfound")));
-        User user = userService.findById(id)
+            @CurrentUser CustomUserDetails principal) {
+        User user = userService.findDetailsById(id)
                 .orElseThrow(() -> new UserNotFoundException(msg("user.notfound")));
 
-        boolean isAdmin = currentUser.getRoles().stream()
-                .map(r -> r.getName())
-                .anyMatch(role -> role.equals("ADMIN"));
+        boolean isAdmin = principal.hasAuthority("ROLE_ADMIN");
 
-        if (!currentUser.getId().equals(id)
+        if (!principal.getId().equals(id)
                 && !isAdmin
-                && (user.getOrganization() != null && !user.getOrganization().equals(currentUser.getOrganization()))) {
+                && (user.getOrganization() != null && !user.getOrganization().getId().equals(principal.getOrganizationId()))) {
             throw new ResponseStatusException(HttpStatus.FORBIDDEN, msg("org.notfound"));
         }
         return ResponseEntity.ok(userMapper.toDetails(user));
@@ -226,36 +250,20 @@ public class UserController {
     @PreAuthorize("hasAuthority('USER_DELETE') or hasRole('ADMIN')")
     public ResponseEntity<Void> deleteUser(
             @PathVariable Long id,
-            Principal principal) {
-
-        User currentUser = userService.findByEmail(principal.getName())
-                .orElseThrow(() -> new UserNotFoundException(msg("user.notfound")));
-        User targetUser = userService.findById(id)
-                .orElseThrow(() -> new UserNotFoundException(msg("user.notfound")));
+            @CurrentUser CustomUserDetails principal) {
 
-        boolean isAdmin = currentUser.getRoles().stream()
-                .map(r -> r.getName())
-                .anyMatch(role -> role.equals("ADMIN"));
-
-        if (!isAdmin) {
-            if (!currentUser.getOrganization().getId().equals(targetUser.getOrganization().getId())) {
-                throw new ResponseStatusException(HttpStatus.FORBIDDEN, msg("org.notfound"));
-            }
-            if (!currentUser.getId().equals(id)) {
-                throw new ResponseStatusException(HttpStatus.FORBIDDEN, msg("user.notfound"));
-            }
-        }
+        requireSelfOrAdmin(principal, id);
 
         userService.deleteUser(id);
         return ResponseEntity.noContent().build();
     }
 
     @Operation(
-        summary = "Export users as PDF or Excel",
-        description = "Exports users of current organization as PDF (.pdf) or Excel (.xlsx). Only admins can export all, regular users export their organization.",
+        summary = "Export users as PDF, Excel, CSV or NDJSON",
+        description = "Exports users of current organization as PDF (.pdf), Excel (.xlsx), CSV (.csv) or newline-delimited JSON (.ndjson). Only admins can export all, regular users export their organization. CSV and NDJSON are gzip-encoded when the client sends Accept-Encoding: gzip.",
         security = @SecurityRequirement(name = "bearerAuth"),
         parameters = {
-            @Parameter(name = "format", description = "Export format: 'pdf' or 'xlsx'", required = true, example = "pdf"),
+            @Parameter(name = "format", description = "Export format: 'pdf', 'xlsx', 'csv' or 'ndjson'", required = true, example = "pdf"),
             @Parameter(name = "email", description = "Optional filter by email")
         },
         responses = {
@@ -265,28 +273,61 @@ public class UserController {
     )
     @GetMapping("/export")
     @PreAuthorize("hasAuthority('USER_VIEW_ALL') or hasRole('ADMIN')")
-    public ResponseEntity<byte[]> exportUsers(
+    public ResponseEntity<StreamingResponseBody> exportUsers(
             @RequestParam String format,
             @RequestParam(required = false) String email,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding,
             Principal principal) {
 
+        UserExportFormat exportFormat = UserExportFormat.fromExtension(format);
+        if (exportFormat == null) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, msg("validation.error"));
+        }
         Organization org = currentUserProvider.getCurrentOrganization();
-        List<User> users = userExportService.findExportUsers(org, email);
 
-        if ("xlsx".equalsIgnoreCase(format)) {
-            byte[] file = userExportService.exportToExcel(users);
-            return ResponseEntity.ok()
-                    .contentType(MediaType.parseMediaType("application/vnd.openxmlformats-officedocument.spreadsheetml.sheet"))
-                    .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=users.xlsx")
-                    .body(file);
-        } else if ("pdf".equalsIgnoreCase(format)) {
-            byte[] file = userExportService.exportToPdf(users);
-            return ResponseEntity.ok()
-                    .contentType(MediaType.APPLICATION_PDF)
-                    .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=users.pdf")
-                    .body(file);
-        } else {
-            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, msg("validation.error"));
+        // Rendered on the async request thread while the response is written.
+        Long organizationId = org.getId();
+        boolean gzip = exportFormat.isCompressible()
+                && acceptEncoding != null && acceptEncoding.toLowerCase(Locale.ROOT).contains("gzip");
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .contentType(exportFormat.getMediaType())
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=" + exportFormat.getFilename());
+        if (exportFormat.isCompressible()) {
+            response.header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        }
+        if (!gzip) {
+            return response.body(out -> export(exportFormat, organizationId, email, out));
+        }
+        return response.header(HttpHeaders.CONTENT_ENCODING, "gzip")
+                .body(out -> {
+                    GZIPOutputStream compressed = new GZIPOutputStream(out, GZIP_BUFFER_SIZE);
+                    export(exportFormat, organizationId, email, compressed);
+                    compressed.finish();
+                });
+    }
+
+    /**
+     * Lets admins act on any user and other users only on themselves. The target is loaded only to tell
+     * a user of another organization from one of the caller's own; a missing user is a 404 from the service.
+     */
+    private void requireSelfOrAdmin(CustomUserDetails principal, Long id) {
+        if (principal.hasAuthority("ROLE_ADMIN") || principal.getId().equals(id)) {
+            return;
+        }
+        User targetUser = userService.findById(id)
+                .orElseThrow(() -> new UserNotFoundException(msg("user.notfound")));
+        if (!targetUser.getOrganization().getId().equals(principal.getOrganizationId())) {
+            throw new ResponseStatusException(HttpStatus.FORBIDDEN, msg("org.notfound"));
+        }
+        throw new ResponseStatusException(HttpStatus.FORBIDDEN, msg("user.notfound"));
+    }
+
+    private void export(UserExportFormat format, Long organizationId, String email, OutputStream out) throws IOException {
+        switch (format) {
+            case XLSX -> userExportService.exportToExcel(organizationId, email, out);
+            case PDF -> userExportService.exportToPdf(organizationId, email, out);
+            case CSV -> userExportService.exportToCsv(organizationId, email, out);
+            case NDJSON -> userExportService.exportToNdjson(organizationId, email, out);
         }
     }
 }
\ No newline at end of file
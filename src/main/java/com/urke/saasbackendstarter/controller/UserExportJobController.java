@@ -0,0 +1,98 @@
+package com.urke.saasbackendstarter.controller;
+
+import com.urke.saasbackendstarter.dto.ExportJobDTO;
+import com.urke.saasbackendstarter.security.CurrentUser;
+import com.urke.saasbackendstarter.security.CurrentUserProvider;
+import com.urke.saasbackendstarter.security.CustomUserDetails;
+import com.urke.saasbackendstarter.service.UserExportFormat;
+import com.urke.saasbackendstarter.service.UserExportJobService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.core.io.Resource;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+/**
+ * Background user exports: submit a job, poll or subscribe for progress, then download the file.
+ * Progress is also pushed to {@code /queue/user-{id}} of every user who submitted the job.
+ */
+@Tag(
+    name = "User export jobs",
+    description = "Asynchronous user exports with progress tracking and downloadable results."
+)
+@RestController
+@RequestMapping("/api/v1/users/export/jobs")
+@RequiredArgsConstructor
+public class UserExportJobController {
+
+    private final UserExportJobService userExportJobService;
+    private final CurrentUserProvider currentUserProvider;
+
+    @Operation(
+        summary = "Start a user export",
+        description = "Queues an export of the current organization's users. An identical export that is still running is reused.",
+        security = @SecurityRequirement(name = "bearerAuth"),
+        parameters = {
+            @Parameter(name = "format", description = "Export format: 'pdf', 'xlsx', 'csv' or 'ndjson'", required = true, example = "xlsx"),
+            @Parameter(name = "email", description = "Optional filter by email")
+        },
+        responses = {
+            @ApiResponse(responseCode = "202", description = "Export queued"),
+            @ApiResponse(responseCode = "400", description = "Invalid format"),
+            @ApiResponse(responseCode = "503", description = "Too many exports queued")
+        }
+    )
+    @PostMapping
+    @PreAuthorize("hasAuthority('USER_VIEW_ALL') or hasRole('ADMIN')")
+    public ResponseEntity<ExportJobDTO> submit(
+            @RequestParam String format,
+            @RequestParam(required = false) String email,
+            @CurrentUser CustomUserDetails principal) {
+        Long organizationId = currentUserProvider.getCurrentOrganization().getId();
+        return ResponseEntity.status(HttpStatus.ACCEPTED)
+                .body(userExportJobService.submit(principal.getId(), organizationId, format, email));
+    }
+
+    @Operation(
+        summary = "Get export status",
+        security = @SecurityRequirement(name = "bearerAuth"),
+        responses = {
+            @ApiResponse(responseCode = "200", description = "Export status"),
+            @ApiResponse(responseCode = "404", description = "Unknown or expired export")
+        }
+    )
+    @GetMapping("/{id}")
+    @PreAuthorize("hasAuthority('USER_VIEW_ALL') or hasRole('ADMIN')")
+    public ExportJobDTO getJob(@PathVariable String id) {
+        return userExportJobService.getJob(id, currentUserProvider.getCurrentOrganization().getId());
+    }
+
+    @Operation(
+        summary = "Download a finished export",
+        security = @SecurityRequirement(name = "bearerAuth"),
+        responses = {
+            @ApiResponse(responseCode = "200", description = "Exported file"),
+            @ApiResponse(responseCode = "404", description = "Unknown or expired export"),
+            @ApiResponse(responseCode = "409", description = "Export has not completed")
+        }
+    )
+    @GetMapping("/{id}/download")
+    @PreAuthorize("hasAuthority('USER_VIEW_ALL') or hasRole('ADMIN')")
+    public ResponseEntity<Resource> download(@PathVariable String id) {
+        Long organizationId = currentUserProvider.getCurrentOrganization().getId();
+        ExportJobDTO job = userExportJobService.getJob(id, organizationId);
+        Resource result = userExportJobService.getResult(id, organizationId);
+        UserExportFormat format = UserExportFormat.fromExtension(job.getFormat());
+        return ResponseEntity.ok()
+                .contentType(format.getMediaType())
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=" + format.getFilename())
+                .body(result);
+    }
+}
@@ -9,7 +9,9 @@ import lombok.*;
  * Each organization has a unique name and slug, and may be soft-deleted.
  */
 @Entity
-@Table(name = "organizations")
+@Table(name = "organizations", indexes = {
+    @Index(name = "idx_organizations_deleted_name", columnList = "deleted, name")
+})
 @Getter
 @Setter
 @NoArgsConstructor
@@ -9,7 +9,9 @@ import java.time.LocalDateTime;
  * Entity representing a password reset token for a user.
  */
 @Entity
-@Table(name = "password_reset_tokens")
+@Table(name = "password_reset_tokens", indexes = {
+    @Index(name = "idx_password_reset_tokens_expires_at", columnList = "expires_at")
+})
 @Getter
 @Setter
 @NoArgsConstructor
@@ -2,11 +2,14 @@ package com.urke.saasbackendstarter.domain;
 
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 /**
  * Entity representing a system permission, scoped per organization (tenant).
  */
 @Entity
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 @Table(name = "permissions",
     uniqueConstraints = {
         @UniqueConstraint(columnNames = {"name", "organization_id"})
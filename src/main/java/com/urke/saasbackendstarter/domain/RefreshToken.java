@@ -9,9 +9,14 @@ import java.time.Instant;
  *
  * Each token is associated with a user and has an expiry date.
  * Used to issue new access tokens without re-authentication.
+ * Only the SHA-256 hash of the token value is stored. Tokens are single-use: refreshing marks the
+ * token revoked and issues a new one in the same family.
  */
 @Entity
-@Table(name = "refresh_tokens")
+@Table(name = "refresh_tokens", indexes = {
+    @Index(name = "idx_refresh_tokens_expiry_date", columnList = "expiry_date"),
+    @Index(name = "idx_refresh_tokens_family_id", columnList = "family_id")
+})
 @Getter
 @Setter
 @NoArgsConstructor
@@ -22,12 +27,25 @@ public class RefreshToken {
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
-    @Column(nullable = false, unique = true)
-    private String token;
+    /** SHA-256 hash of the token value, see {@code RefreshTokenStore#hash}. */
+    @Column(name = "token", nullable = false, unique = true)
+    private String tokenHash;
 
     @Column(nullable = false)
     private Instant expiryDate;
 
+    /** Id shared by all tokens issued from the same login. */
+    @Column(length = 36)
+    private String familyId;
+
+    /** Set once the token has been rotated or its family revoked. */
+    @Column(nullable = false)
+    private boolean revoked;
+
+    /** When the token was exchanged for its replacement; {@code null} if it never was. */
+    @Column(name = "used_at")
+    private Instant usedAt;
+
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "user_id")
     private User user;
@@ -3,12 +3,17 @@ package com.urke.saasbackendstarter.domain;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotBlank;
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import java.util.Set;
 
 /**
  * Entity representing a user role, scoped per organization (tenant).
+ * Roles and their permission sets are read far more often than they change, so both
+ * live in the second-level cache.
  */
 @Entity
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 @Table(name = "roles",
     uniqueConstraints = {
         @UniqueConstraint(columnNames = {"name", "organization_id"})
@@ -28,7 +33,8 @@ public class Role {
     @NotBlank
     private String name;
 
-    @ManyToMany(fetch = FetchType.EAGER)
+    @ManyToMany(fetch = FetchType.LAZY)
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
     @JoinTable(
         name = "role_permissions",
         joinColumns = @JoinColumn(name = "role_id"),
@@ -7,9 +7,25 @@ import java.util.Set;
 
 /**
  * Entity representing a system user.
+ * <p>
+ * Roles are loaded lazily. Repository methods pick one of the named entity graphs below
+ * for their use case; everything else falls back to batch fetching.
  */
 @Entity
-@Table(name = "users")
+@NamedEntityGraph(name = User.GRAPH_PRINCIPAL, attributeNodes = {
+    @NamedAttributeNode(value = "roles", subgraph = "permissions")
+}, subgraphs = {
+    @NamedSubgraph(name = "permissions", attributeNodes = @NamedAttributeNode("permissions"))
+})
+@NamedEntityGraph(name = User.GRAPH_SUMMARY, attributeNodes = @NamedAttributeNode("roles"))
+@NamedEntityGraph(name = User.GRAPH_DETAILS, attributeNodes = {
+    @NamedAttributeNode("roles"),
+    @NamedAttributeNode("organization")
+})
+@Table(name = "users", indexes = {
+    @Index(name = "idx_users_deleted_email", columnList = "deleted, email"),
+    @Index(name = "idx_users_org_deleted_email", columnList = "organization_id, deleted, email")
+})
 @Getter
 @Setter
 @NoArgsConstructor
@@ -19,6 +35,13 @@ import java.util.Set;
 @ToString(exclude = {"password", "organization"})
 public class User {
 
+    /** Roles and their permissions, for building the security principal. */
+    public static final String GRAPH_PRINCIPAL = "User.principal";
+    /** Roles only, for summary listings. */
+    public static final String GRAPH_SUMMARY = "User.summary";
+    /** Roles and organization, for the details view. */
+    public static final String GRAPH_DETAILS = "User.details";
+
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
@@ -32,7 +55,7 @@ public class User {
     @Column(nullable = false, length = 50)
     private String fullName;
 
-    @ManyToMany(fetch = FetchType.EAGER)
+    @ManyToMany(fetch = FetchType.LAZY)
     @JoinTable(
             name = "user_roles",
             joinColumns = @JoinColumn(name = "user_id"),
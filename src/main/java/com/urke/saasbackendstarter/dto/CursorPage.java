@@ -0,0 +1,92 @@
+package com.urke.saasbackendstarter.dto;
+
+import lombok.*;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Window;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * One slice of a keyset (seek) paginated listing.
+ * <p>
+ * Instead of a page number, clients pass back {@code nextCursor} to get the following slice.
+ * The cursor is an opaque token holding the last row's sort key and id, so the next query seeks
+ * straight to {@code (sortKey, id) > (last sortKey, last id)} via the index instead of skipping
+ * {@code OFFSET} rows. {@code totalElements} is only filled in when the client asks for it,
+ * because it costs an extra {@code COUNT(*)}.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class CursorPage<T> {
+
+    public static final String INVALID_CURSOR = "pagination.cursor.invalid";
+    public static final int MAX_SIZE = 100;
+
+    private List<T> content;
+    private String nextCursor;
+    private boolean hasNext;
+    private Long totalElements;
+
+    /**
+     * Maps a window of entities to a cursor page.
+     *
+     * @param sortKey extracts the value of the sort property, encoded into the cursor with the id
+     * @param total   total element count, or {@code null} if it was not requested
+     */
+    public static <E, T> CursorPage<T> of(Window<E> window, Function<E, T> mapper,
+                                          Function<E, ?> sortKey, Function<E, Long> id, Long total) {
+        List<E> items = window.getContent();
+        String next = null;
+        if (window.hasNext() && !items.isEmpty()) {
+            E last = items.get(items.size() - 1);
+            next = encode(id.apply(last), sortKey.apply(last));
+        }
+        return new CursorPage<>(items.stream().map(mapper).toList(), next, next != null, total);
+    }
+
+    /**
+     * Decodes a cursor into the scroll position after the row it points at. A missing cursor
+     * starts at the beginning.
+     *
+     * @param sortProperty entity property the listing is sorted by (before {@code id})
+     * @param parser       parses the encoded sort value back into the property's type
+     * @throws ResponseStatusException 400 if the cursor is malformed
+     */
+    public static KeysetScrollPosition position(String cursor, String sortProperty, Function<String, ?> parser) {
+        if (cursor == null || cursor.isBlank()) {
+            return ScrollPosition.keyset();
+        }
+        try {
+            String decoded = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = decoded.indexOf(':');
+            Map<String, Object> keys = new LinkedHashMap<>();
+            keys.put(sortProperty, parser.apply(decoded.substring(separator + 1)));
+            keys.put("id", Long.parseLong(decoded.substring(0, separator)));
+            return ScrollPosition.forward(keys);
+        } catch (RuntimeException ex) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, INVALID_CURSOR, ex);
+        }
+    }
+
+    /**
+     * Clamps a requested slice size to {@code 1..}{@link #MAX_SIZE}.
+     */
+    public static int limit(int size) {
+        return Math.max(1, Math.min(size, MAX_SIZE));
+    }
+
+    static String encode(Long id, Object sortValue) {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString((id + ":" + sortValue).getBytes(StandardCharsets.UTF_8));
+    }
+}
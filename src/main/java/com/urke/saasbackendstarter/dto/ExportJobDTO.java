@@ -0,0 +1,32 @@
+package com.urke.saasbackendstarter.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+/**
+ * State of an asynchronous user export job, returned by the job endpoints and pushed to
+ * {@code /queue/user-{id}} as the job progresses.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ExportJobDTO {
+    private String id;
+    private String format;
+    private Status status;
+    private long rowsWritten;
+    private long totalRows;
+    private Instant createdAt;
+    private Instant completedAt;
+    /** When the finished file is deleted; null until the job has finished. */
+    private Instant expiresAt;
+
+    public enum Status {
+        QUEUED, RUNNING, COMPLETED, FAILED
+    }
+}
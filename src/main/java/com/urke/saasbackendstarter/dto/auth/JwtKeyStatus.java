@@ -0,0 +1,25 @@
+package com.urke.saasbackendstarter.dto.auth;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Set;
+
+/**
+ * DTO describing the JWT keys of this instance. Never carries key material.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class JwtKeyStatus {
+    /**
+     * Key id used to sign new tokens.
+     */
+    private String signingKeyId;
+
+    /**
+     * All key ids accepted for verification, including the signing key.
+     */
+    private Set<String> keyIds;
+}
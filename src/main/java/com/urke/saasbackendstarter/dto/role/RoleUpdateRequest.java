@@ -4,6 +4,7 @@ import lombok.*;
 
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Pattern;
 import java.util.Set;
 
 /**
@@ -18,6 +19,7 @@ public class RoleUpdateRequest {
     private Long id;
 
     @NotBlank(message = "Role name must not be blank")
+    @Pattern(regexp = "\\P{Cntrl}+", message = "Role name must not contain control characters")
     private String name;
 
     private Set<Long> permissionIds;
@@ -0,0 +1,23 @@
+package com.urke.saasbackendstarter.events;
+
+import org.springframework.context.ApplicationEvent;
+
+/**
+ * Application event for changes to an organization's roles or permissions.
+ * Anything that caches a user's authorities for that organization should treat them as stale.
+ */
+public class AccessControlEvent extends ApplicationEvent {
+    public enum Type { ROLE_SAVED, PERMISSION_SAVED }
+
+    private final Type type;
+    private final Long organizationId;
+
+    public AccessControlEvent(Object source, Type type, Long organizationId) {
+        super(source);
+        this.type = type;
+        this.organizationId = organizationId;
+    }
+
+    public Type getType() { return type; }
+    public Long getOrganizationId() { return organizationId; }
+}
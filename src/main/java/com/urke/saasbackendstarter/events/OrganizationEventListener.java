@@ -2,6 +2,7 @@ package com.urke.saasbackendstarter.events;
 
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Component;
 
 /**
@@ -12,6 +13,7 @@ import org.springframework.stereotype.Component;
 @Component
 public class OrganizationEventListener {
 
+    @Async
     @EventListener
     public void handleOrganizationEvent(OrganizationEvent event) {
         log.info("[EVENT] Organization {}: id={}, name={}",
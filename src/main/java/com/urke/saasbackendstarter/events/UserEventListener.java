@@ -2,12 +2,14 @@ package com.urke.saasbackendstarter.events;
 
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Component;
 
 @Slf4j
 @Component
 public class UserEventListener {
 
+    @Async
     @EventListener
     public void handleUserEvent(UserEvent event) {
         log.info("[EVENT] User {}: id={}, email={}",
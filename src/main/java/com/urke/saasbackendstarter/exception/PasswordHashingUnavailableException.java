@@ -0,0 +1,14 @@
+package com.urke.saasbackendstarter.exception;
+
+/**
+ * Thrown when a password hash cannot be computed because the hashing executor is saturated.
+ */
+public class PasswordHashingUnavailableException extends RuntimeException {
+    public PasswordHashingUnavailableException(String msg) {
+        super(msg);
+    }
+
+    public PasswordHashingUnavailableException(String msg, Throwable cause) {
+        super(msg, cause);
+    }
+}
@@ -0,0 +1,14 @@
+package com.urke.saasbackendstarter.exception;
+
+/**
+ * Thrown when a refresh token change cannot be queued for the database because the write-behind queue is full.
+ */
+public class RefreshTokenStoreUnavailableException extends RuntimeException {
+    public RefreshTokenStoreUnavailableException(String msg) {
+        super(msg);
+    }
+
+    public RefreshTokenStoreUnavailableException(String msg, Throwable cause) {
+        super(msg, cause);
+    }
+}
@@ -48,6 +48,24 @@ public class RestExceptionHandler {
                 .body(new ErrorDTO("auth_error", message));
     }
 
+    @ExceptionHandler(PasswordHashingUnavailableException.class)
+    public ResponseEntity<ErrorDTO> handlePasswordHashingUnavailable(PasswordHashingUnavailableException ex, WebRequest request) {
+        Locale locale = request.getLocale();
+        String message = messageSource.getMessage("password.hashing.busy", null, locale);
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body(new ErrorDTO("service_unavailable", message));
+    }
+
+    @ExceptionHandler(RefreshTokenStoreUnavailableException.class)
+    public ResponseEntity<ErrorDTO> handleRefreshTokenStoreUnavailable(RefreshTokenStoreUnavailableException ex, WebRequest request) {
+        Locale locale = request.getLocale();
+        String message = messageSource.getMessage("refresh.token.busy", null, locale);
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body(new ErrorDTO("service_unavailable", message));
+    }
+
     @ExceptionHandler(AccessDeniedException.class)
     public ResponseEntity<ErrorDTO> handleAccessDenied(AccessDeniedException ex, WebRequest request) {
         Locale locale = request.getLocale();
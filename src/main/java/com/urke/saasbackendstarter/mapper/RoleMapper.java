@@ -4,8 +4,13 @@ import com.urke.saasbackendstarter.domain.Role;
 import com.urke.saasbackendstarter.domain.Permission;
 import com.urke.saasbackendstarter.dto.permission.PermissionDTO;
 import com.urke.saasbackendstarter.dto.role.RoleDTO;
+import com.urke.saasbackendstarter.repository.RolePermissionRow;
 
-import java.util.Set;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 /**
@@ -40,4 +45,32 @@ public class RoleMapper {
                         : null)
                 .build();
     }
+
+    /**
+     * Groups flat (role, permission) rows into role DTOs, keeping the row order of roles.
+     */
+    public static List<RoleDTO> toDTOs(List<RolePermissionRow> rows) {
+        Map<Long, RoleDTO> roles = new LinkedHashMap<>();
+        for (RolePermissionRow row : rows) {
+            RoleDTO role = roles.computeIfAbsent(row.roleId(), id -> RoleDTO.builder()
+                    .id(id)
+                    .name(row.roleName())
+                    .permissions(new LinkedHashSet<>())
+                    .organization(row.organizationId() != null
+                            ? RoleDTO.OrganizationSummary.builder()
+                                .id(row.organizationId())
+                                .name(row.organizationName())
+                                .slug(row.organizationSlug())
+                                .build()
+                            : null)
+                    .build());
+            if (row.permissionId() != null) {
+                role.getPermissions().add(PermissionDTO.builder()
+                        .id(row.permissionId())
+                        .name(row.permissionName())
+                        .build());
+            }
+        }
+        return new ArrayList<>(roles.values());
+    }
 }
@@ -1,9 +1,16 @@
 package com.urke.saasbackendstarter.repository;
 
 import com.urke.saasbackendstarter.domain.Organization;
+import com.urke.saasbackendstarter.dto.organization.OrganizationSummary;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import java.util.Optional;
 import java.util.List;
@@ -19,4 +26,16 @@ public interface OrganizationRepository extends JpaRepository<Organization, Long
     // Paginated and filtered
     Page<Organization> findAllByDeletedFalse(Pageable pageable);
     Page<Organization> findByNameContainingIgnoreCaseAndDeletedFalse(String name, Pageable pageable);
+
+    // Listing projection, optionally filtered by name (case-insensitive, contains)
+    @Query("SELECT new com.urke.saasbackendstarter.dto.organization.OrganizationSummary(o.id, o.name, o.slug) "
+            + "FROM Organization o WHERE o.deleted = false "
+            + "AND (:name IS NULL OR LOWER(o.name) LIKE LOWER(CONCAT('%', :name, '%')))")
+    Page<OrganizationSummary> findSummaries(@Param("name") String name, Pageable pageable);
+
+    // Keyset (seek) pagination, no count query
+    Window<Organization> findByDeletedFalse(ScrollPosition position, Sort sort, Limit limit);
+    Window<Organization> findByNameContainingIgnoreCaseAndDeletedFalse(String name, ScrollPosition position, Sort sort, Limit limit);
+    long countByDeletedFalse();
+    long countByNameContainingIgnoreCaseAndDeletedFalse(String name);
 }
\ No newline at end of file
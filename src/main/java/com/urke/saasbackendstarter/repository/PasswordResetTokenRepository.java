@@ -2,10 +2,23 @@ package com.urke.saasbackendstarter.repository;
 
 import com.urke.saasbackendstarter.domain.PasswordResetToken;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
 import java.util.Optional;
 
 public interface PasswordResetTokenRepository extends JpaRepository<PasswordResetToken, Long> {
     Optional<PasswordResetToken> findByToken(String token);
     void deleteByUserId(Long userId);
+
+    /**
+     * Deletes up to {@code limit} tokens that expired before the cutoff, in its own short transaction.
+     */
+    @Transactional
+    @Modifying
+    @Query(value = "DELETE FROM password_reset_tokens WHERE expires_at < :cutoff LIMIT :limit", nativeQuery = true)
+    int deleteExpiredBatch(@Param("cutoff") LocalDateTime cutoff, @Param("limit") int limit);
 }
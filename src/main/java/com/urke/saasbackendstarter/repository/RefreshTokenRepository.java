@@ -1,12 +1,60 @@
 package com.urke.saasbackendstarter.repository;
 
 import com.urke.saasbackendstarter.domain.RefreshToken;
-import com.urke.saasbackendstarter.domain.User;
+import com.urke.saasbackendstarter.security.RefreshTokenRecord;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Instant;
+import java.util.List;
 import java.util.Optional;
 
 public interface RefreshTokenRepository extends JpaRepository<RefreshToken, Long> {
-    Optional<RefreshToken> findByToken(String token);
-    int deleteByUser(User user);
+    @Query("SELECT new com.urke.saasbackendstarter.security.RefreshTokenRecord(t.user.id, t.expiryDate, t.familyId, t.revoked, t.usedAt) " +
+           "FROM RefreshToken t WHERE t.tokenHash = :tokenHash")
+    Optional<RefreshTokenRecord> findRecordByTokenHash(@Param("tokenHash") String tokenHash);
+
+    /**
+     * Marks a token that has not expired by {@code now} as used at {@code usedAt}. Returns 0 if it is
+     * unknown, expired, or was already used, which makes this the single atomic check-and-set of a rotation.
+     */
+    @Modifying
+    @Query("UPDATE RefreshToken t SET t.revoked = true, t.usedAt = :usedAt " +
+           "WHERE t.tokenHash = :tokenHash AND t.revoked = false AND t.expiryDate > :now")
+    int markUsed(@Param("tokenHash") String tokenHash, @Param("usedAt") Instant usedAt, @Param("now") Instant now);
+
+    @Modifying
+    @Query("UPDATE RefreshToken t SET t.revoked = true WHERE t.familyId = :familyId AND t.revoked = false")
+    int revokeFamily(@Param("familyId") String familyId);
+
+    /**
+     * Every token that has not expired yet, for rebuilding in-memory stores.
+     */
+    @Query("SELECT t.tokenHash AS tokenHash, t.user.id AS userId, t.expiryDate AS expiryDate, " +
+           "t.familyId AS familyId, t.revoked AS revoked, t.usedAt AS usedAt FROM RefreshToken t WHERE t.expiryDate > :now")
+    List<ActiveToken> findActiveTokens(@Param("now") Instant now);
+
+    @Modifying
+    @Query("DELETE FROM RefreshToken t WHERE t.user.id = :userId")
+    int deleteByUserId(@Param("userId") Long userId);
+
+    /**
+     * Deletes up to {@code limit} tokens that expired before the cutoff, in its own short transaction.
+     */
+    @Transactional
+    @Modifying
+    @Query(value = "DELETE FROM refresh_tokens WHERE expiry_date < :cutoff LIMIT :limit", nativeQuery = true)
+    int deleteExpiredBatch(@Param("cutoff") Instant cutoff, @Param("limit") int limit);
+
+    interface ActiveToken {
+        String getTokenHash();
+        Long getUserId();
+        Instant getExpiryDate();
+        String getFamilyId();
+        boolean isRevoked();
+        Instant getUsedAt();
+    }
 }
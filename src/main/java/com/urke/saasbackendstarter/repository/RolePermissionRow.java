@@ -0,0 +1,10 @@
+package com.urke.saasbackendstarter.repository;
+
+/**
+ * One (role, permission) pair of a role listing, flattened with the role's organization.
+ * Roles without permissions yield a single row with a {@code null} permission.
+ */
+public record RolePermissionRow(Long roleId, String roleName,
+                                Long organizationId, String organizationName, String organizationSlug,
+                                Long permissionId, String permissionName) {
+}
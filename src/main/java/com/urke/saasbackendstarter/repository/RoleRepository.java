@@ -2,7 +2,10 @@ package com.urke.saasbackendstarter.repository;
 
 import com.urke.saasbackendstarter.domain.Role;
 import com.urke.saasbackendstarter.domain.Organization;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import java.util.List;
 import java.util.Optional;
@@ -11,7 +14,18 @@ import java.util.Optional;
  * JPA repository for user roles.
  */
 public interface RoleRepository extends JpaRepository<Role, Long> {
+    @EntityGraph(attributePaths = "permissions")
     Optional<Role> findByNameAndOrganizationId(String name, Long organizationId);
     boolean existsByNameAndOrganizationId(String name, Long organizationId);
     List<Role> findAllByOrganizationId(Long organizationId);
+
+    /**
+     * Returns the organization's roles with their permissions as flat rows in one query,
+     * without loading Role entities and their permission sets.
+     */
+    @Query("SELECT new com.urke.saasbackendstarter.repository.RolePermissionRow("
+            + "r.id, r.name, o.id, o.name, o.slug, p.id, p.name) "
+            + "FROM Role r JOIN r.organization o LEFT JOIN r.permissions p "
+            + "WHERE o.id = :organizationId ORDER BY r.id, p.id")
+    List<RolePermissionRow> findPermissionRowsByOrganizationId(@Param("organizationId") Long organizationId);
 }
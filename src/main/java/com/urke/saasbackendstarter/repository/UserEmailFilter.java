@@ -0,0 +1,52 @@
+package com.urke.saasbackendstarter.repository;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Locale;
+
+/**
+ * Turns the user-supplied email filter into the LIKE pattern bound to {@link UserRepository#EMAIL_FILTER},
+ * so the user list and the exports filter in the database the same way.
+ * <p>
+ * The pattern is compared with the bare {@code email} column, so a {@code prefix} search can seek the
+ * {@code (deleted, email)} indexes. Matching ignores case through the column's case-insensitive collation
+ * (the MariaDB default, which also makes the unique email index case-insensitive); emails are stored as entered.
+ * {@code contains} mode (the default) matches anywhere in
+ * the address, {@code prefix} mode only at its start. LIKE wildcards in the input are escaped and match literally.
+ */
+@Component
+public class UserEmailFilter {
+
+    /** Escape character of the pattern; {@code !} rather than a backslash, which MariaDB also treats as a string escape. */
+    public static final String ESCAPE = "!";
+
+    static final String MODE_CONTAINS = "contains";
+    static final String MODE_PREFIX = "prefix";
+
+    private final boolean prefix;
+
+    public UserEmailFilter(@Value("${app.users.email-search:contains}") String mode) {
+        String normalized = mode.trim().toLowerCase(Locale.ROOT);
+        if (!MODE_CONTAINS.equals(normalized) && !MODE_PREFIX.equals(normalized)) {
+            throw new IllegalArgumentException("app.users.email-search must be contains or prefix, not " + mode);
+        }
+        this.prefix = MODE_PREFIX.equals(normalized);
+    }
+
+    /**
+     * Returns the LIKE pattern for the given filter, or {@code null} (no filtering) when it is blank.
+     */
+    public String toPattern(String email) {
+        if (email == null || email.isBlank()) return null;
+        String value = email.trim();
+        StringBuilder pattern = new StringBuilder(value.length() + 4);
+        if (!prefix) pattern.append('%');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '%' || c == '_' || c == '!') pattern.append('!');
+            pattern.append(c);
+        }
+        return pattern.append('%').toString();
+    }
+}
@@ -2,28 +2,118 @@ package com.urke.saasbackendstarter.repository;
 
 import com.urke.saasbackendstarter.domain.User;
 import com.urke.saasbackendstarter.domain.Organization;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 public interface UserRepository extends JpaRepository<User, Long> {
+    // Principal lookups: roles and permissions in one query
+    @EntityGraph(User.GRAPH_PRINCIPAL)
     Optional<User> findByEmailAndDeletedFalse(String email);
     boolean existsByEmailAndDeletedFalse(String email);
     
-    @Query("SELECT u FROM User u LEFT JOIN FETCH u.organization WHERE u.email = :email AND u.deleted = false")
+    @EntityGraph(User.GRAPH_DETAILS)
+    @Query("SELECT u FROM User u WHERE u.email = :email AND u.deleted = false")
     Optional<User> findByEmailWithOrganization(@Param("email") String email);
+
+    @EntityGraph(User.GRAPH_DETAILS)
+    Optional<User> findWithDetailsByIdAndDeletedFalse(Long id);
     
+    @EntityGraph(User.GRAPH_SUMMARY)
     List<User> findAllByOrganizationAndDeletedFalse(Organization organization);
+    @EntityGraph(User.GRAPH_SUMMARY)
     List<User> findAllByDeletedFalse();
+    @EntityGraph(User.GRAPH_PRINCIPAL)
     Optional<User> findByIdAndDeletedFalse(Long id);
 
+    /**
+     * Replaces the password hash only if it is still {@code currentHash}, so a password changed
+     * in the meantime is never overwritten. Returns the number of updated rows (0 or 1).
+     */
+    @Transactional
+    @Modifying
+    @Query("UPDATE User u SET u.password = :newHash WHERE u.email = :email AND u.password = :currentHash AND u.deleted = false")
+    int updatePasswordIfUnchanged(@Param("email") String email,
+                                  @Param("currentHash") String currentHash,
+                                  @Param("newHash") String newHash);
+
 
-    // Paginated and filtered
+    // Paginated and filtered. No entity graph here: fetching a collection together with a
+    // page limit makes Hibernate paginate in memory, so roles are batch-fetched instead.
     Page<User> findAllByDeletedFalse(Pageable pageable);
-    Page<User> findByEmailContainingIgnoreCaseAndDeletedFalse(String email, Pageable pageable);
+
+    // Listing projections: summary columns with role names aggregated in the same query,
+    // so no User entities (and their role -> permission graph) are loaded.
+    String SUMMARY_SELECT = "SELECT new com.urke.saasbackendstarter.repository.UserSummaryRow("
+            + "u.id, u.email, u.fullName, listagg(r.name, '" + UserSummaryRow.ROLE_SEPARATOR + "') WITHIN GROUP (ORDER BY r.name)) "
+            + "FROM User u LEFT JOIN u.roles r ";
+    String SUMMARY_GROUP_BY = " GROUP BY u.id, u.email, u.fullName";
+    // Bound to a pattern from UserEmailFilter (null = no filter). The column is compared as is, so the
+    // (deleted, email) indexes stay usable; the case-insensitive collation of email makes the match ignore case.
+    String EMAIL_FILTER = " AND (:emailPattern IS NULL OR u.email LIKE :emailPattern ESCAPE '" + UserEmailFilter.ESCAPE + "')";
+    String EXPORT_FETCH_SIZE = "500";
+
+    @Query(value = SUMMARY_SELECT + "WHERE u.deleted = false" + EMAIL_FILTER + SUMMARY_GROUP_BY,
+           countQuery = "SELECT COUNT(u) FROM User u WHERE u.deleted = false" + EMAIL_FILTER)
+    Page<UserSummaryRow> findSummaries(@Param("emailPattern") String emailPattern, Pageable pageable);
+
+    @Query(value = SUMMARY_SELECT + "WHERE u.organization.id = :organizationId AND u.deleted = false" + EMAIL_FILTER + SUMMARY_GROUP_BY,
+           countQuery = "SELECT COUNT(u) FROM User u WHERE u.organization.id = :organizationId AND u.deleted = false" + EMAIL_FILTER)
+    Page<UserSummaryRow> findSummariesByOrganizationId(@Param("organizationId") Long organizationId,
+                                                       @Param("emailPattern") String emailPattern,
+                                                       Pageable pageable);
+
+    @Query("SELECT COUNT(u) FROM User u WHERE u.organization.id = :organizationId AND u.deleted = false" + EMAIL_FILTER)
+    long countSummariesByOrganizationId(@Param("organizationId") Long organizationId, @Param("emailPattern") String emailPattern);
+
+    /**
+     * Streams the organization's users for export, ordered by id. Rows are read forward-only in
+     * batches of {@value #EXPORT_FETCH_SIZE}, so memory does not grow with the organization.
+     * Must be consumed inside a transaction and closed.
+     */
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = EXPORT_FETCH_SIZE),
+        @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query(SUMMARY_SELECT + "WHERE u.organization.id = :organizationId AND u.deleted = false" + EMAIL_FILTER
+            + SUMMARY_GROUP_BY + " ORDER BY u.id")
+    Stream<UserSummaryRow> streamSummariesByOrganizationId(@Param("organizationId") Long organizationId,
+                                                           @Param("emailPattern") String emailPattern);
+
+    @Query("SELECT u FROM User u WHERE u.deleted = false" + EMAIL_FILTER)
+    Page<User> findByEmailPattern(@Param("emailPattern") String emailPattern, Pageable pageable);
+
+    @Query("SELECT COUNT(u) FROM User u WHERE u.deleted = false" + EMAIL_FILTER)
+    long countByEmailPattern(@Param("emailPattern") String emailPattern);
+
+    // Keyset (seek) pagination in (email, id) order, no count query. Spring Data cannot scroll string
+    // queries, so the seek is written out: rows after (afterEmail, afterId), or from the start when afterId is null.
+    String SCROLL_AFTER = " AND (:afterId IS NULL OR u.email > :afterEmail OR (u.email = :afterEmail AND u.id > :afterId))"
+            + " ORDER BY u.email, u.id";
+
+    @Query("SELECT u FROM User u WHERE u.deleted = false" + EMAIL_FILTER + SCROLL_AFTER)
+    List<User> scrollByEmailPattern(@Param("emailPattern") String emailPattern,
+                                    @Param("afterEmail") String afterEmail,
+                                    @Param("afterId") Long afterId,
+                                    Limit limit);
+
+    @Query("SELECT u FROM User u WHERE u.organization.id = :organizationId AND u.deleted = false" + EMAIL_FILTER + SCROLL_AFTER)
+    List<User> scrollByOrganizationIdAndEmailPattern(@Param("organizationId") Long organizationId,
+                                                     @Param("emailPattern") String emailPattern,
+                                                     @Param("afterEmail") String afterEmail,
+                                                     @Param("afterId") Long afterId,
+                                                     Limit limit);
 }
\ No newline at end of file
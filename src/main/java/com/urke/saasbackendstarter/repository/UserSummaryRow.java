@@ -0,0 +1,20 @@
+package com.urke.saasbackendstarter.repository;
+
+import java.util.List;
+
+/**
+ * User listing row: the summary columns plus the user's role names, aggregated by the
+ * database into one {@link #ROLE_SEPARATOR}-separated string ({@code null} if the user has no roles).
+ */
+public record UserSummaryRow(Long id, String email, String fullName, String roleNames) {
+
+    /** Separator of {@link #roleNames()}: the ASCII unit separator, a control character role names cannot contain. */
+    public static final String ROLE_SEPARATOR = "\u001F";
+
+    /**
+     * Returns the role names in name order, or an empty list if the user has no roles.
+     */
+    public List<String> roles() {
+        return roleNames == null ? List.of() : List.of(roleNames.split(ROLE_SEPARATOR));
+    }
+}
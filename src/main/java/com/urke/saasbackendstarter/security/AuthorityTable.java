@@ -0,0 +1,82 @@
+package com.urke.saasbackendstarter.security;
+
+import org.springframework.security.core.GrantedAuthority;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Per-organization table of interned {@link GrantedAuthority} instances.
+ * <p>
+ * Each distinct authority name (for example {@code ROLE_ADMIN} or {@code USER_VIEW_ALL})
+ * gets exactly one shared instance per organization and a stable bit position, so principals
+ * can carry their authorities as a bitmask and membership checks become a bit test.
+ * Tables live for the lifetime of the application; their size is bounded by the number of
+ * roles and permissions defined per organization.
+ */
+public final class AuthorityTable {
+
+    private static final Long NO_ORGANIZATION = 0L;
+    private static final Map<Long, AuthorityTable> TABLES = new ConcurrentHashMap<>();
+
+    private final Map<String, Authority> authorities = new ConcurrentHashMap<>();
+    // A lock rather than synchronized, so a virtual thread waiting here does not pin its carrier.
+    private final ReentrantLock internLock = new ReentrantLock();
+
+    private AuthorityTable() {
+    }
+
+    /**
+     * Returns the shared table for the organization, creating it on first use.
+     */
+    public static AuthorityTable forOrganization(Long organizationId) {
+        return TABLES.computeIfAbsent(organizationId != null ? organizationId : NO_ORGANIZATION,
+                id -> new AuthorityTable());
+    }
+
+    /**
+     * Returns the interned authority for the name, assigning it the next bit position if new.
+     */
+    public Authority intern(String name) {
+        Authority existing = authorities.get(name);
+        if (existing != null) return existing;
+        internLock.lock();
+        try {
+            return authorities.computeIfAbsent(name, n -> new Authority(n, authorities.size()));
+        } finally {
+            internLock.unlock();
+        }
+    }
+
+    /**
+     * Returns the interned authority for the name, or {@code null} if no principal of this
+     * organization has ever been granted it.
+     */
+    public Authority find(String name) {
+        return authorities.get(name);
+    }
+
+    /**
+     * An interned authority with its bit position. Compared by identity: within a table
+     * there is only ever one instance per name.
+     */
+    public static final class Authority implements GrantedAuthority {
+
+        private final String authority;
+        private final int index;
+
+        private Authority(String authority, int index) {
+            this.authority = authority;
+            this.index = index;
+        }
+
+        @Override
+        public String getAuthority() { return authority; }
+
+        public int getIndex() { return index; }
+
+        @Override
+        public String toString() { return authority; }
+    }
+}
@@ -0,0 +1,50 @@
+package com.urke.saasbackendstarter.security;
+
+import com.urke.saasbackendstarter.domain.Permission;
+import com.urke.saasbackendstarter.domain.Role;
+import com.urke.saasbackendstarter.events.AccessControlEvent;
+import com.urke.saasbackendstarter.repository.PermissionRepository;
+import com.urke.saasbackendstarter.repository.RoleRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.List;
+
+/**
+ * Assigns bit positions to each organization's roles and permissions up front, so the
+ * {@link AuthorityTable} of an organization is dense and ordered by its {@code Role} and
+ * {@code Permission} rows rather than by which user happened to log in first.
+ * Names not seen here are still interned on first use.
+ */
+@Component
+@RequiredArgsConstructor
+public class AuthorityTableSeeder {
+
+    private final RoleRepository roleRepository;
+    private final PermissionRepository permissionRepository;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void seedAll() {
+        seed(roleRepository.findAll(), permissionRepository.findAll());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onAccessControlEvent(AccessControlEvent event) {
+        Long organizationId = event.getOrganizationId();
+        if (organizationId == null) return;
+        seed(roleRepository.findAllByOrganizationId(organizationId),
+                permissionRepository.findAllByOrganizationId(organizationId));
+    }
+
+    private void seed(List<Role> roles, List<Permission> permissions) {
+        for (Role role : roles) {
+            AuthorityTable.forOrganization(role.getOrganization().getId()).intern("ROLE_" + role.getName());
+        }
+        for (Permission permission : permissions) {
+            AuthorityTable.forOrganization(permission.getOrganization().getId()).intern(permission.getName());
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package com.urke.saasbackendstarter.security;
+
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.time.Duration;
+
+/**
+ * Picks a BCrypt cost factor for this machine by timing sample hashes at startup.
+ * <p>
+ * Each extra cost step doubles the hash time, so the strength is raised one step at a time while
+ * the hash still finishes within the target, and never drops below the configured minimum.
+ * Existing hashes keep their own cost, so changing it only affects newly encoded passwords.
+ */
+final class BCryptStrengthCalibrator {
+
+    static final int MAX_STRENGTH = 16;
+
+    private static final String SAMPLE = "calibration-sample-password";
+
+    private BCryptStrengthCalibrator() {
+    }
+
+    /**
+     * Returns the highest strength between {@code minStrength} and {@link #MAX_STRENGTH} whose
+     * measured hash time is within {@code target}.
+     */
+    static int calibrate(int minStrength, Duration target) {
+        long targetNanos = target.toNanos();
+        // Warm up the JIT so the first measurement is not inflated.
+        new BCryptPasswordEncoder(4).encode(SAMPLE);
+
+        int strength = minStrength;
+        long elapsed = time(strength);
+        while (strength < MAX_STRENGTH && elapsed * 2 <= targetNanos) {
+            long next = time(strength + 1);
+            if (next > targetNanos) break;
+            strength++;
+            elapsed = next;
+        }
+        return strength;
+    }
+
+    private static long time(int strength) {
+        BCryptPasswordEncoder encoder = new BCryptPasswordEncoder(strength);
+        long start = System.nanoTime();
+        encoder.encode(SAMPLE);
+        return System.nanoTime() - start;
+    }
+}
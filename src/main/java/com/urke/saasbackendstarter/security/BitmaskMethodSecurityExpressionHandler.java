@@ -0,0 +1,31 @@
+package com.urke.saasbackendstarter.security;
+
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.expression.EvaluationContext;
+import org.springframework.expression.spel.support.StandardEvaluationContext;
+import org.springframework.security.access.expression.method.DefaultMethodSecurityExpressionHandler;
+import org.springframework.security.access.expression.method.MethodSecurityExpressionOperations;
+import org.springframework.security.core.Authentication;
+
+import java.util.function.Supplier;
+
+/**
+ * Method security expression handler that evaluates {@code @PreAuthorize} authority and role
+ * checks as bitmask tests on the {@link CustomUserDetails} principal.
+ * <p>
+ * Parsing is unchanged: Spring Security already parses each annotation's expression once and
+ * caches it per method. Only the root object the cached expression is evaluated against is
+ * replaced with a {@link BitmaskSecurityExpressionRoot}.
+ */
+public class BitmaskMethodSecurityExpressionHandler extends DefaultMethodSecurityExpressionHandler {
+
+    @Override
+    public EvaluationContext createEvaluationContext(Supplier<Authentication> authentication, MethodInvocation mi) {
+        EvaluationContext context = super.createEvaluationContext(authentication, mi);
+        if (context instanceof StandardEvaluationContext standard
+                && standard.getRootObject().getValue() instanceof MethodSecurityExpressionOperations root) {
+            standard.setRootObject(new BitmaskSecurityExpressionRoot(root, getDefaultRolePrefix()));
+        }
+        return context;
+    }
+}
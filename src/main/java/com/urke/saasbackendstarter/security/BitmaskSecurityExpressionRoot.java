@@ -0,0 +1,117 @@
+package com.urke.saasbackendstarter.security;
+
+import org.springframework.security.access.expression.method.MethodSecurityExpressionOperations;
+import org.springframework.security.core.Authentication;
+
+/**
+ * Method security expression root that answers {@code hasAuthority}/{@code hasRole} checks
+ * with a bit test against the authority bitmask of a {@link CustomUserDetails} principal.
+ * <p>
+ * Every other operation, and principals of any other type, are delegated to the stock root.
+ */
+public class BitmaskSecurityExpressionRoot implements MethodSecurityExpressionOperations {
+
+    private final MethodSecurityExpressionOperations delegate;
+    private final String rolePrefix;
+
+    public BitmaskSecurityExpressionRoot(MethodSecurityExpressionOperations delegate, String rolePrefix) {
+        this.delegate = delegate;
+        this.rolePrefix = rolePrefix != null ? rolePrefix : "";
+    }
+
+    @Override
+    public boolean hasAuthority(String authority) {
+        CustomUserDetails principal = principal();
+        return principal != null ? principal.hasAuthority(authority) : delegate.hasAuthority(authority);
+    }
+
+    @Override
+    public boolean hasAnyAuthority(String... authorities) {
+        CustomUserDetails principal = principal();
+        if (principal == null) return delegate.hasAnyAuthority(authorities);
+        for (String authority : authorities) {
+            if (principal.hasAuthority(authority)) return true;
+        }
+        return false;
+    }
+
+    @Override
+    public boolean hasRole(String role) {
+        CustomUserDetails principal = principal();
+        return principal != null ? principal.hasAuthority(withRolePrefix(role)) : delegate.hasRole(role);
+    }
+
+    @Override
+    public boolean hasAnyRole(String... roles) {
+        CustomUserDetails principal = principal();
+        if (principal == null) return delegate.hasAnyRole(roles);
+        for (String role : roles) {
+            if (principal.hasAuthority(withRolePrefix(role))) return true;
+        }
+        return false;
+    }
+
+    @Override
+    public Authentication getAuthentication() { return delegate.getAuthentication(); }
+
+    /**
+     * Exposes {@code principal} to expressions, as the stock root does.
+     */
+    public Object getPrincipal() {
+        Authentication authentication = getAuthentication();
+        return authentication != null ? authentication.getPrincipal() : null;
+    }
+
+    @Override
+    public boolean permitAll() { return delegate.permitAll(); }
+
+    @Override
+    public boolean denyAll() { return delegate.denyAll(); }
+
+    @Override
+    public boolean isAnonymous() { return delegate.isAnonymous(); }
+
+    @Override
+    public boolean isAuthenticated() { return delegate.isAuthenticated(); }
+
+    @Override
+    public boolean isRememberMe() { return delegate.isRememberMe(); }
+
+    @Override
+    public boolean isFullyAuthenticated() { return delegate.isFullyAuthenticated(); }
+
+    @Override
+    public boolean hasPermission(Object target, Object permission) {
+        return delegate.hasPermission(target, permission);
+    }
+
+    @Override
+    public boolean hasPermission(Object targetId, String targetType, Object permission) {
+        return delegate.hasPermission(targetId, targetType, permission);
+    }
+
+    @Override
+    public void setFilterObject(Object filterObject) { delegate.setFilterObject(filterObject); }
+
+    @Override
+    public Object getFilterObject() { return delegate.getFilterObject(); }
+
+    @Override
+    public void setReturnObject(Object returnObject) { delegate.setReturnObject(returnObject); }
+
+    @Override
+    public Object getReturnObject() { return delegate.getReturnObject(); }
+
+    @Override
+    public Object getThis() { return delegate.getThis(); }
+
+    private CustomUserDetails principal() {
+        Authentication authentication = getAuthentication();
+        return authentication != null && authentication.getPrincipal() instanceof CustomUserDetails principal
+                ? principal : null;
+    }
+
+    private String withRolePrefix(String role) {
+        return rolePrefix.isEmpty() || role.startsWith(rolePrefix) ? role : rolePrefix + role;
+    }
+}
@@ -0,0 +1,127 @@
+package com.urke.saasbackendstarter.security;
+
+import com.urke.saasbackendstarter.exception.PasswordHashingUnavailableException;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.time.Duration;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * {@link PasswordEncoder} that runs the delegate's {@code encode} and {@code matches} on a small,
+ * dedicated thread pool with a bounded queue.
+ * <p>
+ * Password hashing is deliberately slow, so a login burst would otherwise keep every request
+ * thread busy hashing. With this encoder at most {@code threads} hashes run at once. Callers wait
+ * for their result, but a full queue or a wait longer than {@code max-wait} fails fast with
+ * {@link PasswordHashingUnavailableException}, which is answered with 503.
+ * <p>
+ * Publishes {@code auth.password.hash} (hash time, histogram) and {@code auth.password.hash.wait}
+ * (queue time) timers tagged by {@code operation}, plus the {@code auth.password.hash.queue} gauge.
+ */
+public class BoundedPasswordEncoder implements PasswordEncoder, AutoCloseable {
+
+    private final PasswordEncoder delegate;
+    private final ThreadPoolExecutor executor;
+    private final long maxWaitNanos;
+    private final Timer encodeTimer;
+    private final Timer matchesTimer;
+    private final Timer encodeWaitTimer;
+    private final Timer matchesWaitTimer;
+
+    public BoundedPasswordEncoder(PasswordEncoder delegate, int threads, int queueCapacity, Duration maxWait,
+                                  MeterRegistry meterRegistry) {
+        this.delegate = delegate;
+        this.maxWaitNanos = maxWait.toNanos();
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), runnable -> {
+                    Thread thread = new Thread(runnable, "password-hash-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                }, new ThreadPoolExecutor.AbortPolicy());
+        this.encodeTimer = hashTimer("encode", meterRegistry);
+        this.matchesTimer = hashTimer("matches", meterRegistry);
+        this.encodeWaitTimer = waitTimer("encode", meterRegistry);
+        this.matchesWaitTimer = waitTimer("matches", meterRegistry);
+        Gauge.builder("auth.password.hash.queue", executor, pool -> pool.getQueue().size())
+                .description("Password hashing requests waiting for a thread")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        return run(() -> delegate.encode(rawPassword), encodeTimer, encodeWaitTimer);
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        return run(() -> delegate.matches(rawPassword, encodedPassword), matchesTimer, matchesWaitTimer);
+    }
+
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        return delegate.upgradeEncoding(encodedPassword);
+    }
+
+    /**
+     * Stops the hashing threads. Queued hashes are abandoned, so their callers time out.
+     */
+    @Override
+    public void close() {
+        executor.shutdownNow();
+    }
+
+    private <T> T run(Callable<T> hash, Timer hashTimer, Timer waitTimer) {
+        long submitted = System.nanoTime();
+        Future<T> future;
+        try {
+            future = executor.submit(() -> {
+                waitTimer.record(System.nanoTime() - submitted, TimeUnit.NANOSECONDS);
+                return hashTimer.recordCallable(hash);
+            });
+        } catch (RejectedExecutionException ex) {
+            throw new PasswordHashingUnavailableException("Password hashing queue is full", ex);
+        }
+        try {
+            return future.get(maxWaitNanos, TimeUnit.NANOSECONDS);
+        } catch (TimeoutException ex) {
+            future.cancel(true);
+            throw new PasswordHashingUnavailableException("Password hashing timed out", ex);
+        } catch (InterruptedException ex) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new PasswordHashingUnavailableException("Interrupted while waiting for password hashing", ex);
+        } catch (ExecutionException ex) {
+            if (ex.getCause() instanceof RuntimeException runtime) throw runtime;
+            if (ex.getCause() instanceof Error error) throw error;
+            throw new IllegalStateException(ex.getCause());
+        }
+    }
+
+    private static Timer hashTimer(String operation, MeterRegistry meterRegistry) {
+        return Timer.builder("auth.password.hash")
+                .description("Time spent computing password hashes")
+                .tag("operation", operation)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+
+    private static Timer waitTimer(String operation, MeterRegistry meterRegistry) {
+        return Timer.builder("auth.password.hash.wait")
+                .description("Time password hashing requests spent queued")
+                .tag("operation", operation)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+}
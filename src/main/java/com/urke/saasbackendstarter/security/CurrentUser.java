@@ -0,0 +1,20 @@
+package com.urke.saasbackendstarter.security;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Injects the authenticated user into a controller method parameter.
+ * <p>
+ * Supported parameter types are {@link com.urke.saasbackendstarter.domain.User} (the entity,
+ * loaded at most once per request) and {@link CustomUserDetails} (the principal snapshot,
+ * no database access).
+ */
+@Target(ElementType.PARAMETER)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface CurrentUser {
+}
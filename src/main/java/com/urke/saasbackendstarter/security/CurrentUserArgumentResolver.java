@@ -0,0 +1,37 @@
+package com.urke.saasbackendstarter.security;
+
+import com.urke.saasbackendstarter.domain.User;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.core.MethodParameter;
+import org.springframework.web.bind.support.WebDataBinderFactory;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.method.support.HandlerMethodArgumentResolver;
+import org.springframework.web.method.support.ModelAndViewContainer;
+
+/**
+ * Resolves {@link CurrentUser}-annotated controller parameters through {@link CurrentUserProvider}.
+ * The provider is looked up lazily so web-layer slices that never use the annotation do not need it.
+ */
+@RequiredArgsConstructor
+public class CurrentUserArgumentResolver implements HandlerMethodArgumentResolver {
+
+    private final ObjectProvider<CurrentUserProvider> currentUserProvider;
+
+    @Override
+    public boolean supportsParameter(MethodParameter parameter) {
+        if (!parameter.hasParameterAnnotation(CurrentUser.class)) return false;
+        Class<?> type = parameter.getParameterType();
+        return type == User.class || type == CustomUserDetails.class;
+    }
+
+    @Override
+    public Object resolveArgument(MethodParameter parameter, ModelAndViewContainer mavContainer,
+                                  NativeWebRequest webRequest, WebDataBinderFactory binderFactory) {
+        CurrentUserProvider provider = currentUserProvider.getObject();
+        if (parameter.getParameterType() == CustomUserDetails.class) {
+            return provider.getCurrentPrincipal();
+        }
+        return provider.getCurrentUser();
+    }
+}
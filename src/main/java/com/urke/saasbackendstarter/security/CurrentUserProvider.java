@@ -2,39 +2,106 @@ package com.urke.saasbackendstarter.security;
 
 import com.urke.saasbackendstarter.domain.Organization;
 import com.urke.saasbackendstarter.domain.User;
+import com.urke.saasbackendstarter.repository.OrganizationRepository;
 import com.urke.saasbackendstarter.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
 import org.springframework.context.MessageSource;
 import org.springframework.context.i18n.LocaleContextHolder;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import com.urke.saasbackendstarter.exception.AuthException;
 import com.urke.saasbackendstarter.exception.UserNotFoundException;
 import org.springframework.stereotype.Component;
 
 /**
  * Provides access to the currently authenticated user and organization context.
+ * <p>
+ * The user entity is resolved from the security principal and memoized for the lifetime
+ * of the current HTTP request, so it is loaded at most once per request. Without an authenticated
+ * user every lookup throws {@link AuthException} (401).
  */
 @Component
 @RequiredArgsConstructor
 public class CurrentUserProvider {
 
+    private static final String CURRENT_USER_ATTRIBUTE = CurrentUserProvider.class.getName() + ".user";
+
     private final UserRepository userRepository;
+    private final OrganizationRepository organizationRepository;
+    private final CustomUserDetailsService userDetailsService;
     private final MessageSource messageSource;
 
+    /**
+     * Returns the authenticated principal snapshot. Uses the principal set by the JWT filter
+     * when available, otherwise the cached user details for the authenticated email.
+     */
+    public CustomUserDetails getCurrentPrincipal() {
+        Authentication authentication = currentAuthentication();
+        if (authentication.getPrincipal() instanceof CustomUserDetails principal) {
+            return principal;
+        }
+        try {
+            return userDetailsService.loadUser(authentication.getName());
+        } catch (UsernameNotFoundException ex) {
+            throw userNotFound();
+        }
+    }
+
     /**
      * Returns the currently authenticated user, or throws if not found.
+     * Within an HTTP request the first lookup is reused by every later call.
      */
     public User getCurrentUser() {
-    	String email = SecurityContextHolder.getContext().getAuthentication().getName();
-        return userRepository.findByEmailAndDeletedFalse(email)
-                .orElseThrow(() -> new UserNotFoundException(
-                        messageSource.getMessage("user.notfound", null, LocaleContextHolder.getLocale())
-                ));
+        RequestAttributes request = RequestContextHolder.getRequestAttributes();
+        if (request != null
+                && request.getAttribute(CURRENT_USER_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST) instanceof User user) {
+            return user;
+        }
+        User user = loadCurrentUser();
+        if (request != null) {
+            request.setAttribute(CURRENT_USER_ATTRIBUTE, user, RequestAttributes.SCOPE_REQUEST);
+        }
+        return user;
+    }
+
+    private User loadCurrentUser() {
+        Authentication authentication = currentAuthentication();
+        if (authentication.getPrincipal() instanceof CustomUserDetails principal && principal.getId() != null) {
+            return userRepository.findByIdAndDeletedFalse(principal.getId())
+                    .orElseThrow(this::userNotFound);
+        }
+        return userRepository.findByEmailAndDeletedFalse(authentication.getName())
+                .orElseThrow(this::userNotFound);
     }
 
     /**
      * Returns the organization for the currently authenticated user.
+     * The organization id comes from the principal snapshot, so no user query is issued.
      */
     public Organization getCurrentOrganization() {
-        return getCurrentUser().getOrganization();
+        Long organizationId = getCurrentPrincipal().getOrganizationId();
+        if (organizationId == null) {
+            return getCurrentUser().getOrganization();
+        }
+        return organizationRepository.getReferenceById(organizationId);
+    }
+
+    private Authentication currentAuthentication() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || !authentication.isAuthenticated()
+                || authentication instanceof AnonymousAuthenticationToken) {
+            throw new AuthException(
+                    messageSource.getMessage("auth.required", null, LocaleContextHolder.getLocale()));
+        }
+        return authentication;
+    }
+
+    private UserNotFoundException userNotFound() {
+        return new UserNotFoundException(
+                messageSource.getMessage("user.notfound", null, LocaleContextHolder.getLocale()));
     }
-}
\ No newline at end of file
+}
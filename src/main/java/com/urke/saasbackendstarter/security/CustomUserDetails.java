@@ -1,49 +1,107 @@
 package com.urke.saasbackendstarter.security;
 
+import com.urke.saasbackendstarter.domain.Permission;
 import com.urke.saasbackendstarter.domain.Role;
 import com.urke.saasbackendstarter.domain.User;
-import lombok.RequiredArgsConstructor;
 import org.springframework.security.core.GrantedAuthority;
-import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
 
+import java.util.Arrays;
 import java.util.Collection;
-import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.Set;
-import java.util.stream.Collectors;
 
 /**
  * Custom UserDetails implementation for Spring Security.
- * Wraps the application's User entity.
+ * <p>
+ * Holds a detached snapshot of the user (id, organization, role and permission names)
+ * rather than the JPA entity, so it can be built either from the database or from
+ * the claims of a trusted JWT.
+ * <p>
+ * Authorities are computed once at construction from the organization's {@link AuthorityTable},
+ * so every principal of an organization shares the same authority instances and carries its
+ * grants as a bitmask for {@link #hasAuthority(String)}.
  */
-@RequiredArgsConstructor
 public class CustomUserDetails implements UserDetails {
 
-    private final User user;
+    private final Long id;
+    private final String email;
+    private final String password;
+    private final Long organizationId;
+    private final Set<String> roleNames;
+    private final Set<String> permissionNames;
+    private final AuthorityTable authorityTable;
+    private final Set<GrantedAuthority> authorities;
+    private final long[] authorityBits;
 
-    public User getUser() {
-        return user;
+    public CustomUserDetails(User user) {
+        this(user.getId(), user.getEmail(), user.getPassword(),
+                user.getOrganization() != null ? user.getOrganization().getId() : null,
+                roleNamesOf(user), permissionNamesOf(user));
     }
 
-    @Override
-    public Collection<? extends GrantedAuthority> getAuthorities() {
-        Set<GrantedAuthority> authorities = new HashSet<>();
-        for (Role role : user.getRoles()) {
-            authorities.add(new SimpleGrantedAuthority("ROLE_" + role.getName()));
-            if (role.getPermissions() != null) {
-                authorities.addAll(role.getPermissions().stream()
-                        .map(p -> new SimpleGrantedAuthority(p.getName()))
-                        .collect(Collectors.toSet()));
+    public CustomUserDetails(Long id, String email, String password, Long organizationId,
+                             Set<String> roleNames, Set<String> permissionNames) {
+        this.id = id;
+        this.email = email;
+        this.password = password;
+        this.organizationId = organizationId;
+        this.roleNames = Set.copyOf(roleNames);
+        this.permissionNames = Set.copyOf(permissionNames);
+        this.authorityTable = AuthorityTable.forOrganization(organizationId);
+
+        Set<GrantedAuthority> granted = new LinkedHashSet<>();
+        for (String role : this.roleNames) {
+            granted.add(authorityTable.intern("ROLE_" + role));
+        }
+        for (String permission : this.permissionNames) {
+            granted.add(authorityTable.intern(permission));
+        }
+        long[] bits = new long[0];
+        for (GrantedAuthority authority : granted) {
+            int index = ((AuthorityTable.Authority) authority).getIndex();
+            if ((index >> 6) >= bits.length) {
+                bits = Arrays.copyOf(bits, (index >> 6) + 1);
             }
+            bits[index >> 6] |= 1L << index;
         }
+        this.authorities = Set.copyOf(granted);
+        this.authorityBits = bits;
+    }
+
+    public Long getId() { return id; }
+    public Long getOrganizationId() { return organizationId; }
+    public Set<String> getRoleNames() { return roleNames; }
+    public Set<String> getPermissionNames() { return permissionNames; }
+
+    public AuthorityTable getAuthorityTable() { return authorityTable; }
+
+    /**
+     * Returns whether the given interned authority is granted, as a single bit test.
+     */
+    public boolean hasAuthority(AuthorityTable.Authority authority) {
+        int word = authority.getIndex() >> 6;
+        return word < authorityBits.length && (authorityBits[word] & (1L << authority.getIndex())) != 0;
+    }
+
+    /**
+     * Returns whether the authority with the given name (for example {@code ROLE_ADMIN}) is granted.
+     */
+    public boolean hasAuthority(String authority) {
+        AuthorityTable.Authority interned = authorityTable.find(authority);
+        return interned != null && hasAuthority(interned);
+    }
+
+    @Override
+    public Collection<? extends GrantedAuthority> getAuthorities() {
         return authorities;
     }
 
     @Override
-    public String getPassword() { return user.getPassword(); }
+    public String getPassword() { return password; }
 
     @Override
-    public String getUsername() { return user.getEmail(); }
+    public String getUsername() { return email; }
 
     @Override
     public boolean isAccountNonExpired() { return true; }
@@ -56,4 +114,27 @@ public class CustomUserDetails implements UserDetails {
 
     @Override
     public boolean isEnabled() { return true; }
-}
\ No newline at end of file
+
+    private static Set<String> roleNamesOf(User user) {
+        Set<String> names = new LinkedHashSet<>();
+        if (user.getRoles() != null) {
+            for (Role role : user.getRoles()) {
+                names.add(role.getName());
+            }
+        }
+        return names;
+    }
+
+    private static Set<String> permissionNamesOf(User user) {
+        Set<String> names = new LinkedHashSet<>();
+        if (user.getRoles() != null) {
+            for (Role role : user.getRoles()) {
+                if (role.getPermissions() == null) continue;
+                for (Permission permission : role.getPermissions()) {
+                    names.add(permission.getName());
+                }
+            }
+        }
+        return names;
+    }
+}
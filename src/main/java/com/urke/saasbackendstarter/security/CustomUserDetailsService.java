@@ -11,20 +11,33 @@ import org.springframework.stereotype.Service;
 
 /**
  * Custom implementation of UserDetailsService for loading users by email.
+ * Lookups are served from {@link UserDetailsCache} and only hit the database on a miss.
  */
 @Service
 @RequiredArgsConstructor
 public class CustomUserDetailsService implements UserDetailsService {
 
     private final UserRepository userRepository;
+    private final UserDetailsCache userDetailsCache;
     private final MessageSource messageSource;
 
     @Override
     public UserDetails loadUserByUsername(String email) throws UsernameNotFoundException {
+        return loadUser(email);
+    }
+
+    /**
+     * Same as {@link #loadUserByUsername(String)}, typed to the application principal.
+     */
+    public CustomUserDetails loadUser(String email) throws UsernameNotFoundException {
+        return userDetailsCache.get(email, this::loadFromDatabase);
+    }
+
+    private CustomUserDetails loadFromDatabase(String email) {
         return userRepository.findByEmailAndDeletedFalse(email)
             .map(CustomUserDetails::new)
             .orElseThrow(() -> new UsernameNotFoundException(
                 messageSource.getMessage("user.notfound", null, LocaleContextHolder.getLocale())
             ));
     }
-}
\ No newline at end of file
+}
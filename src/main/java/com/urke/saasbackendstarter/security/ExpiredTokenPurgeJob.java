@@ -0,0 +1,112 @@
+package com.urke.saasbackendstarter.security;
+
+import com.urke.saasbackendstarter.repository.PasswordResetTokenRepository;
+import com.urke.saasbackendstarter.repository.RefreshTokenRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.function.IntSupplier;
+
+/**
+ * Periodically deletes expired refresh and password-reset tokens.
+ * <p>
+ * Rows are deleted in bounded batches ({@code DELETE ... LIMIT}), each batch in its own short
+ * transaction with an optional pause in between, so the purge never holds long locks on the
+ * auth tables. Metrics: {@code auth.tokens.purged} (rows) and {@code auth.tokens.purge.batch}
+ * (time per batch), both tagged with the table name.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "app.security.token-purge.enabled", havingValue = "true", matchIfMissing = true)
+public class ExpiredTokenPurgeJob {
+
+    private static final String REFRESH_TOKENS = "refresh_tokens";
+    private static final String PASSWORD_RESET_TOKENS = "password_reset_tokens";
+
+    private final RefreshTokenRepository refreshTokenRepository;
+    private final PasswordResetTokenRepository passwordResetTokenRepository;
+    private final RefreshTokenStore refreshTokenStore;
+    private final MeterRegistry meterRegistry;
+    private final int batchSize;
+    private final int maxBatchesPerRun;
+    private final Duration batchPause;
+
+    public ExpiredTokenPurgeJob(
+            RefreshTokenRepository refreshTokenRepository,
+            PasswordResetTokenRepository passwordResetTokenRepository,
+            RefreshTokenStore refreshTokenStore,
+            MeterRegistry meterRegistry,
+            @Value("${app.security.token-purge.batch-size:1000}") int batchSize,
+            @Value("${app.security.token-purge.max-batches-per-run:100}") int maxBatchesPerRun,
+            @Value("${app.security.token-purge.batch-pause:PT0.05S}") Duration batchPause) {
+        this.refreshTokenRepository = refreshTokenRepository;
+        this.passwordResetTokenRepository = passwordResetTokenRepository;
+        this.refreshTokenStore = refreshTokenStore;
+        this.meterRegistry = meterRegistry;
+        this.batchSize = batchSize;
+        this.maxBatchesPerRun = maxBatchesPerRun;
+        this.batchPause = batchPause;
+    }
+
+    @Scheduled(fixedDelayString = "${app.security.token-purge.interval:PT15M}",
+               initialDelayString = "${app.security.token-purge.initial-delay:PT1M}")
+    public void purgeExpiredTokens() {
+        Instant now = Instant.now();
+        long refreshTokens = purge(REFRESH_TOKENS,
+                () -> refreshTokenRepository.deleteExpiredBatch(now, batchSize));
+        LocalDateTime localNow = LocalDateTime.now();
+        long resetTokens = purge(PASSWORD_RESET_TOKENS,
+                () -> passwordResetTokenRepository.deleteExpiredBatch(localNow, batchSize));
+        int evicted = refreshTokenStore.evictExpired(now);
+        if (refreshTokens + resetTokens + evicted > 0) {
+            log.info("Purged {} expired refresh tokens, {} expired password reset tokens, evicted {} from memory",
+                    refreshTokens, resetTokens, evicted);
+        }
+    }
+
+    /**
+     * Deletes batches until one comes back short or the per-run limit is reached.
+     */
+    long purge(String table, IntSupplier deleteBatch) {
+        Counter purged = meterRegistry.counter("auth.tokens.purged", "table", table);
+        Timer batchTimer = meterRegistry.timer("auth.tokens.purge.batch", "table", table);
+        long total = 0;
+        for (int batch = 0; batch < maxBatchesPerRun; batch++) {
+            Timer.Sample sample = Timer.start(meterRegistry);
+            int deleted;
+            try {
+                deleted = deleteBatch.getAsInt();
+            } catch (RuntimeException ex) {
+                log.warn("Purge of expired rows from {} failed after {} rows", table, total, ex);
+                return total;
+            } finally {
+                sample.stop(batchTimer);
+            }
+            purged.increment(deleted);
+            total += deleted;
+            if (deleted < batchSize) break;
+            if (!pause()) break;
+        }
+        return total;
+    }
+
+    private boolean pause() {
+        if (batchPause.isZero()) return true;
+        try {
+            Thread.sleep(batchPause.toMillis());
+            return true;
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
@@ -0,0 +1,335 @@
+package com.urke.saasbackendstarter.security;
+
+import com.urke.saasbackendstarter.domain.RefreshToken;
+import com.urke.saasbackendstarter.exception.RefreshTokenStoreUnavailableException;
+import com.urke.saasbackendstarter.repository.RefreshTokenRepository;
+import com.urke.saasbackendstarter.repository.UserRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * {@link RefreshTokenStore} that answers every lookup from memory and persists writes to the
+ * {@code refresh_tokens} table asynchronously, in batches, one transaction per batch.
+ * <p>
+ * Tokens are keyed by their SHA-256 hash; the map is a {@link ConcurrentHashMap}, which is already
+ * lock-striped, and a per-user index makes revocation independent of the total token count.
+ * Every change for one user, including its check and the queueing of its database write, runs inside
+ * one {@code tokensByUser.compute}, so changes are serialized per user and reach the queue in the order
+ * they were made in memory. The store is rebuilt from the table on startup. Writes are applied in queue
+ * order: a failed batch is retried row by row, and a write that still fails stays at the head of the
+ * queue until it succeeds. Only the token insert of a write may be given up after repeated failures;
+ * its revocation part is always retried. When the queue is full (the database is down or falling
+ * behind), callers wait up to {@code max-wait} for room and then fail with
+ * {@link RefreshTokenStoreUnavailableException} (503) without changing anything in memory. Writes still
+ * queued when the process dies are lost, so affected users simply log in again. Every instance holds its own copy, so this store is meant for single-instance
+ * deployments.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "app.security.refresh-tokens.store", havingValue = "memory")
+public class InMemoryRefreshTokenStore implements RefreshTokenStore {
+
+    static final int MAX_INSERT_ATTEMPTS = 3;
+
+    private final RefreshTokenRepository refreshTokenRepository;
+    private final UserRepository userRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final Duration reuseGrace;
+    private final int batchSize;
+    private final Duration maxWait;
+    private final Duration flushInterval;
+
+    private final Map<String, RefreshTokenRecord> tokens = new ConcurrentHashMap<>();
+    private final Map<Long, Set<String>> tokensByUser = new ConcurrentHashMap<>();
+    private final BlockingQueue<PendingWrite> pendingWrites;
+    /** Writes of a failed flush, retried before anything in {@link #pendingWrites}. Guarded by {@code this}. */
+    private final Deque<PendingWrite> retries = new ArrayDeque<>();
+    private final ScheduledExecutorService flusher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "refresh-token-write-behind");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public InMemoryRefreshTokenStore(
+            RefreshTokenRepository refreshTokenRepository,
+            UserRepository userRepository,
+            PlatformTransactionManager transactionManager,
+            @Value("${app.security.refresh-tokens.reuse-grace:PT10S}") Duration reuseGrace,
+            @Value("${app.security.refresh-tokens.write-behind.batch-size:500}") int batchSize,
+            @Value("${app.security.refresh-tokens.write-behind.max-pending:100000}") int maxPending,
+            @Value("${app.security.refresh-tokens.write-behind.max-wait:PT1S}") Duration maxWait,
+            @Value("${app.security.refresh-tokens.write-behind.flush-interval:PT0.2S}") Duration flushInterval) {
+        this.refreshTokenRepository = refreshTokenRepository;
+        this.userRepository = userRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.reuseGrace = reuseGrace;
+        this.batchSize = batchSize;
+        this.maxWait = maxWait;
+        this.flushInterval = flushInterval;
+        this.pendingWrites = new LinkedBlockingQueue<>(maxPending);
+    }
+
+    /**
+     * Loads every unexpired token from the table and starts the background writer.
+     */
+    @PostConstruct
+    public void start() {
+        List<RefreshTokenRepository.ActiveToken> active = refreshTokenRepository.findActiveTokens(Instant.now());
+        for (RefreshTokenRepository.ActiveToken token : active) {
+            put(token.getTokenHash(), new RefreshTokenRecord(
+                    token.getUserId(), token.getExpiryDate(), token.getFamilyId(), token.isRevoked(), token.getUsedAt()));
+        }
+        log.info("Loaded {} refresh tokens into memory", active.size());
+        flusher.scheduleWithFixedDelay(this::flush, flushInterval.toMillis(), flushInterval.toMillis(),
+                TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Stops the background writer and writes out everything still queued.
+     */
+    @PreDestroy
+    public void stop() {
+        flusher.shutdown();
+        try {
+            flusher.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+        int failedFlushes = 0;
+        while (pendingWriteCount() > 0) {
+            if (flush()) {
+                failedFlushes = 0;
+            } else if (++failedFlushes >= MAX_INSERT_ATTEMPTS) {
+                log.error("Giving up on {} refresh token writes at shutdown", pendingWriteCount());
+                return;
+            }
+        }
+    }
+
+    @Override
+    public void issue(String token, RefreshTokenRecord record) {
+        String hash = RefreshTokenStore.hash(token);
+        tokensByUser.compute(record.userId(), (userId, hashes) -> {
+            enqueue(new PendingWrite(
+                    repository -> repository.deleteByUserId(userId),
+                    repository -> save(repository, hash, record)));
+            if (hashes != null) hashes.forEach(tokens::remove);
+            tokens.put(hash, record);
+            Set<String> updated = new HashSet<>();
+            updated.add(hash);
+            return updated;
+        });
+    }
+
+    @Override
+    public Optional<RefreshTokenRecord> find(String token) {
+        return Optional.ofNullable(tokens.get(RefreshTokenStore.hash(token)));
+    }
+
+    @Override
+    public Optional<RefreshTokenRecord> rotate(String token, String replacement, Instant replacementExpiresAt) {
+        String hash = RefreshTokenStore.hash(token);
+        RefreshTokenRecord found = tokens.get(hash);
+        if (found == null) return Optional.empty();
+        String nextHash = RefreshTokenStore.hash(replacement);
+        RefreshTokenRecord[] rotated = new RefreshTokenRecord[1];
+        tokensByUser.computeIfPresent(found.userId(), (userId, hashes) -> {
+            RefreshTokenRecord current = tokens.get(hash);
+            if (current == null) return hashes;
+            Instant now = Instant.now();
+            if (current.revoked()) {
+                // A duplicate refresh from the same client that lost the race is rejected without revoking.
+                if (current.usedWithin(reuseGrace, now)) return hashes;
+                log.warn("Refresh token reuse detected for user {}, revoking token family {}", userId, current.familyId());
+                revokeFamily(hashes, current.familyId());
+                return hashes;
+            }
+            if (current.isExpired(now)) return hashes;
+            RefreshTokenRecord next = new RefreshTokenRecord(userId, replacementExpiresAt, current.familyId());
+            enqueue(new PendingWrite(
+                    // Already decided in memory; only record it, whatever the expiry.
+                    repository -> repository.markUsed(hash, now, Instant.EPOCH),
+                    repository -> save(repository, nextHash, next)));
+            tokens.put(hash, current.asUsed(now));
+            tokens.put(nextHash, next);
+            hashes.add(nextHash);
+            rotated[0] = next;
+            return hashes;
+        });
+        return Optional.ofNullable(rotated[0]);
+    }
+
+    @Override
+    public void revokeUser(Long userId) {
+        tokensByUser.compute(userId, (id, hashes) -> {
+            enqueue(new PendingWrite(repository -> repository.deleteByUserId(id), null));
+            if (hashes != null) hashes.forEach(tokens::remove);
+            return null;
+        });
+    }
+
+    @Override
+    public int evictExpired(Instant now) {
+        int evicted = 0;
+        for (Long userId : tokensByUser.keySet()) {
+            int[] removed = {0};
+            tokensByUser.computeIfPresent(userId, (id, hashes) -> {
+                hashes.removeIf(hash -> {
+                    RefreshTokenRecord record = tokens.get(hash);
+                    if (record != null && !record.isExpired(now)) return false;
+                    tokens.remove(hash);
+                    removed[0]++;
+                    return true;
+                });
+                return hashes.isEmpty() ? null : hashes;
+            });
+            evicted += removed[0];
+        }
+        return evicted;
+    }
+
+    /**
+     * Writes up to one batch of queued writes in a single transaction. If the batch fails, its writes
+     * are retried one transaction each, in order; the first write that still fails is put back, with
+     * everything after it, at the head of the queue for the next run.
+     *
+     * @return {@code false} if writes were left for the next run
+     */
+    synchronized boolean flush() {
+        List<PendingWrite> batch = new ArrayList<>(batchSize);
+        while (batch.size() < batchSize && !retries.isEmpty()) {
+            batch.add(retries.poll());
+        }
+        pendingWrites.drainTo(batch, batchSize - batch.size());
+        if (batch.isEmpty()) return true;
+        try {
+            transactionTemplate.executeWithoutResult(status -> batch.forEach(write -> write.apply(refreshTokenRepository)));
+            return true;
+        } catch (RuntimeException ex) {
+            log.warn("Failed to persist {} refresh token writes in one batch, retrying one by one: {}",
+                    batch.size(), ex.getMessage());
+        }
+        for (int i = 0; i < batch.size(); i++) {
+            PendingWrite write = batch.get(i);
+            try {
+                transactionTemplate.executeWithoutResult(status -> write.apply(refreshTokenRepository));
+            } catch (RuntimeException ex) {
+                if (write.dropInsertAfterFailure()) {
+                    log.error("Dropping a refresh token insert after {} failed attempts; its user will log in again",
+                            MAX_INSERT_ATTEMPTS, ex);
+                    i--;
+                    continue;
+                }
+                for (int j = batch.size() - 1; j >= i; j--) {
+                    retries.addFirst(batch.get(j));
+                }
+                log.error("Failed to persist refresh token writes, {} left for retry", pendingWriteCount(), ex);
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Revokes every token of the family. Runs inside {@code tokensByUser.compute} for the family's user.
+     */
+    private void revokeFamily(Set<String> hashes, String familyId) {
+        enqueue(new PendingWrite(repository -> repository.revokeFamily(familyId), null));
+        for (String hash : hashes) {
+            tokens.computeIfPresent(hash, (h, record) ->
+                    familyId.equals(record.familyId()) ? record.asRevoked() : record);
+        }
+    }
+
+    private void save(RefreshTokenRepository repository, String hash, RefreshTokenRecord record) {
+        repository.save(RefreshToken.builder()
+                .tokenHash(hash)
+                .expiryDate(record.expiresAt())
+                .familyId(record.familyId())
+                .revoked(record.revoked())
+                .user(userRepository.getReferenceById(record.userId()))
+                .build());
+    }
+
+    synchronized int pendingWriteCount() {
+        return retries.size() + pendingWrites.size();
+    }
+
+    private void put(String hash, RefreshTokenRecord record) {
+        tokensByUser.compute(record.userId(), (userId, hashes) -> {
+            Set<String> updated = hashes != null ? hashes : new HashSet<>();
+            tokens.put(hash, record);
+            updated.add(hash);
+            return updated;
+        });
+    }
+
+    /**
+     * Queues a write, waiting up to {@code maxWait} for room. Called inside {@code tokensByUser.compute}
+     * before the in-memory change, so a write that cannot be queued leaves memory untouched.
+     *
+     * @throws RefreshTokenStoreUnavailableException if the queue stays full or the wait is interrupted
+     */
+    private void enqueue(PendingWrite write) {
+        try {
+            if (pendingWrites.offer(write, maxWait.toMillis(), TimeUnit.MILLISECONDS)) return;
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new RefreshTokenStoreUnavailableException("Interrupted while queueing a refresh token write", ex);
+        }
+        throw new RefreshTokenStoreUnavailableException("Refresh token write queue is full");
+    }
+
+    /**
+     * A queued write: a revocation (update or delete), optionally followed by a token insert.
+     */
+    private static final class PendingWrite {
+        private final Consumer<RefreshTokenRepository> revocation;
+        private Consumer<RefreshTokenRepository> insert;
+        private int failures;
+
+        PendingWrite(Consumer<RefreshTokenRepository> revocation, Consumer<RefreshTokenRepository> insert) {
+            this.revocation = revocation;
+            this.insert = insert;
+        }
+
+        void apply(RefreshTokenRepository repository) {
+            revocation.accept(repository);
+            if (insert != null) insert.accept(repository);
+        }
+
+        /**
+         * Records a failed attempt. Returns {@code true} if the insert was dropped so the revocation
+         * can be retried on its own.
+         */
+        boolean dropInsertAfterFailure() {
+            if (insert == null || ++failures < MAX_INSERT_ATTEMPTS) return false;
+            insert = null;
+            return true;
+        }
+    }
+}
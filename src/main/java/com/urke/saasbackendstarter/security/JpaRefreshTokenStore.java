@@ -0,0 +1,90 @@
+package com.urke.saasbackendstarter.security;
+
+import com.urke.saasbackendstarter.domain.RefreshToken;
+import com.urke.saasbackendstarter.repository.RefreshTokenRepository;
+import com.urke.saasbackendstarter.repository.UserRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Optional;
+
+/**
+ * {@link RefreshTokenStore} backed directly by the {@code refresh_tokens} table.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "app.security.refresh-tokens.store", havingValue = "jpa", matchIfMissing = true)
+public class JpaRefreshTokenStore implements RefreshTokenStore {
+
+    private final RefreshTokenRepository refreshTokenRepository;
+    private final UserRepository userRepository;
+    private final Duration reuseGrace;
+
+    public JpaRefreshTokenStore(
+            RefreshTokenRepository refreshTokenRepository,
+            UserRepository userRepository,
+            @Value("${app.security.refresh-tokens.reuse-grace:PT10S}") Duration reuseGrace) {
+        this.refreshTokenRepository = refreshTokenRepository;
+        this.userRepository = userRepository;
+        this.reuseGrace = reuseGrace;
+    }
+
+    @Override
+    @Transactional
+    public void issue(String token, RefreshTokenRecord record) {
+        refreshTokenRepository.deleteByUserId(record.userId());
+        save(RefreshTokenStore.hash(token), record);
+    }
+
+    @Override
+    public Optional<RefreshTokenRecord> find(String token) {
+        return refreshTokenRepository.findRecordByTokenHash(RefreshTokenStore.hash(token));
+    }
+
+    /**
+     * Claims the token with the conditional {@code markUsed} UPDATE before reading it, so only one of
+     * several concurrent refreshes wins. A refresh that matches no row looks the token up. If the token was
+     * exchanged within {@code reuse-grace}, the refresh lost a race with a duplicate from the same client and
+     * is just rejected; if it was used or revoked earlier, it is treated as reuse and its family is revoked.
+     */
+    @Override
+    @Transactional
+    public Optional<RefreshTokenRecord> rotate(String token, String replacement, Instant replacementExpiresAt) {
+        String hash = RefreshTokenStore.hash(token);
+        Instant now = Instant.now();
+        if (refreshTokenRepository.markUsed(hash, now, now) == 0) {
+            refreshTokenRepository.findRecordByTokenHash(hash)
+                    .filter(used -> used.revoked() && !used.usedWithin(reuseGrace, now))
+                    .ifPresent(used -> {
+                        log.warn("Refresh token reuse detected for user {}, revoking token family {}",
+                                used.userId(), used.familyId());
+                        refreshTokenRepository.revokeFamily(used.familyId());
+                    });
+            return Optional.empty();
+        }
+        RefreshTokenRecord current = refreshTokenRepository.findRecordByTokenHash(hash).orElseThrow();
+        RefreshTokenRecord next = new RefreshTokenRecord(current.userId(), replacementExpiresAt, current.familyId());
+        save(RefreshTokenStore.hash(replacement), next);
+        return Optional.of(next);
+    }
+
+    @Override
+    @Transactional
+    public void revokeUser(Long userId) {
+        refreshTokenRepository.deleteByUserId(userId);
+    }
+
+    private void save(String tokenHash, RefreshTokenRecord record) {
+        refreshTokenRepository.save(RefreshToken.builder()
+                .tokenHash(tokenHash)
+                .expiryDate(record.expiresAt())
+                .familyId(record.familyId())
+                .user(userRepository.getReferenceById(record.userId()))
+                .build());
+    }
+}
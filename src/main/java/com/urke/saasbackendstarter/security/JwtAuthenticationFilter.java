@@ -1,14 +1,17 @@
 package com.urke.saasbackendstarter.security;
 
+import io.jsonwebtoken.JwtException;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
@@ -16,7 +19,14 @@ import java.io.IOException;
 
 /**
  * Filter that authenticates HTTP requests using JWT tokens.
+ * <p>
+ * The token signature is verified exactly once; the resulting {@link ParsedToken}
+ * is reused for validation and for building the authentication. If {@link RateLimitFilter}
+ * already parsed the token, it is taken from the request instead. In stateless principal
+ * mode the user is rebuilt from the token claims; otherwise (or when the claims are stale)
+ * it is loaded through the {@link UserDetailsService}.
  */
+@Slf4j
 @Component
 @RequiredArgsConstructor
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
@@ -29,17 +39,13 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
                                     FilterChain filterChain) throws ServletException, IOException {
 
         final String header = request.getHeader("Authorization");
-        String token = null;
-        String email = null;
 
-        if (header != null && header.startsWith("Bearer ")) {
-            token = header.substring(7);
-            email = jwtTokenProvider.getEmailFromToken(token);
-        }
-
-        if (email != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-            UserDetails userDetails = userDetailsService.loadUserByUsername(email);
-            if (jwtTokenProvider.validateToken(token, userDetails)) {
+        if (header != null && header.startsWith("Bearer ")
+                && SecurityContextHolder.getContext().getAuthentication() == null) {
+            ParsedToken token = request.getAttribute(ParsedToken.REQUEST_ATTRIBUTE) instanceof ParsedToken parsed
+                    ? parsed : parse(header.substring(7));
+            UserDetails userDetails = token != null ? resolveUser(token) : null;
+            if (userDetails != null && jwtTokenProvider.validateToken(token, userDetails)) {
                 Authentication auth = jwtTokenProvider.getAuthentication(token, userDetails);
                 SecurityContextHolder.getContext().setAuthentication(auth);
             }
@@ -47,4 +53,26 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
         filterChain.doFilter(request, response);
     }
-}
\ No newline at end of file
+
+    private UserDetails resolveUser(ParsedToken token) {
+        UserDetails userDetails = jwtTokenProvider.getPrincipalFromClaims(token);
+        if (userDetails != null) {
+            return userDetails;
+        }
+        try {
+            return userDetailsService.loadUserByUsername(token.getSubject());
+        } catch (UsernameNotFoundException ex) {
+            log.debug("JWT subject no longer exists: {}", token.getSubject());
+            return null;
+        }
+    }
+
+    private ParsedToken parse(String token) {
+        try {
+            return jwtTokenProvider.parseToken(token);
+        } catch (JwtException | IllegalArgumentException ex) {
+            log.debug("Rejected JWT: {}", ex.getMessage());
+            return null;
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package com.urke.saasbackendstarter.security;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+/**
+ * Builds a {@link JwtKeyRing} from a file of HMAC secrets, one {@code kid=secret} per line.
+ * <p>
+ * The first entry signs new tokens; the others are accepted for verification only. Blank lines and
+ * lines starting with {@code #} are ignored. To rotate, put the new key on the first line and keep the
+ * previous one below it; delete the old line once tokens signed with it have expired. For example:
+ * <pre>
+ * 2026-10=&lt;new secret, at least 32 bytes&gt;
+ * 2026-07=&lt;previous secret&gt;
+ * </pre>
+ */
+final class JwtHmacKeysLoader {
+
+    private JwtHmacKeysLoader() {
+    }
+
+    static JwtKeyRing load(Path path) {
+        List<String> lines;
+        try {
+            lines = Files.readAllLines(path, StandardCharsets.UTF_8);
+        } catch (IOException ex) {
+            throw new IllegalStateException("Cannot load JWT HMAC keys file " + path, ex);
+        }
+        JwtKeyRing ring = null;
+        for (int i = 0; i < lines.size(); i++) {
+            String line = lines.get(i).strip();
+            if (line.isEmpty() || line.startsWith("#")) continue;
+            try {
+                if (ring == null) {
+                    int separator = separator(line);
+                    ring = JwtKeyRing.of(line.substring(0, separator).trim(), line.substring(separator + 1));
+                } else {
+                    ring = withVerificationEntry(ring, line);
+                }
+            } catch (RuntimeException ex) {
+                throw new IllegalStateException("Invalid entry on line " + (i + 1) + " of JWT HMAC keys file " + path, ex);
+            }
+        }
+        if (ring == null) {
+            throw new IllegalStateException("JWT HMAC keys file " + path + " contains no key");
+        }
+        return ring;
+    }
+
+    /**
+     * Adds a verify-only {@code kid=secret} entry to the ring.
+     *
+     * @throws IllegalArgumentException if the entry is not in the form {@code kid=secret}
+     */
+    static JwtKeyRing withVerificationEntry(JwtKeyRing ring, String entry) {
+        int separator = separator(entry);
+        return ring.withVerificationKey(entry.substring(0, separator).trim(), entry.substring(separator + 1));
+    }
+
+    private static int separator(String entry) {
+        int separator = entry.indexOf('=');
+        if (separator <= 0) {
+            throw new IllegalArgumentException("JWT key entries must be in the form kid=secret");
+        }
+        return separator;
+    }
+}
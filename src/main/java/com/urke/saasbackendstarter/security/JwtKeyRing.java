@@ -0,0 +1,95 @@
+package com.urke.saasbackendstarter.security;
+
+import io.jsonwebtoken.security.Keys;
+
+import java.nio.charset.StandardCharsets;
+import java.security.Key;
+import java.security.PublicKey;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Immutable, versioned set of JWT signing keys keyed by key id ({@code kid}).
+ * <p>
+ * Exactly one key is the current signing key; all other keys are verify-only and
+ * are kept so tokens issued before a rotation stay valid until they expire.
+ * A reload produces a new ring instead of mutating this one, so readers never
+ * observe a half-updated key set.
+ * <p>
+ * For HMAC the signing and verification key are the same secret key. For asymmetric
+ * algorithms the signing key is a private key and verification uses the matching public key.
+ */
+public final class JwtKeyRing {
+
+    private final String signingKeyId;
+    private final Key signingKey;
+    private final Map<String, Key> verificationKeys;
+
+    private JwtKeyRing(String signingKeyId, Key signingKey, Map<String, Key> verificationKeys) {
+        this.signingKeyId = signingKeyId;
+        this.signingKey = signingKey;
+        this.verificationKeys = Collections.unmodifiableMap(verificationKeys);
+    }
+
+    /**
+     * Creates a ring with a single HMAC signing key.
+     */
+    public static JwtKeyRing of(String keyId, String secret) {
+        Key key = hmacKey(secret);
+        Map<String, Key> keys = new LinkedHashMap<>();
+        keys.put(keyId, key);
+        return new JwtKeyRing(keyId, key, keys);
+    }
+
+    /**
+     * Creates a ring from explicit keys, e.g. loaded from a keystore.
+     *
+     * @param verificationKeys verification keys by id; must include the signing key id
+     */
+    public static JwtKeyRing of(String signingKeyId, Key signingKey, Map<String, ? extends Key> verificationKeys) {
+        if (!verificationKeys.containsKey(signingKeyId)) {
+            throw new IllegalArgumentException("No verification key for signing key id " + signingKeyId);
+        }
+        return new JwtKeyRing(signingKeyId, signingKey, new LinkedHashMap<>(verificationKeys));
+    }
+
+    /**
+     * Returns a new ring that additionally accepts tokens signed with the given verify-only HMAC key.
+     */
+    public JwtKeyRing withVerificationKey(String keyId, String secret) {
+        if (signingKeyId.equals(keyId)) {
+            throw new IllegalArgumentException("Key id " + keyId + " is already the signing key");
+        }
+        Map<String, Key> keys = new LinkedHashMap<>(verificationKeys);
+        keys.put(keyId, hmacKey(secret));
+        return new JwtKeyRing(signingKeyId, signingKey, keys);
+    }
+
+    public String getSigningKeyId() { return signingKeyId; }
+    public Key getSigningKey() { return signingKey; }
+
+    /**
+     * Returns the key for the given id, or {@code null} if the id is unknown.
+     */
+    public Key getVerificationKey(String keyId) {
+        return verificationKeys.get(keyId);
+    }
+
+    public Map<String, Key> getVerificationKeys() { return verificationKeys; }
+
+    /**
+     * Returns the verification keys that are public keys, i.e. safe to publish. Empty for HMAC rings.
+     */
+    public Map<String, PublicKey> getPublicKeys() {
+        Map<String, PublicKey> keys = new LinkedHashMap<>();
+        verificationKeys.forEach((id, key) -> {
+            if (key instanceof PublicKey publicKey) keys.put(id, publicKey);
+        });
+        return keys;
+    }
+
+    private static Key hmacKey(String secret) {
+        return Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,66 @@
+package com.urke.saasbackendstarter.security;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.GeneralSecurityException;
+import java.security.Key;
+import java.security.KeyStore;
+import java.security.PrivateKey;
+import java.security.cert.Certificate;
+import java.util.Collections;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Builds a {@link JwtKeyRing} from a PKCS12 keystore file.
+ * <p>
+ * Every alias becomes a key id: its certificate's public key is accepted for verification.
+ * The private-key entry with the newest creation date signs new tokens. Keys are created and
+ * rotated offline with {@code keytool}, for example:
+ * <pre>
+ * keytool -genkeypair -alias 2026-10 -keyalg EC -groupname secp256r1 -sigalg SHA256withECDSA \
+ *         -dname "CN=saas-backend-starter jwt" -validity 3650 \
+ *         -storetype PKCS12 -keystore jwt-keys.p12 -storepass "$JWT_KEYSTORE_PASSWORD"
+ * </pre>
+ * Retire a key with {@code keytool -delete -alias ...} once tokens signed with it have expired.
+ * An {@code Ed25519} key pair ({@code -keyalg Ed25519}) works the same way.
+ */
+final class JwtKeyStoreLoader {
+
+    private JwtKeyStoreLoader() {
+    }
+
+    static JwtKeyRing load(Path path, char[] password) {
+        try (InputStream in = Files.newInputStream(path)) {
+            KeyStore keyStore = KeyStore.getInstance("PKCS12");
+            keyStore.load(in, password);
+
+            Map<String, Key> verificationKeys = new LinkedHashMap<>();
+            String signingKeyId = null;
+            PrivateKey signingKey = null;
+            Date newest = null;
+            for (String alias : Collections.list(keyStore.aliases())) {
+                Certificate certificate = keyStore.getCertificate(alias);
+                if (certificate == null) continue;
+                verificationKeys.put(alias, certificate.getPublicKey());
+                if (!keyStore.isKeyEntry(alias)) continue;
+
+                Date created = keyStore.getCreationDate(alias);
+                if (newest == null || (created != null && created.after(newest))) {
+                    signingKeyId = alias;
+                    signingKey = (PrivateKey) keyStore.getKey(alias, password);
+                    newest = created;
+                }
+            }
+            if (signingKey == null) {
+                throw new IllegalStateException("JWT keystore " + path + " contains no private key entry");
+            }
+            return JwtKeyRing.of(signingKeyId, signingKey, verificationKeys);
+        } catch (IOException | GeneralSecurityException ex) {
+            throw new IllegalStateException("Cannot load JWT keystore " + path, ex);
+        }
+    }
+}
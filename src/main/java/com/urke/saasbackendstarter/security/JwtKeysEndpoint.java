@@ -0,0 +1,52 @@
+package com.urke.saasbackendstarter.security;
+
+import com.urke.saasbackendstarter.dto.auth.JwtKeyStatus;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.boot.actuate.endpoint.web.WebEndpointResponse;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+
+/**
+ * Actuator endpoint {@code jwtkeys} for platform operators: lists the JWT key ids of this instance
+ * ({@code GET}) and reloads the keystore or HMAC keys file without waiting for the scheduled check
+ * ({@code POST}). Keys themselves are only changed in configuration.
+ * <p>
+ * Not exposed by default. {@link SecurityConfig} only admits requests that arrive on
+ * {@code management.server.port}, so expose it on an internal management port, never to tenants.
+ */
+@Slf4j
+@Component
+@Endpoint(id = "jwtkeys")
+@RequiredArgsConstructor
+public class JwtKeysEndpoint {
+
+    private final JwtTokenProvider jwtTokenProvider;
+
+    @ReadOperation
+    public JwtKeyStatus keys() {
+        return status();
+    }
+
+    @WriteOperation
+    public WebEndpointResponse<JwtKeyStatus> reload() {
+        if (!jwtTokenProvider.isReloadable()) {
+            return new WebEndpointResponse<>(status(), HttpStatus.CONFLICT.value());
+        }
+        try {
+            jwtTokenProvider.reloadKeys();
+        } catch (IllegalStateException ex) {
+            log.warn("JWT key reload failed: {}", ex.getMessage());
+            return new WebEndpointResponse<>(status(), WebEndpointResponse.STATUS_INTERNAL_SERVER_ERROR);
+        }
+        log.info("JWT keys reloaded, signing with kid {}", jwtTokenProvider.getSigningKeyId());
+        return new WebEndpointResponse<>(status());
+    }
+
+    private JwtKeyStatus status() {
+        return new JwtKeyStatus(jwtTokenProvider.getSigningKeyId(), jwtTokenProvider.getKeyIds());
+    }
+}
@@ -1,41 +1,144 @@
 package com.urke.saasbackendstarter.security;
 
 import io.jsonwebtoken.*;
-import javax.crypto.SecretKey;
-import io.jsonwebtoken.security.Keys;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Component;
 
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
 import java.security.Key;
+import java.security.PublicKey;
+import java.util.Collection;
 import java.util.Date;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
 
 /**
  * Utility for generating and validating JWT tokens.
+ * <p>
+ * Signing keys and the parser are built once at startup. Keys live in a {@link JwtKeyRing}
+ * keyed by {@code kid}, which is swapped on reload without rebuilding the parser.
+ * <p>
+ * Tokens carry the organization id (used for per-tenant rate limiting). With
+ * {@code jwt.stateless-principal} enabled, they also carry the user id, role and permission names,
+ * so requests can be authenticated without loading the user.
+ * <p>
+ * With {@code jwt.signing-mode=keystore}, tokens are signed with the newest private key of a
+ * PKCS12 keystore (ES256 or EdDSA, see {@link JwtKeyStoreLoader}) instead of the shared HMAC
+ * secret, and the public keys are published as a JWKS so other services can verify tokens locally.
+ * <p>
+ * Keys are rotated through configuration only. In HMAC mode they come either from {@code jwt.secret},
+ * {@code jwt.key-id} and {@code jwt.verify-only-keys} (fixed until restart) or from the file at
+ * {@code jwt.hmac-keys-file} (see {@link JwtHmacKeysLoader}). A keys file or keystore is re-read when its
+ * modification time changes, checked every {@code jwt.keys-reload-interval}.
  */
+@Slf4j
 @Component
 public class JwtTokenProvider {
 
-    @Value("${jwt.secret}")
-    private String secret;
+    static final String CLAIM_USER_ID = "uid";
+    static final String CLAIM_ORGANIZATION_ID = "org";
+    static final String CLAIM_ROLES = "roles";
+    static final String CLAIM_PERMISSIONS = "perms";
 
-    @Value("${jwt.expiration-ms}")
-    private long expirationMs;
+    static final String SIGNING_MODE_HMAC = "hmac";
+    static final String SIGNING_MODE_KEYSTORE = "keystore";
+
+    private final long expirationMs;
+    private final boolean statelessPrincipal;
+    private final PrincipalRevocationRegistry revocationRegistry;
+    private final Path keyFile;
+    private final Function<Path, JwtKeyRing> keyFileLoader;
+    private final AtomicReference<JwtKeyRing> keyRing;
+    private volatile FileTime keyFileModified;
+    private final JwtParser parser;
+
+    public JwtTokenProvider(
+            @Value("${jwt.secret}") String secret,
+            @Value("${jwt.key-id:v1}") String keyId,
+            @Value("${jwt.verify-only-keys:}") List<String> verifyOnlyKeys,
+            @Value("${jwt.hmac-keys-file:}") String hmacKeysFile,
+            @Value("${jwt.expiration-ms}") long expirationMs,
+            @Value("${jwt.stateless-principal:false}") boolean statelessPrincipal,
+            @Value("${jwt.signing-mode:hmac}") String signingMode,
+            @Value("${jwt.keystore.path:}") String keystorePath,
+            @Value("${jwt.keystore.password:}") String keystorePassword,
+            PrincipalRevocationRegistry revocationRegistry) {
+        this.expirationMs = expirationMs;
+        this.statelessPrincipal = statelessPrincipal;
+        this.revocationRegistry = revocationRegistry;
+        if (SIGNING_MODE_KEYSTORE.equalsIgnoreCase(signingMode)) {
+            if (keystorePath.isBlank()) {
+                throw new IllegalArgumentException("jwt.keystore.path is required when jwt.signing-mode=keystore");
+            }
+            char[] password = keystorePassword.toCharArray();
+            this.keyFile = Path.of(keystorePath);
+            this.keyFileLoader = path -> JwtKeyStoreLoader.load(path, password);
+        } else if (SIGNING_MODE_HMAC.equalsIgnoreCase(signingMode)) {
+            this.keyFile = hmacKeysFile.isBlank() ? null : Path.of(hmacKeysFile);
+            this.keyFileLoader = JwtHmacKeysLoader::load;
+        } else {
+            throw new IllegalArgumentException("Unknown jwt.signing-mode: " + signingMode);
+        }
+        JwtKeyRing ring;
+        if (keyFile != null) {
+            this.keyFileModified = lastModified(keyFile);
+            ring = keyFileLoader.apply(keyFile);
+        } else {
+            ring = JwtKeyRing.of(keyId, secret);
+            for (String entry : verifyOnlyKeys) {
+                if (entry == null || entry.isBlank()) continue;
+                ring = JwtHmacKeysLoader.withVerificationEntry(ring, entry);
+            }
+        }
+        this.keyRing = new AtomicReference<>(ring);
+        this.parser = Jwts.parser()
+                .keyLocator(new KeyRingLocator())
+                .build();
+    }
 
     /**
      * Generates a JWT token for the given user.
      */
     public String generateToken(UserDetails userDetails) {
+        JwtKeyRing ring = keyRing.get();
         Date now = new Date();
         Date expiry = new Date(now.getTime() + expirationMs);
-        return Jwts.builder()
+        JwtBuilder builder = Jwts.builder()
+                .header().keyId(ring.getSigningKeyId()).and()
                 .subject(userDetails.getUsername())
                 .issuedAt(now)
-                .expiration(expiry)
-                .signWith(getKey())
-                .compact();
+                .expiration(expiry);
+        if (userDetails instanceof CustomUserDetails principal) {
+            builder.claim(CLAIM_ORGANIZATION_ID, principal.getOrganizationId());
+            if (statelessPrincipal) {
+                builder.claim(CLAIM_USER_ID, principal.getId())
+                        .claim(CLAIM_ROLES, principal.getRoleNames())
+                        .claim(CLAIM_PERMISSIONS, principal.getPermissionNames());
+            }
+        }
+        return builder.signWith(ring.getSigningKey()).compact();
+    }
+
+    /**
+     * Verifies the token signature and expiry once and returns its claims.
+     *
+     * @throws JwtException if the token is malformed, expired, or not signed by a known key
+     */
+    public ParsedToken parseToken(String token) {
+        Jws<Claims> jws = parser.parseSignedClaims(token);
+        return new ParsedToken(jws.getHeader().getKeyId(), jws.getPayload());
     }
 
     /**
@@ -43,12 +146,7 @@ public class JwtTokenProvider {
      */
     public String getEmailFromToken(String token) {
         try {
-            return Jwts.parser()
-                .verifyWith(getKey())
-                .build()
-                .parseSignedClaims(token)
-                .getPayload()
-                .getSubject();
+            return parseToken(token).getSubject();
         } catch (ExpiredJwtException ex) {
             throw new RuntimeException("JWT expired", ex);
         } catch (JwtException ex) {
@@ -57,39 +155,134 @@ public class JwtTokenProvider {
     }
 
     /**
-     * Validates the token against the user details.
+     * Validates an already parsed token against the user details.
      */
-    public boolean validateToken(String token, UserDetails userDetails) {
-        try {
-            final String username = getEmailFromToken(token);
-            return (username.equals(userDetails.getUsername()) && !isTokenExpired(token));
-        } catch (JwtException ex) {
-            return false;
-        }
+    public boolean validateToken(ParsedToken token, UserDetails userDetails) {
+        String username = token.getSubject();
+        return username != null && username.equals(userDetails.getUsername()) && !token.isExpired();
     }
 
     /**
-     * Checks if the token is expired.
+     * Rebuilds the principal from the token claims without touching the database.
+     *
+     * @return the principal, or {@code null} if stateless mode is off, the token carries no
+     *         principal claims, or the embedded authorities have been revoked since issue
      */
-    public boolean isTokenExpired(String token) {
-        Date expiration = Jwts.parser()
-                .verifyWith(getKey())
-                .build()
-                .parseSignedClaims(token)
-                .getPayload()
-                .getExpiration();
-        return expiration.before(new Date());
+    public CustomUserDetails getPrincipalFromClaims(ParsedToken token) {
+        if (!statelessPrincipal) return null;
+        Claims claims = token.getClaims();
+        Long userId = claims.get(CLAIM_USER_ID, Long.class);
+        if (userId == null) return null;
+        Long organizationId = claims.get(CLAIM_ORGANIZATION_ID, Long.class);
+        if (revocationRegistry.isRevoked(userId, organizationId, token.getIssuedAt())) return null;
+        return new CustomUserDetails(userId, token.getSubject(), null, organizationId,
+                stringSet(claims.get(CLAIM_ROLES)), stringSet(claims.get(CLAIM_PERMISSIONS)));
     }
 
     /**
      * Builds an Authentication object from the token and user details.
      */
-    public Authentication getAuthentication(String token, UserDetails userDetails) {
+    public Authentication getAuthentication(ParsedToken token, UserDetails userDetails) {
         return new UsernamePasswordAuthenticationToken(
                 userDetails, null, userDetails.getAuthorities());
     }
 
-    private SecretKey getKey() {
-        return Keys.hmacShaKeyFor(secret.getBytes());
+    /**
+     * Re-reads the keystore or HMAC keys file, picking up keys added or removed since the last load.
+     * Also exposed on the management port as the {@code jwtkeys} actuator endpoint (see {@link JwtKeysEndpoint}).
+     *
+     * @throws IllegalStateException if the keys do not come from a file, or the file cannot be loaded
+     */
+    public void reloadKeys() {
+        if (keyFile == null) {
+            throw new IllegalStateException("JWT keys come from jwt.secret; set jwt.hmac-keys-file or jwt.keystore.path to reload them");
+        }
+        FileTime modified = lastModified(keyFile);
+        keyRing.set(keyFileLoader.apply(keyFile));
+        keyFileModified = modified;
+    }
+
+    /**
+     * Reloads the keys if their file changed since the last load. A file that cannot be read
+     * (for example one still being written) is logged and retried on the next run; the current keys stay in use.
+     */
+    @Scheduled(fixedDelayString = "${jwt.keys-reload-interval:PT1M}")
+    public void reloadKeysIfChanged() {
+        if (keyFile == null) return;
+        FileTime modified = lastModified(keyFile);
+        if (modified == null || modified.equals(keyFileModified)) return;
+        try {
+            reloadKeys();
+            log.info("Reloaded JWT keys from {}, signing with kid {}", keyFile, getSigningKeyId());
+        } catch (IllegalStateException ex) {
+            log.warn("Could not reload JWT keys from {}, keeping the current keys: {}", keyFile, ex.getMessage());
+        }
+    }
+
+    /**
+     * Returns whether the keys come from a keystore or HMAC keys file and can be reloaded.
+     */
+    public boolean isReloadable() {
+        return keyFile != null;
+    }
+
+    /**
+     * Returns the id of the key currently used for signing.
+     */
+    public String getSigningKeyId() {
+        return keyRing.get().getSigningKeyId();
+    }
+
+    /**
+     * Returns the ids of all keys accepted for verification, signing key included.
+     */
+    public Set<String> getKeyIds() {
+        return new LinkedHashSet<>(keyRing.get().getVerificationKeys().keySet());
+    }
+
+    /**
+     * Returns the public verification keys by key id, for publishing as a JWKS.
+     * Always empty in HMAC mode, where the keys are shared secrets.
+     */
+    public Map<String, PublicKey> getPublicKeys() {
+        return keyRing.get().getPublicKeys();
+    }
+
+    private static FileTime lastModified(Path path) {
+        try {
+            return Files.getLastModifiedTime(path);
+        } catch (IOException ex) {
+            return null;
+        }
+    }
+
+    private static Set<String> stringSet(Object claim) {
+        Set<String> values = new LinkedHashSet<>();
+        if (claim instanceof Collection<?> collection) {
+            for (Object value : collection) {
+                values.add(String.valueOf(value));
+            }
+        }
+        return values;
+    }
+
+    /**
+     * Resolves the verification key from the {@code kid} header against the current key ring.
+     * Tokens without a {@code kid} were issued before key ids existed and use the signing key.
+     */
+    private class KeyRingLocator extends LocatorAdapter<Key> {
+        @Override
+        protected Key locate(JwsHeader header) {
+            JwtKeyRing ring = keyRing.get();
+            String keyId = header.getKeyId();
+            if (keyId == null) {
+                return ring.getSigningKey();
+            }
+            Key key = ring.getVerificationKey(keyId);
+            if (key == null) {
+                throw new JwtException("Unknown JWT key id: " + keyId);
+            }
+            return key;
+        }
     }
-}
\ No newline at end of file
+}
@@ -1,39 +1,117 @@
 package com.urke.saasbackendstarter.security;
 
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 
-import java.time.Instant;
-import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
+import java.security.SecureRandom;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicLongArray;
 
 /**
  * Service for tracking failed login attempts and temporarily blocking accounts after too many failures.
+ * <p>
+ * Failures are counted per email over a sliding window, approximated from two fixed buckets
+ * (the previous window's count weighted by how much of it still overlaps, plus the current count).
+ * Reaching {@code max-attempts} within the window blocks the email for {@code block-duration}.
+ * <p>
+ * State lives in a fixed-size, lock-free open-addressing table, so memory is capped no matter how
+ * many distinct emails are tried. Emails are never stored: each is reduced to a seeded 64-bit hash.
+ * A slot is three longs: key hash, packed window state (bucket index, previous and current count),
+ * and blocked-until time, each updated with compare-and-set. A key may sit in any of
+ * {@value #PROBE_RANGE} consecutive slots; when they are all taken, the least recently failed,
+ * unblocked entry is evicted. A background sweep frees slots whose window and block have expired.
+ * <p>
+ * Updates to one slot's three words are individually atomic but not atomic as a group. Right after a
+ * slot is reused for a new key, a concurrent read may briefly see the previous key's state.
  */
 @Service
 public class LoginAttemptService {
 
-    private static final int MAX_ATTEMPTS = 5;
-    private static final long BLOCK_DURATION_MS = 15 * 60 * 1000; // 15 minutes
+    static final int PROBE_RANGE = 8;
 
-    private final Map<String, Integer> attempts = new ConcurrentHashMap<>();
-    private final Map<String, Long> blockedUntil = new ConcurrentHashMap<>();
+    private static final int STRIDE = 3;
+    private static final int KEY = 0;
+    private static final int WINDOW = 1;
+    private static final int BLOCKED_UNTIL = 2;
+    private static final long COUNT_MASK = 0xFFFFL;
+
+    private final int maxAttempts;
+    private final long windowMs;
+    private final long blockDurationMs;
+    private final Clock clock;
+    private final int mask;
+    private final long seed;
+    private final AtomicLongArray slots;
+
+    @Autowired
+    public LoginAttemptService(
+            @Value("${app.security.login-attempts.max-attempts:5}") int maxAttempts,
+            @Value("${app.security.login-attempts.window:PT15M}") Duration window,
+            @Value("${app.security.login-attempts.block-duration:PT15M}") Duration blockDuration,
+            @Value("${app.security.login-attempts.capacity:262144}") int capacity) {
+        this(maxAttempts, window, blockDuration, capacity, Clock.systemUTC());
+    }
+
+    LoginAttemptService(int maxAttempts, Duration window, Duration blockDuration, int capacity, Clock clock) {
+        if (maxAttempts < 1 || maxAttempts > COUNT_MASK) {
+            throw new IllegalArgumentException("max-attempts must be between 1 and " + COUNT_MASK);
+        }
+        this.maxAttempts = maxAttempts;
+        this.windowMs = window.toMillis();
+        this.blockDurationMs = blockDuration.toMillis();
+        this.clock = clock;
+        int size = Integer.highestOneBit(Math.max(capacity, PROBE_RANGE) - 1) << 1;
+        this.mask = size - 1;
+        this.seed = new SecureRandom().nextLong();
+        this.slots = new AtomicLongArray(size * STRIDE);
+    }
 
     /**
      * Should be called on successful login. Resets attempt counter and removes any block.
      */
     public void loginSucceeded(String email) {
-        attempts.remove(email);
-        blockedUntil.remove(email);
+        long key = key(email);
+        int slot = find(key);
+        if (slot < 0) return;
+        slots.set(slot + WINDOW, 0);
+        slots.set(slot + BLOCKED_UNTIL, 0);
+        slots.compareAndSet(slot + KEY, key, 0);
     }
 
     /**
      * Should be called on failed login. Increments attempt counter and applies block if threshold is reached.
      */
     public void loginFailed(String email) {
-        int current = attempts.getOrDefault(email, 0);
-        attempts.put(email, current + 1);
-        if (attempts.get(email) >= MAX_ATTEMPTS) {
-            blockedUntil.put(email, Instant.now().toEpochMilli() + BLOCK_DURATION_MS);
+        long key = key(email);
+        long now = clock.millis();
+        int slot = findOrClaim(key, now);
+        long bucket = now / windowMs;
+
+        long state;
+        long updated;
+        do {
+            state = slots.get(slot + WINDOW);
+            long stateBucket = state >>> 32;
+            long previous = (state >>> 16) & COUNT_MASK;
+            long current = state & COUNT_MASK;
+            if (stateBucket == bucket) {
+                current = Math.min(current + 1, COUNT_MASK);
+            } else {
+                previous = stateBucket == bucket - 1 ? current : 0;
+                current = 1;
+            }
+            updated = (bucket << 32) | (previous << 16) | current;
+        } while (!slots.compareAndSet(slot + WINDOW, state, updated));
+
+        if (estimate(updated, now) >= maxAttempts) {
+            long until = now + blockDurationMs;
+            slots.accumulateAndGet(slot + BLOCKED_UNTIL, until, Math::max);
+            // Start counting afresh once the block is lifted.
+            slots.compareAndSet(slot + WINDOW, updated, 0);
         }
     }
 
@@ -41,23 +119,160 @@ public class LoginAttemptService {
      * Checks if a user is currently blocked.
      */
     public boolean isBlocked(String email) {
-        Long until = blockedUntil.get(email);
-        if (until == null) return false;
-        if (Instant.now().toEpochMilli() > until) {
-            blockedUntil.remove(email);
-            attempts.remove(email);
-            return false;
-        }
-        return true;
+        return getBlockTimeRemaining(email) > 0;
     }
 
     /**
      * Returns the number of milliseconds left before the block is lifted.
      */
     public long getBlockTimeRemaining(String email) {
-        Long until = blockedUntil.get(email);
-        if (until == null) return 0;
-        long diff = until - Instant.now().toEpochMilli();
-        return Math.max(diff, 0);
+        int slot = find(key(email));
+        if (slot < 0) return 0;
+        return Math.max(slots.get(slot + BLOCKED_UNTIL) - clock.millis(), 0);
+    }
+
+    /**
+     * Frees slots whose failures have aged out of the window and whose block has expired.
+     */
+    @Scheduled(fixedDelayString = "${app.security.login-attempts.sweep-interval:PT1M}")
+    public void sweep() {
+        long now = clock.millis();
+        for (int slot = 0; slot < slots.length(); slot += STRIDE) {
+            long key = slots.get(slot + KEY);
+            if (key != 0 && isIdle(slot, now)) {
+                slots.compareAndSet(slot + KEY, key, 0);
+            }
+        }
+    }
+
+    /**
+     * Returns the number of slots currently holding a key.
+     */
+    int trackedKeys() {
+        int count = 0;
+        for (int slot = 0; slot < slots.length(); slot += STRIDE) {
+            if (slots.get(slot + KEY) != 0) count++;
+        }
+        return count;
+    }
+
+    int capacity() {
+        return mask + 1;
+    }
+
+    private double estimate(long state, long now) {
+        long bucket = now / windowMs;
+        long stateBucket = state >>> 32;
+        if (stateBucket < bucket - 1) return 0;
+        double previous = (state >>> 16) & COUNT_MASK;
+        double current = state & COUNT_MASK;
+        if (stateBucket == bucket - 1) {
+            previous = current;
+            current = 0;
+        }
+        double overlap = 1.0 - (double) (now % windowMs) / windowMs;
+        return previous * overlap + current;
+    }
+
+    private boolean isIdle(int slot, long now) {
+        return slots.get(slot + BLOCKED_UNTIL) <= now && estimate(slots.get(slot + WINDOW), now) == 0;
+    }
+
+    /**
+     * Returns the slot holding the key, or -1. Scans the whole probe range, so freed slots
+     * never hide keys stored further along.
+     */
+    private int find(long key) {
+        int home = home(key);
+        for (int i = 0; i < PROBE_RANGE; i++) {
+            int slot = ((home + i) & mask) * STRIDE;
+            if (slots.get(slot + KEY) == key) return slot;
+        }
+        return -1;
+    }
+
+    /**
+     * Returns the slot holding the key, claiming a free slot or evicting the least recently
+     * failed unblocked entry in the probe range if the key is not present.
+     */
+    private int findOrClaim(long key, long now) {
+        retry:
+        while (true) {
+            int existing = find(key);
+            if (existing >= 0) return existing;
+
+            int home = home(key);
+            int victim = -1;
+            long victimKey = 0;
+            long victimScore = Long.MAX_VALUE;
+            for (int i = 0; i < PROBE_RANGE; i++) {
+                int slot = ((home + i) & mask) * STRIDE;
+                long current = slots.get(slot + KEY);
+                if (current == key) return slot;
+                if (current == 0) {
+                    int claimed = claim(slot, 0, key);
+                    if (claimed >= 0) return claimed;
+                    // Lost the slot, possibly to another thread claiming the same key: look again.
+                    continue retry;
+                }
+                // Prefer idle entries, then unblocked ones, then the oldest window bucket.
+                long score = (slots.get(slot + WINDOW) >>> 32)
+                        + (slots.get(slot + BLOCKED_UNTIL) > now ? 1L << 62 : 0)
+                        - (isIdle(slot, now) ? 1L << 62 : 0);
+                if (score < victimScore) {
+                    victim = slot;
+                    victimKey = current;
+                    victimScore = score;
+                }
+            }
+            if (victim >= 0) {
+                int claimed = claim(victim, victimKey, key);
+                if (claimed >= 0) return claimed;
+            }
+        }
+    }
+
+    /**
+     * Takes the slot over from {@code expectedKey} and clears the previous owner's state. The state is
+     * cleared with compare-and-set against the values read before the takeover, so a failure another
+     * thread has already counted for the new key is kept. If another thread claimed an earlier slot in
+     * the probe range for the same key, this slot is released and that one is returned instead.
+     *
+     * @return the slot now holding the key, or -1 if the takeover failed and the caller should retry
+     */
+    private int claim(int slot, long expectedKey, long key) {
+        long window = slots.get(slot + WINDOW);
+        long blockedUntil = slots.get(slot + BLOCKED_UNTIL);
+        if (!slots.compareAndSet(slot + KEY, expectedKey, key)) return -1;
+        slots.compareAndSet(slot + WINDOW, window, 0);
+        slots.compareAndSet(slot + BLOCKED_UNTIL, blockedUntil, 0);
+        int first = find(key);
+        if (first != slot) {
+            slots.compareAndSet(slot + KEY, key, 0);
+        }
+        return first;
+    }
+
+    private int home(long key) {
+        return (int) (key ^ (key >>> 32)) & mask;
+    }
+
+    /**
+     * Seeded 64-bit hash of the normalized email (FNV-1a over the chars, then a MurmurHash3
+     * finalizer). Zero marks a free slot, so it is never returned.
+     */
+    private long key(String email) {
+        String normalized = email == null ? "" : email.trim().toLowerCase(Locale.ROOT);
+        long h = seed ^ 0xcbf29ce484222325L;
+        for (int i = 0; i < normalized.length(); i++) {
+            h ^= normalized.charAt(i);
+            h *= 0x100000001b3L;
+        }
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb3fe1a85ec53L;
+        h ^= h >>> 33;
+        return h == 0 ? 1 : h;
     }
-}
\ No newline at end of file
+}
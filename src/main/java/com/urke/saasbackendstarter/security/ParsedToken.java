@@ -0,0 +1,50 @@
+package com.urke.saasbackendstarter.security;
+
+import io.jsonwebtoken.Claims;
+
+import java.util.Date;
+
+/**
+ * A JWT whose signature has already been verified, together with its claims.
+ * <p>
+ * Produced once per request by {@link JwtTokenProvider#parseToken(String)} and passed
+ * along instead of the raw token string, so the signature is never verified twice.
+ */
+public final class ParsedToken {
+
+    /**
+     * Request attribute under which a filter that already parsed the bearer token leaves it
+     * for the filters after it.
+     */
+    public static final String REQUEST_ATTRIBUTE = ParsedToken.class.getName();
+
+    private final String keyId;
+    private final Claims claims;
+
+    ParsedToken(String keyId, Claims claims) {
+        this.keyId = keyId;
+        this.claims = claims;
+    }
+
+    public String getKeyId() { return keyId; }
+    public Claims getClaims() { return claims; }
+    public String getSubject() { return claims.getSubject(); }
+    public Date getIssuedAt() { return claims.getIssuedAt(); }
+    public Date getExpiration() { return claims.getExpiration(); }
+
+    /**
+     * Returns the organization id claim, or {@code null} for tokens issued without one.
+     */
+    public Long getOrganizationId() {
+        return claims.get(JwtTokenProvider.CLAIM_ORGANIZATION_ID, Long.class);
+    }
+
+    /**
+     * Returns whether the token has expired. The parser already rejects expired tokens,
+     * so this only matters for long-lived references to a parsed token.
+     */
+    public boolean isExpired() {
+        Date expiration = claims.getExpiration();
+        return expiration != null && expiration.before(new Date());
+    }
+}
@@ -0,0 +1,63 @@
+package com.urke.saasbackendstarter.security;
+
+import org.springframework.security.crypto.argon2.Argon2PasswordEncoder;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.DelegatingPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.crypto.password.Pbkdf2PasswordEncoder;
+import org.springframework.util.ClassUtils;
+
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Builds the {@link DelegatingPasswordEncoder} used for user passwords.
+ * <p>
+ * New hashes are written as {@code {id}hash} with the configured algorithm. Hashes of every
+ * registered algorithm still verify, and hashes without an {@code {id}} prefix (written before
+ * the delegating setup) are treated as BCrypt. {@code upgradeEncoding} reports hashes that use
+ * another algorithm or weaker parameters, so they can be re-hashed on the next successful login.
+ */
+final class PasswordEncoderFactory {
+
+    static final String BCRYPT = "bcrypt";
+    static final String PBKDF2 = "pbkdf2";
+    static final String ARGON2 = "argon2";
+
+    private static final boolean ARGON2_AVAILABLE =
+            ClassUtils.isPresent("org.bouncycastle.crypto.params.Argon2Parameters", null);
+
+    private PasswordEncoderFactory() {
+    }
+
+    /**
+     * @param algorithm        id of the algorithm for new hashes: bcrypt, pbkdf2 or argon2
+     * @param bcryptStrength   BCrypt cost factor (log2 rounds)
+     * @param pbkdf2Iterations PBKDF2-HMAC-SHA256 iteration count
+     * @param argon2MemoryKib  Argon2id memory cost in KiB
+     * @param argon2Iterations Argon2id time cost
+     * @param argon2Parallelism Argon2id lanes
+     */
+    static DelegatingPasswordEncoder create(String algorithm, int bcryptStrength, int pbkdf2Iterations,
+                                            int argon2MemoryKib, int argon2Iterations, int argon2Parallelism) {
+        BCryptPasswordEncoder bcrypt = new BCryptPasswordEncoder(bcryptStrength);
+        Map<String, PasswordEncoder> encoders = new LinkedHashMap<>();
+        encoders.put(BCRYPT, bcrypt);
+        encoders.put(PBKDF2, new Pbkdf2PasswordEncoder("", 16, pbkdf2Iterations,
+                Pbkdf2PasswordEncoder.SecretKeyFactoryAlgorithm.PBKDF2WithHmacSHA256));
+        // Argon2 needs BouncyCastle on the classpath; without it the id is simply not registered.
+        if (ARGON2_AVAILABLE) {
+            encoders.put(ARGON2, new Argon2PasswordEncoder(16, 32, argon2Parallelism, argon2MemoryKib, argon2Iterations));
+        }
+
+        String id = algorithm.trim().toLowerCase(Locale.ROOT);
+        if (!encoders.containsKey(id)) {
+            throw new IllegalArgumentException("Unsupported app.security.password-hashing.algorithm: " + algorithm
+                    + (ARGON2.equals(id) ? " (add org.bouncycastle:bcprov-jdk18on to enable it)" : ""));
+        }
+        DelegatingPasswordEncoder encoder = new DelegatingPasswordEncoder(id, encoders);
+        encoder.setDefaultPasswordEncoderForMatches(bcrypt);
+        return encoder;
+    }
+}
@@ -0,0 +1,79 @@
+package com.urke.saasbackendstarter.security;
+
+import com.urke.saasbackendstarter.repository.UserRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Re-hashes passwords stored with an outdated algorithm or weaker parameters after a successful login.
+ * <p>
+ * The new hash is computed and written in the background, so login latency is unaffected. The write
+ * is a conditional update that only applies while the stored hash is still the one that was verified,
+ * so a concurrent password change is never overwritten. If the upgrade queue is full the upgrade is
+ * skipped and simply happens on a later login.
+ */
+@Slf4j
+@Component
+public class PasswordUpgradeService {
+
+    private final PasswordEncoder passwordEncoder;
+    private final UserRepository userRepository;
+    private final UserDetailsCache userDetailsCache;
+    private final boolean enabled;
+    private final ThreadPoolExecutor executor;
+
+    public PasswordUpgradeService(
+            PasswordEncoder passwordEncoder,
+            UserRepository userRepository,
+            UserDetailsCache userDetailsCache,
+            @Value("${app.security.password-hashing.upgrade-on-login:true}") boolean enabled) {
+        this.passwordEncoder = passwordEncoder;
+        this.userRepository = userRepository;
+        this.userDetailsCache = userDetailsCache;
+        this.enabled = enabled;
+        this.executor = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(256),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "password-upgrade");
+                    thread.setDaemon(true);
+                    return thread;
+                }, new ThreadPoolExecutor.DiscardPolicy());
+    }
+
+    /**
+     * Schedules a re-hash of the user's password if its stored hash needs upgrading.
+     *
+     * @param user        the authenticated principal, carrying the stored hash that was just verified
+     * @param rawPassword the password the user logged in with
+     */
+    public void upgradeIfNeeded(UserDetails user, String rawPassword) {
+        if (!enabled || rawPassword == null) return;
+        String storedHash = user.getPassword();
+        if (storedHash == null || !passwordEncoder.upgradeEncoding(storedHash)) return;
+        executor.execute(() -> upgrade(user.getUsername(), storedHash, rawPassword));
+    }
+
+    private void upgrade(String email, String storedHash, String rawPassword) {
+        try {
+            String upgradedHash = passwordEncoder.encode(rawPassword);
+            if (userRepository.updatePasswordIfUnchanged(email, storedHash, upgradedHash) > 0) {
+                userDetailsCache.invalidate(email);
+            }
+        } catch (RuntimeException ex) {
+            log.warn("Password hash upgrade failed, retrying on next login: {}", ex.getMessage());
+        }
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        executor.shutdown();
+        executor.awaitTermination(5, TimeUnit.SECONDS);
+    }
+}
@@ -0,0 +1,84 @@
+package com.urke.saasbackendstarter.security;
+
+import com.urke.saasbackendstarter.events.AccessControlEvent;
+import com.urke.saasbackendstarter.events.UserEvent;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.Date;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Tracks which JWT-embedded principals are stale.
+ * <p>
+ * When a user is updated or deleted, or an organization's roles/permissions change, tokens
+ * issued before that moment must no longer be trusted for their embedded authorities.
+ * Such tokens are not rejected outright; the caller falls back to loading the user from the
+ * database, which also rejects deleted users. Entries older than the maximum token lifetime
+ * can no longer match any live token and are pruned.
+ */
+@Component
+public class PrincipalRevocationRegistry {
+
+    private static final int PRUNE_THRESHOLD = 1024;
+
+    private final long maxTokenAgeMs;
+    private final Map<Long, Long> userNotBefore = new ConcurrentHashMap<>();
+    private final Map<Long, Long> organizationNotBefore = new ConcurrentHashMap<>();
+
+    public PrincipalRevocationRegistry(@Value("${jwt.expiration-ms}") long maxTokenAgeMs) {
+        this.maxTokenAgeMs = maxTokenAgeMs;
+    }
+
+    /**
+     * Marks every token issued to the user up to now as stale.
+     */
+    public void revokeUser(Long userId) {
+        if (userId == null) return;
+        userNotBefore.put(userId, System.currentTimeMillis());
+        pruneIfLarge(userNotBefore);
+    }
+
+    /**
+     * Marks every token issued to members of the organization up to now as stale.
+     */
+    public void revokeOrganization(Long organizationId) {
+        if (organizationId == null) return;
+        organizationNotBefore.put(organizationId, System.currentTimeMillis());
+        pruneIfLarge(organizationNotBefore);
+    }
+
+    /**
+     * Returns whether a token issued at the given time for the given user and organization is stale.
+     * JWT timestamps have second precision, so a token issued in the same second as a revocation
+     * is conservatively treated as stale.
+     */
+    public boolean isRevoked(Long userId, Long organizationId, Date issuedAt) {
+        if (issuedAt == null) return true;
+        long issued = issuedAt.getTime();
+        Long userCutoff = userId != null ? userNotBefore.get(userId) : null;
+        if (userCutoff != null && issued < userCutoff) return true;
+        Long orgCutoff = organizationId != null ? organizationNotBefore.get(organizationId) : null;
+        return orgCutoff != null && issued < orgCutoff;
+    }
+
+    @EventListener
+    public void onUserEvent(UserEvent event) {
+        if (event.getType() == UserEvent.Type.UPDATED || event.getType() == UserEvent.Type.DELETED) {
+            revokeUser(event.getUser().getId());
+        }
+    }
+
+    @EventListener
+    public void onAccessControlEvent(AccessControlEvent event) {
+        revokeOrganization(event.getOrganizationId());
+    }
+
+    private void pruneIfLarge(Map<Long, Long> cutoffs) {
+        if (cutoffs.size() < PRUNE_THRESHOLD) return;
+        long oldestRelevant = System.currentTimeMillis() - maxTokenAgeMs;
+        cutoffs.values().removeIf(cutoff -> cutoff < oldestRelevant);
+    }
+}
@@ -0,0 +1,152 @@
+package com.urke.saasbackendstarter.security;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Ticker;
+import com.urke.saasbackendstarter.exception.RestExceptionHandler;
+import io.jsonwebtoken.JwtException;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.MessageSource;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.UrlPathHelper;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Rate-limits API requests with in-memory token buckets, before any JWT user lookup or password hashing.
+ * <p>
+ * Requests fall into one of two route groups:
+ * <ul>
+ *   <li>{@code auth}: login, refresh, registration and password reset, limited per client IP;</li>
+ *   <li>{@code api}: every other {@code /api/**} request, limited per client IP and, for bearer
+ *   tokens carrying an organization id, per organization.</li>
+ * </ul>
+ * Rejected requests get {@code 429 Too Many Requests} with a {@code Retry-After} header. The bearer
+ * token is parsed here once and left on the request for {@link JwtAuthenticationFilter}.
+ * The client IP is the request's remote address; behind a proxy, enable
+ * {@code server.forward-headers-strategy} so it reflects the real client.
+ */
+@Component
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    private static final String AUTH_GROUP = "auth";
+    private static final String API_GROUP = "api";
+
+    private final JwtTokenProvider jwtTokenProvider;
+    private final MessageSource messageSource;
+    private final ObjectMapper objectMapper;
+    private final boolean enabled;
+    private final List<String> authPaths;
+    private final int authPerIp;
+    private final Duration authPeriod;
+    private final int apiPerIp;
+    private final int apiPerOrganization;
+    private final Duration apiPeriod;
+    private final TokenBucketRateLimiter limiter;
+    private final AntPathMatcher pathMatcher = new AntPathMatcher();
+    private final UrlPathHelper urlPathHelper = new UrlPathHelper();
+
+    public RateLimitFilter(
+            JwtTokenProvider jwtTokenProvider,
+            MessageSource messageSource,
+            ObjectMapper objectMapper,
+            @Value("${app.rate-limit.enabled:true}") boolean enabled,
+            @Value("${app.rate-limit.max-keys:100000}") long maxKeys,
+            @Value("${app.rate-limit.auth.paths:/api/v1/auth/login,/api/v1/auth/refresh,/api/v1/auth/password-reset/**,/api/v1/users/register}") List<String> authPaths,
+            @Value("${app.rate-limit.auth.per-ip:10}") int authPerIp,
+            @Value("${app.rate-limit.auth.period:PT1M}") Duration authPeriod,
+            @Value("${app.rate-limit.api.per-ip:300}") int apiPerIp,
+            @Value("${app.rate-limit.api.per-organization:3000}") int apiPerOrganization,
+            @Value("${app.rate-limit.api.period:PT1M}") Duration apiPeriod) {
+        this.jwtTokenProvider = jwtTokenProvider;
+        this.messageSource = messageSource;
+        this.objectMapper = objectMapper;
+        this.enabled = enabled;
+        this.authPaths = authPaths;
+        this.authPerIp = authPerIp;
+        this.authPeriod = authPeriod;
+        this.apiPerIp = apiPerIp;
+        this.apiPerOrganization = apiPerOrganization;
+        this.apiPeriod = apiPeriod;
+        Duration idleTimeout = authPeriod.compareTo(apiPeriod) > 0 ? authPeriod : apiPeriod;
+        this.limiter = new TokenBucketRateLimiter(maxKeys, idleTimeout, Ticker.systemTicker());
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !enabled || !pathMatcher.match("/api/**", urlPathHelper.getPathWithinApplication(request));
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        String path = urlPathHelper.getPathWithinApplication(request);
+        String ip = request.getRemoteAddr();
+        long waitNanos;
+        if (isAuthPath(path)) {
+            waitNanos = limiter.tryAcquire(new BucketKey(AUTH_GROUP, "ip", ip), authPerIp, authPeriod);
+        } else {
+            waitNanos = limiter.tryAcquire(new BucketKey(API_GROUP, "ip", ip), apiPerIp, apiPeriod);
+            Long organizationId = organizationOf(request);
+            if (waitNanos == 0 && organizationId != null) {
+                waitNanos = limiter.tryAcquire(new BucketKey(API_GROUP, "org", organizationId.toString()),
+                        apiPerOrganization, apiPeriod);
+            }
+        }
+
+        if (waitNanos > 0) {
+            reject(request, response, waitNanos);
+            return;
+        }
+        filterChain.doFilter(request, response);
+    }
+
+    private boolean isAuthPath(String path) {
+        for (String pattern : authPaths) {
+            if (pathMatcher.match(pattern.trim(), path)) return true;
+        }
+        return false;
+    }
+
+    /**
+     * Parses the bearer token, if any, and leaves it on the request for the JWT filter.
+     */
+    private Long organizationOf(HttpServletRequest request) {
+        String header = request.getHeader(HttpHeaders.AUTHORIZATION);
+        if (header == null || !header.startsWith("Bearer ")) return null;
+        try {
+            ParsedToken token = jwtTokenProvider.parseToken(header.substring(7));
+            if (token == null) return null;
+            request.setAttribute(ParsedToken.REQUEST_ATTRIBUTE, token);
+            return token.getOrganizationId();
+        } catch (JwtException | IllegalArgumentException ex) {
+            return null;
+        }
+    }
+
+    private void reject(HttpServletRequest request, HttpServletResponse response, long waitNanos) throws IOException {
+        long retryAfterSeconds = Math.max(1, (waitNanos + TimeUnit.SECONDS.toNanos(1) - 1) / TimeUnit.SECONDS.toNanos(1));
+        String message = messageSource.getMessage("rate.limit.exceeded", new Object[]{retryAfterSeconds},
+                "Too many requests. Try again in {0} seconds.", request.getLocale());
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, Long.toString(retryAfterSeconds));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setCharacterEncoding("UTF-8");
+        objectMapper.writeValue(response.getOutputStream(),
+                new RestExceptionHandler.ErrorDTO("too_many_requests", message));
+    }
+
+    private record BucketKey(String group, String dimension, String value) {
+    }
+}
@@ -0,0 +1,44 @@
+package com.urke.saasbackendstarter.security;
+
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * Compact view of a stored refresh token: who it belongs to, when it expires, which
+ * login (token family) it was issued for, whether it has already been used or revoked, and when
+ * it was exchanged ({@code usedAt}, {@code null} unless it was rotated).
+ * The token value itself is never part of the record.
+ */
+public record RefreshTokenRecord(Long userId, Instant expiresAt, String familyId, boolean revoked, Instant usedAt) {
+
+    public RefreshTokenRecord(Long userId, Instant expiresAt, String familyId) {
+        this(userId, expiresAt, familyId, false, null);
+    }
+
+    public RefreshTokenRecord(Long userId, Instant expiresAt, String familyId, boolean revoked) {
+        this(userId, expiresAt, familyId, revoked, null);
+    }
+
+    public RefreshTokenRecord asRevoked() {
+        return revoked ? this : new RefreshTokenRecord(userId, expiresAt, familyId, true, usedAt);
+    }
+
+    /**
+     * Returns this token marked as exchanged at {@code now}.
+     */
+    public RefreshTokenRecord asUsed(Instant now) {
+        return new RefreshTokenRecord(userId, expiresAt, familyId, true, now);
+    }
+
+    /**
+     * Returns whether the token was exchanged no longer than {@code grace} before {@code now}. Presenting it
+     * again within that window is a duplicate refresh from the same client rather than a stolen token.
+     */
+    public boolean usedWithin(Duration grace, Instant now) {
+        return usedAt != null && !usedAt.plus(grace).isBefore(now);
+    }
+
+    public boolean isExpired(Instant now) {
+        return !expiresAt.isAfter(now);
+    }
+}
@@ -0,0 +1,72 @@
+package com.urke.saasbackendstarter.security;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.Optional;
+
+/**
+ * Storage for issued refresh tokens.
+ * <p>
+ * The implementation is selected with {@code app.security.refresh-tokens.store}:
+ * {@code jpa} (default) reads and writes the {@code refresh_tokens} table directly,
+ * {@code memory} serves lookups from memory and persists writes to the table in the background.
+ * <p>
+ * Refresh tokens rotate: each token can be exchanged once, for a new token of the same family.
+ * Presenting an already rotated token again means it leaked, so the whole family is revoked, unless it
+ * comes within {@code app.security.refresh-tokens.reuse-grace} of the exchange: that is a duplicate
+ * refresh from the same client (a retry or a refresh storm), which is only rejected.
+ */
+public interface RefreshTokenStore {
+
+    /**
+     * Stores a newly issued token, replacing any tokens the user already had.
+     */
+    void issue(String token, RefreshTokenRecord record);
+
+    /**
+     * Looks up a token. Expired tokens may still be returned; callers check the expiry.
+     */
+    Optional<RefreshTokenRecord> find(String token);
+
+    /**
+     * Exchanges a token for its replacement in a single compare-and-set on the presented token,
+     * so of several concurrent refreshes with the same token exactly one succeeds.
+     * <p>
+     * If the presented token was already rotated or revoked, the whole family is revoked, except for a
+     * token rotated no longer than the reuse grace window ago, which is only rejected.
+     *
+     * @return the record of the replacement token, or empty if the presented token is unknown,
+     *         expired, already used, or lost a concurrent rotation
+     */
+    Optional<RefreshTokenRecord> rotate(String token, String replacement, Instant replacementExpiresAt);
+
+    /**
+     * Removes every token of the user.
+     */
+    void revokeUser(Long userId);
+
+    /**
+     * Drops tokens that expired before {@code now} from any in-process state. Rows in the
+     * {@code refresh_tokens} table are purged separately by {@link ExpiredTokenPurgeJob}.
+     *
+     * @return the number of tokens dropped
+     */
+    default int evictExpired(Instant now) {
+        return 0;
+    }
+
+    /**
+     * Returns the SHA-256 digest of the token, base64url encoded, used as the lookup key.
+     */
+    static String hash(String token) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(digest);
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException("SHA-256 not available", ex);
+        }
+    }
+}
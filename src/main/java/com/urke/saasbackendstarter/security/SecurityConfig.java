@@ -1,9 +1,16 @@
 package com.urke.saasbackendstarter.security;
 
 import com.urke.saasbackendstarter.security.JwtAuthenticationFilter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.security.access.expression.method.MethodSecurityExpressionHandler;
+import org.springframework.security.authorization.AuthorizationDecision;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.config.annotation.authentication.builders.AuthenticationManagerBuilder;
 import org.springframework.security.config.annotation.method.configuration.EnableMethodSecurity;
@@ -11,10 +18,12 @@ import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.http.SessionCreationPolicy;
 import org.springframework.security.core.userdetails.UserDetailsService;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
 
+import java.time.Duration;
+
 /**
  * Security configuration for the application.
  * <p>
@@ -24,36 +33,76 @@ import org.springframework.security.web.authentication.UsernamePasswordAuthentic
 @EnableWebSecurity
 @EnableMethodSecurity(prePostEnabled = true)
 @RequiredArgsConstructor
+@Slf4j
 public class SecurityConfig {
 
     private final UserDetailsService userDetailsService;
     private final JwtAuthenticationFilter jwtAuthenticationFilter;
+    private final RateLimitFilter rateLimitFilter;
 
     /**
      * Provides the password encoder bean for hashing user passwords.
+     * <p>
+     * New passwords are hashed with {@code algorithm} (see {@link PasswordEncoderFactory}); hashes of the
+     * other algorithms and legacy unprefixed BCrypt hashes still verify and are upgraded on login by
+     * {@link PasswordUpgradeService}. Hashing runs on a bounded pool (see {@link BoundedPasswordEncoder}).
+     * With {@code calibrate-target} set, the BCrypt cost factor is raised at startup as far as this
+     * machine can hash within the target, starting from {@code strength}.
+     */
+    @Bean
+    public PasswordEncoder passwordEncoder(
+            @Value("${app.security.password-hashing.algorithm:bcrypt}") String algorithm,
+            @Value("${app.security.password-hashing.strength:10}") int strength,
+            @Value("${app.security.password-hashing.calibrate-target:}") Duration calibrateTarget,
+            @Value("${app.security.password-hashing.pbkdf2.iterations:310000}") int pbkdf2Iterations,
+            @Value("${app.security.password-hashing.argon2.memory-kib:19456}") int argon2MemoryKib,
+            @Value("${app.security.password-hashing.argon2.iterations:2}") int argon2Iterations,
+            @Value("${app.security.password-hashing.argon2.parallelism:1}") int argon2Parallelism,
+            @Value("${app.security.password-hashing.threads:0}") int threads,
+            @Value("${app.security.password-hashing.queue-capacity:64}") int queueCapacity,
+            @Value("${app.security.password-hashing.max-wait:PT5S}") Duration maxWait,
+            ObjectProvider<MeterRegistry> meterRegistry) {
+        if (calibrateTarget != null && !calibrateTarget.isZero()) {
+            strength = BCryptStrengthCalibrator.calibrate(strength, calibrateTarget);
+            log.info("BCrypt strength calibrated to {} for a target hash time of {}", strength, calibrateTarget);
+        }
+        PasswordEncoder delegate = PasswordEncoderFactory.create(algorithm, strength, pbkdf2Iterations,
+                argon2MemoryKib, argon2Iterations, argon2Parallelism);
+        int poolSize = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        return new BoundedPasswordEncoder(delegate, poolSize, queueCapacity, maxWait,
+                meterRegistry.getIfAvailable(() -> Metrics.globalRegistry));
+    }
+
+    /**
+     * Evaluates {@code @PreAuthorize} authority and role checks against the principal's authority bitmask.
      */
     @Bean
-    public BCryptPasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    static MethodSecurityExpressionHandler methodSecurityExpressionHandler() {
+        return new BitmaskMethodSecurityExpressionHandler();
     }
 
     /**
      * Configures the authentication manager with custom user details and password encoder.
      */
     @Bean
-    public AuthenticationManager authenticationManager(HttpSecurity http) throws Exception {
+    public AuthenticationManager authenticationManager(HttpSecurity http, PasswordEncoder passwordEncoder) throws Exception {
         return http.getSharedObject(AuthenticationManagerBuilder.class)
                 .userDetailsService(userDetailsService)
-                .passwordEncoder(passwordEncoder())
+                .passwordEncoder(passwordEncoder)
                 .and()
                 .build();
     }
 
     /**
-     * Configures the security filter chain, request authorization, and JWT filter.
+     * Configures the security filter chain, request authorization, rate limiting and JWT filter.
+     * <p>
+     * The {@code jwtkeys} actuator endpoint changes platform-wide state, so it is only reachable on
+     * {@code management.server.port}; without a separate management port it is denied to everyone,
+     * tenant admins included.
      */
     @Bean
-    public SecurityFilterChain filterChain(HttpSecurity http) throws Exception {
+    public SecurityFilterChain filterChain(HttpSecurity http,
+                                           @Value("${management.server.port:-1}") int managementPort) throws Exception {
         http
             .csrf(csrf -> csrf.disable())
             .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
@@ -61,6 +110,7 @@ public class SecurityConfig {
                 .requestMatchers(
                     "/api/v1/users/register",
                     "/api/v1/auth/**",
+                    "/.well-known/jwks.json",
                     "/v3/api-docs/**",
                     "/swagger-ui/**",
                     "/swagger-ui.html",
@@ -68,12 +118,15 @@ public class SecurityConfig {
                     "/actuator/health/**",
                     "/actuator/info"
                 ).permitAll()
+                .requestMatchers("/actuator/jwtkeys", "/actuator/jwtkeys/**").access((authentication, context) ->
+                    new AuthorizationDecision(context.getRequest().getLocalPort() == managementPort))
                 // ADMIN-ONLY ENDPOINTS
                 .requestMatchers("/api/v1/roles/**").hasRole("ADMIN")
                 .requestMatchers("/api/v1/permissions/**").hasRole("ADMIN")
                 .anyRequest().authenticated()
             )
-            .addFilterBefore(jwtAuthenticationFilter, UsernamePasswordAuthenticationFilter.class);
+            .addFilterBefore(jwtAuthenticationFilter, UsernamePasswordAuthenticationFilter.class)
+            .addFilterBefore(rateLimitFilter, JwtAuthenticationFilter.class);
 
         return http.build();
     }
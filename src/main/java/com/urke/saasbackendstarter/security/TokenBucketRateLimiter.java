@@ -0,0 +1,60 @@
+package com.urke.saasbackendstarter.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Ticker;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * In-memory token buckets implemented with the generic cell rate algorithm (GCRA).
+ * <p>
+ * Each key's whole bucket is one {@link AtomicLong}, its theoretical arrival time, updated with
+ * compare-and-set, so acquiring never locks. A limit of {@code n} per {@code period} allows a
+ * burst of {@code n} and refills one token every {@code period / n}. Keys idle for longer than
+ * the idle timeout are evicted, and the number of keys is capped.
+ */
+final class TokenBucketRateLimiter {
+
+    private final Cache<Object, AtomicLong> buckets;
+    private final Ticker ticker;
+
+    TokenBucketRateLimiter(long maxKeys, Duration idleTimeout, Ticker ticker) {
+        this.ticker = ticker;
+        this.buckets = Caffeine.newBuilder()
+                .maximumSize(maxKeys)
+                .expireAfterAccess(idleTimeout)
+                .ticker(ticker)
+                .build();
+    }
+
+    /**
+     * Takes one token from the key's bucket.
+     *
+     * @return 0 if the request is allowed, otherwise the nanoseconds until a token is available
+     */
+    long tryAcquire(Object key, int limit, Duration period) {
+        long periodNanos = period.toNanos();
+        long interval = periodNanos / limit;
+        AtomicLong arrival = buckets.get(key, k -> new AtomicLong(Long.MIN_VALUE));
+        while (true) {
+            long now = ticker.read();
+            long current = arrival.get();
+            long start = current == Long.MIN_VALUE ? now : Math.max(current, now);
+            long next = start + interval;
+            long waitNanos = next - periodNanos - now;
+            if (waitNanos > 0) {
+                return waitNanos;
+            }
+            if (arrival.compareAndSet(current, next)) {
+                return 0;
+            }
+        }
+    }
+
+    long trackedKeys() {
+        buckets.cleanUp();
+        return buckets.estimatedSize();
+    }
+}
@@ -0,0 +1,71 @@
+package com.urke.saasbackendstarter.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.urke.saasbackendstarter.events.AccessControlEvent;
+import com.urke.saasbackendstarter.events.UserEvent;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.function.Function;
+
+/**
+ * Size-bounded, TTL-evicting cache of authenticated user snapshots keyed by email.
+ * <p>
+ * Entries are immutable {@link CustomUserDetails}, so they can be shared across requests.
+ * They are invalidated after commit when a user is updated or deleted, and per organization
+ * when its roles or permissions change. Hit, miss and eviction counters are published to
+ * Micrometer under the {@code cache.*} meters with {@code cache=userDetails}.
+ */
+@Component
+public class UserDetailsCache {
+
+    private final Cache<String, CustomUserDetails> cache;
+
+    public UserDetailsCache(
+            @Value("${app.security.user-cache.max-size:10000}") long maxSize,
+            @Value("${app.security.user-cache.ttl:PT5M}") Duration ttl,
+            MeterRegistry meterRegistry) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "userDetails");
+    }
+
+    /**
+     * Returns the cached snapshot for the email, loading it on a miss. Loader exceptions propagate
+     * and nothing is cached for that email.
+     */
+    public CustomUserDetails get(String email, Function<String, CustomUserDetails> loader) {
+        return cache.get(email, loader);
+    }
+
+    public void invalidate(String email) {
+        if (email != null) {
+            cache.invalidate(email);
+        }
+    }
+
+    public void invalidateOrganization(Long organizationId) {
+        if (organizationId == null) return;
+        cache.asMap().values().removeIf(user -> organizationId.equals(user.getOrganizationId()));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserEvent(UserEvent event) {
+        if (event.getType() == UserEvent.Type.UPDATED || event.getType() == UserEvent.Type.DELETED) {
+            invalidate(event.getUser().getEmail());
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onAccessControlEvent(AccessControlEvent event) {
+        invalidateOrganization(event.getOrganizationId());
+    }
+}
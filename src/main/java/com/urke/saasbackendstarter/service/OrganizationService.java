@@ -2,8 +2,11 @@ package com.urke.saasbackendstarter.service;
 
 import com.urke.saasbackendstarter.domain.Organization;
 import com.urke.saasbackendstarter.dto.organization.OrganizationCreateRequest;
+import com.urke.saasbackendstarter.dto.organization.OrganizationSummary;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Window;
 
 import java.util.List;
 import java.util.Optional;
@@ -18,4 +21,15 @@ public interface OrganizationService {
 
     Page<Organization> findAll(Pageable pageable);
     Page<Organization> findAllByNameFilter(String name, Pageable pageable);
+
+    /**
+     * Pages non-deleted organizations as summaries, optionally filtered by name, without loading entities.
+     */
+    Page<OrganizationSummary> findSummaries(String name, Pageable pageable);
+
+    /**
+     * Keyset pagination over non-deleted organizations ordered by (name, id), optionally filtered by name.
+     */
+    Window<Organization> scroll(String name, ScrollPosition position, int limit);
+    long count(String name);
 }
\ No newline at end of file
@@ -1,6 +1,7 @@
 package com.urke.saasbackendstarter.service;
 
 import com.urke.saasbackendstarter.domain.Role;
+import com.urke.saasbackendstarter.dto.role.RoleDTO;
 
 import java.util.Optional;
 import java.util.List;
@@ -11,5 +12,10 @@ import java.util.List;
 public interface RoleService {
     Optional<Role> findByNameAndOrganizationId(String name, Long organizationId);
     List<Role> findAllByOrganizationId(Long organizationId);
+
+    /**
+     * Lists the organization's roles with their permissions, read with a single query.
+     */
+    List<RoleDTO> findDTOsByOrganizationId(Long organizationId);
     Role save(Role role);
 }
\ No newline at end of file
@@ -0,0 +1,48 @@
+package com.urke.saasbackendstarter.service;
+
+import org.springframework.http.MediaType;
+
+import java.util.Locale;
+
+/**
+ * File formats supported by the user export, keyed by the {@code format} request parameter.
+ */
+public enum UserExportFormat {
+
+    XLSX("xlsx", MediaType.parseMediaType("application/vnd.openxmlformats-officedocument.spreadsheetml.sheet"), false),
+    PDF("pdf", MediaType.APPLICATION_PDF, false),
+    CSV("csv", MediaType.parseMediaType("text/csv;charset=UTF-8"), true),
+    NDJSON("ndjson", MediaType.APPLICATION_NDJSON, true);
+
+    private final String extension;
+    private final MediaType mediaType;
+    private final boolean compressible;
+
+    UserExportFormat(String extension, MediaType mediaType, boolean compressible) {
+        this.extension = extension;
+        this.mediaType = mediaType;
+        this.compressible = compressible;
+    }
+
+    public String getExtension() { return extension; }
+    public MediaType getMediaType() { return mediaType; }
+
+    /**
+     * Whether the output is plain text worth gzip-encoding on the wire. Excel and PDF are already compressed.
+     */
+    public boolean isCompressible() { return compressible; }
+
+    public String getFilename() { return "users." + extension; }
+
+    /**
+     * Returns the format for the given extension (case-insensitive), or {@code null} if it is not supported.
+     */
+    public static UserExportFormat fromExtension(String extension) {
+        if (extension == null) return null;
+        String normalized = extension.trim().toLowerCase(Locale.ROOT);
+        for (UserExportFormat format : values()) {
+            if (format.extension.equals(normalized)) return format;
+        }
+        return null;
+    }
+}
@@ -0,0 +1,33 @@
+package com.urke.saasbackendstarter.service;
+
+import com.urke.saasbackendstarter.dto.ExportJobDTO;
+import org.springframework.core.io.Resource;
+
+/**
+ * Renders user exports in the background and keeps the finished files for download until they expire.
+ */
+public interface UserExportJobService {
+
+    /**
+     * Queues an export of the organization's users, or joins an identical export that is still
+     * queued or running. Progress is pushed to the requesting user's WebSocket queue.
+     *
+     * @throws org.springframework.web.server.ResponseStatusException 503 if the job queue is full
+     */
+    ExportJobDTO submit(Long userId, Long organizationId, String format, String email);
+
+    /**
+     * Returns the job if it exists, has not expired and belongs to the organization.
+     *
+     * @throws org.springframework.web.server.ResponseStatusException 404 otherwise
+     */
+    ExportJobDTO getJob(String jobId, Long organizationId);
+
+    /**
+     * Returns the finished export file.
+     *
+     * @throws org.springframework.web.server.ResponseStatusException 404 if the job is unknown,
+     *         409 if it has not completed
+     */
+    Resource getResult(String jobId, Long organizationId);
+}
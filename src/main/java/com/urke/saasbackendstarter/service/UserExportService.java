@@ -1,12 +1,60 @@
 package com.urke.saasbackendstarter.service;
 
-import com.urke.saasbackendstarter.domain.Organization;
-import com.urke.saasbackendstarter.domain.User;
-
-import java.util.List;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.function.LongConsumer;
 
 public interface UserExportService {
-    List<User> findExportUsers(Organization org, String email);
-    byte[] exportToExcel(List<User> users);
-    byte[] exportToPdf(List<User> users);
+    /**
+     * Returns the number of rows an export with the same arguments writes.
+     */
+    long countExportUsers(Long organizationId, String email);
+
+    /**
+     * Streams the organization's users, optionally filtered by email, as an .xlsx workbook to {@code out}.
+     * Rows are read from the database and flushed to disk in small windows, so memory stays flat.
+     */
+    void exportToExcel(Long organizationId, String email, OutputStream out) throws IOException;
+
+    /**
+     * Same as {@link #exportToExcel(Long, String, OutputStream)}, passing the number of rows
+     * written so far to {@code progress} after each row.
+     */
+    void exportToExcel(Long organizationId, String email, OutputStream out, LongConsumer progress) throws IOException;
+
+    /**
+     * Streams the organization's users, optionally filtered by email, as a PDF to {@code out}.
+     * The table is written in fixed-size row chunks, so pages go out as soon as they are complete.
+     */
+    void exportToPdf(Long organizationId, String email, OutputStream out) throws IOException;
+
+    /**
+     * Same as {@link #exportToPdf(Long, String, OutputStream)}, passing the number of rows
+     * written so far to {@code progress} after each row.
+     */
+    void exportToPdf(Long organizationId, String email, OutputStream out, LongConsumer progress) throws IOException;
+
+    /**
+     * Streams the organization's users, optionally filtered by email, as RFC 4180 CSV (UTF-8, CRLF) to {@code out}.
+     * Rows go from the database cursor straight into a buffered writer; {@code out} is flushed, not closed.
+     */
+    void exportToCsv(Long organizationId, String email, OutputStream out) throws IOException;
+
+    /**
+     * Same as {@link #exportToCsv(Long, String, OutputStream)}, passing the number of rows
+     * written so far to {@code progress} after each row.
+     */
+    void exportToCsv(Long organizationId, String email, OutputStream out, LongConsumer progress) throws IOException;
+
+    /**
+     * Streams the organization's users, optionally filtered by email, as newline-delimited JSON to {@code out},
+     * one object per user. Like {@link #exportToCsv(Long, String, OutputStream)}, {@code out} is flushed, not closed.
+     */
+    void exportToNdjson(Long organizationId, String email, OutputStream out) throws IOException;
+
+    /**
+     * Same as {@link #exportToNdjson(Long, String, OutputStream)}, passing the number of rows
+     * written so far to {@code progress} after each row.
+     */
+    void exportToNdjson(Long organizationId, String email, OutputStream out, LongConsumer progress) throws IOException;
 }
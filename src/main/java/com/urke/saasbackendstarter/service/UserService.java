@@ -3,9 +3,12 @@ package com.urke.saasbackendstarter.service;
 import com.urke.saasbackendstarter.domain.Organization;
 import com.urke.saasbackendstarter.domain.User;
 import com.urke.saasbackendstarter.dto.user.UserCreateRequest;
+import com.urke.saasbackendstarter.dto.user.UserSummary;
 import com.urke.saasbackendstarter.dto.user.UserUpdateRequest;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.Window;
 
 import java.util.List;
 import java.util.Optional;
@@ -15,6 +18,11 @@ public interface UserService {
     Optional<User> findByEmail(String email);
     Optional<User> findByEmailWithOrganization(String email);
     Optional<User> findById(Long id);
+
+    /**
+     * Same as {@link #findById(Long)}, with roles and organization fetched for the details view.
+     */
+    Optional<User> findDetailsById(Long id);
     List<User> findAll();
     List<User> findAllByOrganization(Organization organization);
     User updateUser(Long id, UserUpdateRequest request);
@@ -22,4 +30,25 @@ public interface UserService {
 
     Page<User> findAll(Pageable pageable);
     Page<User> findAllByEmailFilter(String email, Pageable pageable);
+
+    /**
+     * Pages all users as summaries, optionally filtered by email. Role names are aggregated in the
+     * same query, so a page costs one select plus one count regardless of its size.
+     */
+    Page<UserSummary> findSummaries(String email, Pageable pageable);
+
+    /**
+     * Pages the organization's users as summaries, optionally filtered by email. Paging, filtering
+     * and projection happen in the database; unsorted requests are ordered by email.
+     */
+    Page<UserSummary> findSummariesByOrganization(Long organizationId, String email, Pageable pageable);
+
+    /**
+     * Keyset pagination over non-deleted users ordered by (email, id), optionally filtered by email
+     * with the same database-side filter as the paged listing.
+     */
+    Window<User> scroll(String email, KeysetScrollPosition position, int limit);
+    Window<User> scrollByOrganization(Long organizationId, String email, KeysetScrollPosition position, int limit);
+    long count(String email);
+    long countByOrganization(Long organizationId, String email);
 }
\ No newline at end of file
@@ -1,16 +1,18 @@
 package com.urke.saasbackendstarter.service.impl;
 
-import com.urke.saasbackendstarter.domain.RefreshToken;
 import com.urke.saasbackendstarter.domain.User;
 import com.urke.saasbackendstarter.dto.auth.LoginRequest;
 import com.urke.saasbackendstarter.dto.auth.LoginResponse;
 import com.urke.saasbackendstarter.dto.auth.RefreshTokenRequest;
 import com.urke.saasbackendstarter.dto.auth.RefreshTokenResponse;
 import com.urke.saasbackendstarter.exception.AuthException;
-import com.urke.saasbackendstarter.repository.RefreshTokenRepository;
 import com.urke.saasbackendstarter.repository.UserRepository;
+import com.urke.saasbackendstarter.security.CustomUserDetails;
 import com.urke.saasbackendstarter.security.JwtTokenProvider;
 import com.urke.saasbackendstarter.security.LoginAttemptService;
+import com.urke.saasbackendstarter.security.PasswordUpgradeService;
+import com.urke.saasbackendstarter.security.RefreshTokenRecord;
+import com.urke.saasbackendstarter.security.RefreshTokenStore;
 import com.urke.saasbackendstarter.service.AuthService;
 import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
@@ -34,9 +36,10 @@ public class AuthServiceImpl implements AuthService {
     private final AuthenticationManager authenticationManager;
     private final JwtTokenProvider jwtTokenProvider;
     private final UserRepository userRepository;
-    private final RefreshTokenRepository refreshTokenRepository;
+    private final RefreshTokenStore refreshTokenStore;
     private final PasswordEncoder passwordEncoder;
     private final LoginAttemptService loginAttemptService;
+    private final PasswordUpgradeService passwordUpgradeService;
     private final MessageSource messageSource;
 
     // Refresh token validity duration (7 days)
@@ -63,6 +66,7 @@ public class AuthServiceImpl implements AuthService {
             );
             UserDetails userDetails = (UserDetails) authentication.getPrincipal();
             loginAttemptService.loginSucceeded(email);
+            passwordUpgradeService.upgradeIfNeeded(userDetails, request.getPassword());
 
             String accessToken = jwtTokenProvider.generateToken(userDetails);
             String refreshToken = createRefreshToken(
@@ -79,30 +83,22 @@ public class AuthServiceImpl implements AuthService {
 
     @Override
     public RefreshTokenResponse refreshToken(RefreshTokenRequest request) {
-        String requestToken = request.getRefreshToken();
-        RefreshToken refreshToken = refreshTokenRepository.findByToken(requestToken)
+        String newRefreshToken = UUID.randomUUID().toString();
+        RefreshTokenRecord refreshToken = refreshTokenStore.rotate(
+                        request.getRefreshToken(), newRefreshToken, Instant.now().plusMillis(refreshTokenDurationMs))
                 .orElseThrow(() -> new AuthException(
                     messageSource.getMessage("auth.refresh.invalid", null, LocaleContextHolder.getLocale())
                 ));
 
-        if (refreshToken.getExpiryDate().isBefore(Instant.now())) {
-            throw new AuthException(
-                messageSource.getMessage("auth.refresh.invalid", null, LocaleContextHolder.getLocale())
-            );
-        }
-
-        User user = refreshToken.getUser();
-        UserDetails userDetails = org.springframework.security.core.userdetails.User
-                .withUsername(user.getEmail())
-                .password(user.getPassword())
-                .authorities(user.getRoles().stream()
-                        .map(role -> "ROLE_" + role.getName())
-                        .toArray(String[]::new))
-                .build();
+        User user = userRepository.findByIdAndDeletedFalse(refreshToken.userId())
+                .orElseThrow(() -> new AuthException(
+                    messageSource.getMessage("auth.refresh.invalid", null, LocaleContextHolder.getLocale())
+                ));
+        UserDetails userDetails = new CustomUserDetails(user);
 
         String newAccessToken = jwtTokenProvider.generateToken(userDetails);
 
-        return new RefreshTokenResponse(newAccessToken, requestToken);
+        return new RefreshTokenResponse(newAccessToken, newRefreshToken);
     }
 
     @Override
@@ -112,19 +108,16 @@ public class AuthServiceImpl implements AuthService {
                 .orElseThrow(() -> new AuthException(
                         messageSource.getMessage("user.notfound", null, LocaleContextHolder.getLocale())
                 ));
-        refreshTokenRepository.deleteByUser(user);
+        refreshTokenStore.revokeUser(user.getId());
         loginAttemptService.loginSucceeded(email);
     }
 
     private String createRefreshToken(User user) {
-        refreshTokenRepository.deleteByUser(user);
         String token = UUID.randomUUID().toString();
-        RefreshToken refreshToken = RefreshToken.builder()
-                .token(token)
-                .expiryDate(Instant.now().plusMillis(refreshTokenDurationMs))
-                .user(user)
-                .build();
-        refreshTokenRepository.save(refreshToken);
+        refreshTokenStore.issue(token, new RefreshTokenRecord(
+                user.getId(),
+                Instant.now().plusMillis(refreshTokenDurationMs),
+                UUID.randomUUID().toString()));
         return token;
     }
 }
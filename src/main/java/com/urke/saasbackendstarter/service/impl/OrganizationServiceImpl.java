@@ -2,6 +2,7 @@ package com.urke.saasbackendstarter.service.impl;
 
 import com.urke.saasbackendstarter.domain.Organization;
 import com.urke.saasbackendstarter.dto.organization.OrganizationCreateRequest;
+import com.urke.saasbackendstarter.dto.organization.OrganizationSummary;
 import com.urke.saasbackendstarter.events.OrganizationEvent;
 import com.urke.saasbackendstarter.exception.OrganizationAlreadyExistsException;
 import com.urke.saasbackendstarter.exception.OrganizationNotFoundException;
@@ -12,8 +13,12 @@ import lombok.RequiredArgsConstructor;
 import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.context.MessageSource;
 import org.springframework.context.i18n.LocaleContextHolder;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -32,6 +37,8 @@ public class OrganizationServiceImpl implements OrganizationService {
     private final ApplicationEventPublisher eventPublisher;
     private final MessageSource messageSource;
 
+    private static final Sort SCROLL_SORT = Sort.by("name", "id");
+
     @Override
     @Transactional
     public Organization create(OrganizationCreateRequest request) {
@@ -98,6 +105,28 @@ public class OrganizationServiceImpl implements OrganizationService {
         return organizationRepository.findByNameContainingIgnoreCaseAndDeletedFalse(name, pageable);
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public Page<OrganizationSummary> findSummaries(String name, Pageable pageable) {
+        return organizationRepository.findSummaries(name == null || name.isBlank() ? null : name, pageable);
+    }
+
+    @Override
+    public Window<Organization> scroll(String name, ScrollPosition position, int limit) {
+        if (name != null && !name.isBlank()) {
+            return organizationRepository.findByNameContainingIgnoreCaseAndDeletedFalse(name, position, SCROLL_SORT, Limit.of(limit));
+        }
+        return organizationRepository.findByDeletedFalse(position, SCROLL_SORT, Limit.of(limit));
+    }
+
+    @Override
+    public long count(String name) {
+        if (name != null && !name.isBlank()) {
+            return organizationRepository.countByNameContainingIgnoreCaseAndDeletedFalse(name);
+        }
+        return organizationRepository.countByDeletedFalse();
+    }
+
     /**
      * Generates a URL-friendly slug from a given string.
      * Removes diacritics and converts spaces/punctuation to hyphens.
@@ -2,6 +2,7 @@ package com.urke.saasbackendstarter.service.impl;
 
 import com.urke.saasbackendstarter.domain.PasswordResetToken;
 import com.urke.saasbackendstarter.domain.User;
+import com.urke.saasbackendstarter.events.UserEvent;
 import com.urke.saasbackendstarter.exception.PasswordResetTokenExpiredException;
 import com.urke.saasbackendstarter.exception.PasswordResetTokenInvalidException;
 import com.urke.saasbackendstarter.exception.UserNotFoundException;
@@ -12,6 +13,7 @@ import com.urke.saasbackendstarter.service.PasswordResetService;
 import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.context.MessageSource;
 import org.springframework.context.i18n.LocaleContextHolder;
 import org.springframework.security.crypto.password.PasswordEncoder;
@@ -29,6 +31,7 @@ public class PasswordResetServiceImpl implements PasswordResetService {
     private final UserRepository userRepository;
     private final PasswordEncoder passwordEncoder;
     private final EmailService emailService;
+    private final ApplicationEventPublisher eventPublisher;
     private final MessageSource messageSource;
 
     private static final int EXPIRES_MINUTES = 15;
@@ -88,6 +91,7 @@ public class PasswordResetServiceImpl implements PasswordResetService {
         User user = resetToken.getUser();
         user.setPassword(passwordEncoder.encode(newPassword));
         userRepository.save(user);
+        eventPublisher.publishEvent(new UserEvent(this, UserEvent.Type.UPDATED, user));
 
         tokenRepository.deleteById(resetToken.getId());
 
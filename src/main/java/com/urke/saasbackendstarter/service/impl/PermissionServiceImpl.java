@@ -1,10 +1,12 @@
 package com.urke.saasbackendstarter.service.impl;
 
 import com.urke.saasbackendstarter.domain.Permission;
+import com.urke.saasbackendstarter.events.AccessControlEvent;
 import com.urke.saasbackendstarter.repository.PermissionRepository;
 import com.urke.saasbackendstarter.service.PermissionService;
 
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 
 import java.util.List;
@@ -18,6 +20,7 @@ import java.util.Optional;
 public class PermissionServiceImpl implements PermissionService {
 
     private final PermissionRepository permissionRepository;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Override
     public List<Permission> findAllByOrganizationId(Long organizationId) {
@@ -31,6 +34,9 @@ public class PermissionServiceImpl implements PermissionService {
 
     @Override
     public Permission save(Permission permission) {
-        return permissionRepository.save(permission);
+        Permission saved = permissionRepository.save(permission);
+        eventPublisher.publishEvent(new AccessControlEvent(
+                this, AccessControlEvent.Type.PERMISSION_SAVED, saved.getOrganization().getId()));
+        return saved;
     }
 }
\ No newline at end of file
@@ -1,14 +1,19 @@
 package com.urke.saasbackendstarter.service.impl;
 
 import com.urke.saasbackendstarter.domain.Role;
+import com.urke.saasbackendstarter.dto.role.RoleDTO;
+import com.urke.saasbackendstarter.events.AccessControlEvent;
 import com.urke.saasbackendstarter.exception.RoleAlreadyExistsException;
+import com.urke.saasbackendstarter.mapper.RoleMapper;
 import com.urke.saasbackendstarter.repository.RoleRepository;
 import com.urke.saasbackendstarter.service.RoleService;
 
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.context.MessageSource;
 import org.springframework.context.i18n.LocaleContextHolder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.Optional;
 import java.util.List;
@@ -21,6 +26,7 @@ import java.util.List;
 public class RoleServiceImpl implements RoleService {
 
     private final RoleRepository roleRepository;
+    private final ApplicationEventPublisher eventPublisher;
     private final MessageSource messageSource;
 
     @Override
@@ -33,6 +39,12 @@ public class RoleServiceImpl implements RoleService {
         return roleRepository.findAllByOrganizationId(organizationId);
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public List<RoleDTO> findDTOsByOrganizationId(Long organizationId) {
+        return RoleMapper.toDTOs(roleRepository.findPermissionRowsByOrganizationId(organizationId));
+    }
+
     @Override
     public Role save(Role role) {
         if (roleRepository.existsByNameAndOrganizationId(role.getName(), role.getOrganization().getId())) {
@@ -40,6 +52,9 @@ public class RoleServiceImpl implements RoleService {
                 messageSource.getMessage("role.exists", null, LocaleContextHolder.getLocale())
             );
         }
-        return roleRepository.save(role);
+        Role saved = roleRepository.save(role);
+        eventPublisher.publishEvent(new AccessControlEvent(
+                this, AccessControlEvent.Type.ROLE_SAVED, saved.getOrganization().getId()));
+        return saved;
     }
 }
\ No newline at end of file
@@ -0,0 +1,283 @@
+package com.urke.saasbackendstarter.service.impl;
+
+import com.urke.saasbackendstarter.dto.ExportJobDTO;
+import com.urke.saasbackendstarter.dto.ExportJobDTO.Status;
+import com.urke.saasbackendstarter.service.UserExportFormat;
+import com.urke.saasbackendstarter.service.UserExportJobService;
+import com.urke.saasbackendstarter.service.UserExportService;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.http.HttpStatus;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.util.StringUtils;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.LongConsumer;
+
+/**
+ * In-memory export job registry backed by a bounded worker pool.
+ * <p>
+ * Jobs are keyed by (organization, format, email filter); a request identical to a job that is
+ * still queued or running joins it instead of rendering the file again. Workers render into a
+ * temp file, pushing progress to every subscribed user's {@code /queue/user-{id}} every
+ * {@value #PROGRESS_ROWS} rows. Finished files are kept for {@code ttl} and then deleted.
+ * <p>
+ * Jobs live in this instance only; behind a load balancer, polling and downloads need sticky sessions.
+ */
+@Slf4j
+@Service
+public class UserExportJobServiceImpl implements UserExportJobService {
+
+    static final int PROGRESS_ROWS = 1000;
+
+    private final UserExportService userExportService;
+    private final SimpMessagingTemplate messagingTemplate;
+    private final Executor executor;
+    private final Path directory;
+    private final Duration ttl;
+    private final Clock clock;
+    private final Map<String, Job> jobs = new ConcurrentHashMap<>();
+    private final Map<String, Job> inFlight = new ConcurrentHashMap<>();
+
+    @Autowired
+    public UserExportJobServiceImpl(
+            UserExportService userExportService,
+            SimpMessagingTemplate messagingTemplate,
+            @Value("${app.export.jobs.threads:2}") int threads,
+            @Value("${app.export.jobs.queue-capacity:20}") int queueCapacity,
+            @Value("${app.export.jobs.directory:}") String directory,
+            @Value("${app.export.jobs.ttl:PT1H}") Duration ttl) throws IOException {
+        this(userExportService, messagingTemplate, newExecutor(threads, queueCapacity),
+                StringUtils.hasText(directory)
+                        ? Files.createDirectories(Path.of(directory))
+                        : Files.createTempDirectory("user-exports"),
+                ttl, Clock.systemUTC());
+    }
+
+    UserExportJobServiceImpl(UserExportService userExportService, SimpMessagingTemplate messagingTemplate, Executor executor,
+                             Path directory, Duration ttl, Clock clock) {
+        this.userExportService = userExportService;
+        this.messagingTemplate = messagingTemplate;
+        this.executor = executor;
+        this.directory = directory;
+        this.ttl = ttl;
+        this.clock = clock;
+    }
+
+    @Override
+    public ExportJobDTO submit(Long userId, Long organizationId, String format, String email) {
+        UserExportFormat exportFormat = UserExportFormat.fromExtension(format);
+        if (exportFormat == null) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "validation.error");
+        }
+        String filter = StringUtils.hasText(email) ? email.trim() : null;
+        String key = organizationId + ":" + exportFormat + ":" + (filter == null ? "" : filter.toLowerCase(Locale.ROOT));
+
+        Job created = new Job(UUID.randomUUID().toString(), key, organizationId, exportFormat, filter, clock.instant());
+        // Subscribe inside the map operation: run() removes the job from inFlight before its final push,
+        // so a job found here has not sent it yet and will reach this subscriber.
+        Job job = inFlight.compute(key, (k, running) -> {
+            Job target = running != null ? running : created;
+            target.subscribers.add(userId);
+            return target;
+        });
+        if (job != created) {
+            return job.toDTO();
+        }
+
+        jobs.put(job.id, job);
+        try {
+            executor.execute(() -> run(job));
+        } catch (RejectedExecutionException ex) {
+            jobs.remove(job.id);
+            inFlight.remove(key, job);
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "export.busy");
+        }
+        return job.toDTO();
+    }
+
+    @Override
+    public ExportJobDTO getJob(String jobId, Long organizationId) {
+        return find(jobId, organizationId).toDTO();
+    }
+
+    @Override
+    public Resource getResult(String jobId, Long organizationId) {
+        Job job = find(jobId, organizationId);
+        if (job.status != Status.COMPLETED) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT, "export.job.notready");
+        }
+        return new FileSystemResource(job.file);
+    }
+
+    /**
+     * Deletes finished jobs whose files have outlived the TTL.
+     */
+    @Scheduled(fixedDelayString = "${app.export.jobs.cleanup-interval:PT1M}")
+    public void purgeExpired() {
+        Instant now = clock.instant();
+        jobs.values().removeIf(job -> {
+            if (job.expiresAt == null || job.expiresAt.isAfter(now)) return false;
+            deleteQuietly(job.file);
+            return true;
+        });
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        if (executor instanceof ExecutorService service) {
+            service.shutdownNow();
+            service.awaitTermination(5, TimeUnit.SECONDS);
+        }
+        jobs.values().forEach(job -> deleteQuietly(job.file));
+        jobs.clear();
+    }
+
+    private Job find(String jobId, Long organizationId) {
+        Job job = jobs.get(jobId);
+        if (job == null || !job.organizationId.equals(organizationId)
+                || (job.expiresAt != null && !job.expiresAt.isAfter(clock.instant()))) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "export.job.notfound");
+        }
+        return job;
+    }
+
+    private void run(Job job) {
+        Path file = null;
+        try {
+            file = Files.createTempFile(directory, "users-", "." + job.format.getExtension());
+            job.totalRows = userExportService.countExportUsers(job.organizationId, job.email);
+            job.status = Status.RUNNING;
+            publish(job);
+            try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(file))) {
+                LongConsumer progress = rows -> progress(job, rows);
+                switch (job.format) {
+                    case XLSX -> userExportService.exportToExcel(job.organizationId, job.email, out, progress);
+                    case PDF -> userExportService.exportToPdf(job.organizationId, job.email, out, progress);
+                    case CSV -> userExportService.exportToCsv(job.organizationId, job.email, out, progress);
+                    case NDJSON -> userExportService.exportToNdjson(job.organizationId, job.email, out, progress);
+                }
+            }
+            job.file = file;
+            job.finish(Status.COMPLETED, clock.instant(), ttl);
+        } catch (IOException | RuntimeException ex) {
+            log.warn("User export job {} failed: {}", job.id, ex.getMessage());
+            deleteQuietly(file);
+            job.finish(Status.FAILED, clock.instant(), ttl);
+        } finally {
+            inFlight.remove(job.key, job);
+        }
+        publish(job);
+    }
+
+    private void progress(Job job, long rows) {
+        job.rowsWritten = rows;
+        if (rows % PROGRESS_ROWS == 0) {
+            publish(job);
+        }
+    }
+
+    private void publish(Job job) {
+        ExportJobDTO dto = job.toDTO();
+        for (Long userId : job.subscribers) {
+            try {
+                messagingTemplate.convertAndSend("/queue/user-" + userId, dto);
+            } catch (RuntimeException ex) {
+                log.debug("Could not push export progress to user {}: {}", userId, ex.getMessage());
+            }
+        }
+    }
+
+    private static void deleteQuietly(Path file) {
+        if (file == null) return;
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException ex) {
+            log.warn("Could not delete export file {}: {}", file, ex.getMessage());
+        }
+    }
+
+    private static ThreadPoolExecutor newExecutor(int threads, int queueCapacity) {
+        AtomicInteger counter = new AtomicInteger();
+        return new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "user-export-" + counter.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                }, new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    /**
+     * Mutable job state. Written by the worker only; volatile so request threads see progress.
+     */
+    private static final class Job {
+        final String id;
+        final String key;
+        final Long organizationId;
+        final UserExportFormat format;
+        final String email;
+        final Instant createdAt;
+        final Set<Long> subscribers = ConcurrentHashMap.newKeySet();
+        volatile Status status = Status.QUEUED;
+        volatile long rowsWritten;
+        volatile long totalRows;
+        volatile Path file;
+        volatile Instant completedAt;
+        volatile Instant expiresAt;
+
+        Job(String id, String key, Long organizationId, UserExportFormat format, String email, Instant createdAt) {
+            this.id = id;
+            this.key = key;
+            this.organizationId = organizationId;
+            this.format = format;
+            this.email = email;
+            this.createdAt = createdAt;
+        }
+
+        void finish(Status result, Instant now, Duration ttl) {
+            completedAt = now;
+            expiresAt = now.plus(ttl);
+            status = result;
+        }
+
+        ExportJobDTO toDTO() {
+            return ExportJobDTO.builder()
+                    .id(id)
+                    .format(format.getExtension())
+                    .status(status)
+                    .rowsWritten(rowsWritten)
+                    .totalRows(totalRows)
+                    .createdAt(createdAt)
+                    .completedAt(completedAt)
+                    .expiresAt(expiresAt)
+                    .build();
+        }
+    }
+}
@@ -1,107 +1,250 @@
 package com.urke.saasbackendstarter.service.impl;
 
-import com.urke.saasbackendstarter.domain.Organization;
-import com.urke.saasbackendstarter.domain.User;
+import com.urke.saasbackendstarter.repository.UserEmailFilter;
 import com.urke.saasbackendstarter.repository.UserRepository;
+import com.urke.saasbackendstarter.repository.UserSummaryRow;
 import com.urke.saasbackendstarter.service.UserExportService;
 import lombok.RequiredArgsConstructor;
+import org.apache.poi.ss.SpreadsheetVersion;
 import org.apache.poi.ss.usermodel.*;
 import org.apache.poi.ss.usermodel.Row;
-import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
 import org.springframework.stereotype.Service;
-import org.springframework.util.StringUtils;
-import org.springframework.web.server.ResponseStatusException;
+import org.springframework.transaction.annotation.Transactional;
 import com.lowagie.text.*;
 import com.lowagie.text.Font;
 import com.lowagie.text.pdf.PdfPCell;
 import com.lowagie.text.pdf.PdfPTable;
 import com.lowagie.text.pdf.PdfWriter;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
 
-import java.io.ByteArrayOutputStream;
-import java.util.List;
-import java.util.stream.Collectors;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.function.LongConsumer;
+import java.util.stream.Stream;
 
 @Service
 @RequiredArgsConstructor
 public class UserExportServiceImpl implements UserExportService {
 
+    /** Rows kept in memory per sheet; older rows are flushed to a compressed temp file. */
+    static final int EXCEL_ROW_WINDOW = 100;
+    private static final int EXCEL_MAX_ROWS = SpreadsheetVersion.EXCEL2007.getMaxRows();
+    private static final String[] HEADERS = {"ID", "Email", "Full Name", "Roles"};
+
+    /** Table rows buffered before they are written out as PDF content. */
+    static final int PDF_CHUNK_ROWS = 500;
+    private static final Font PDF_TITLE_FONT = FontFactory.getFont(FontFactory.HELVETICA_BOLD, 16);
+    private static final Font PDF_HEAD_FONT = FontFactory.getFont(FontFactory.HELVETICA_BOLD, 12);
+    private static final Font PDF_BODY_FONT = FontFactory.getFont(FontFactory.HELVETICA, 12);
+
+    /** Chars buffered before CSV/NDJSON output is encoded and handed to the response stream. */
+    static final int TEXT_BUFFER_CHARS = 64 * 1024;
+    private static final JsonFactory JSON = new JsonFactory()
+            .setRootValueSeparator(null)
+            .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+
     private final UserRepository userRepository;
+    private final UserEmailFilter emailFilter;
 
     @Override
-    public List<User> findExportUsers(Organization org, String email) {
-        if (StringUtils.hasText(email)) {
-            return userRepository.findAllByOrganizationAndDeletedFalse(org).stream()
-                    .filter(u -> u.getEmail().toLowerCase().contains(email.toLowerCase()))
-                    .collect(Collectors.toList());
-        }
-        return userRepository.findAllByOrganizationAndDeletedFalse(org);
+    @Transactional(readOnly = true)
+    public long countExportUsers(Long organizationId, String email) {
+        return userRepository.countSummariesByOrganizationId(organizationId, emailFilter.toPattern(email));
     }
 
     @Override
-    public byte[] exportToExcel(List<User> users) {
-        try (Workbook workbook = new XSSFWorkbook(); ByteArrayOutputStream out = new ByteArrayOutputStream()) {
-            Sheet sheet = workbook.createSheet("Users");
-            Row header = sheet.createRow(0);
-            header.createCell(0).setCellValue("ID");
-            header.createCell(1).setCellValue("Email");
-            header.createCell(2).setCellValue("Full Name");
-            header.createCell(3).setCellValue("Roles");
+    @Transactional(readOnly = true)
+    public void exportToExcel(Long organizationId, String email, OutputStream out) throws IOException {
+        exportToExcel(organizationId, email, out, rows -> { });
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void exportToExcel(Long organizationId, String email, OutputStream out, LongConsumer progress) throws IOException {
+        SXSSFWorkbook workbook = new SXSSFWorkbook(EXCEL_ROW_WINDOW);
+        workbook.setCompressTempFiles(true);
+        try (Stream<UserSummaryRow> rows = userRepository.streamSummariesByOrganizationId(
+                organizationId, emailFilter.toPattern(email))) {
+            Sheet sheet = createSheet(workbook);
             int rowIdx = 1;
-            for (User user : users) {
+            long rowCount = 0;
+            for (Iterator<UserSummaryRow> it = rows.iterator(); it.hasNext(); ) {
+                UserSummaryRow user = it.next();
+                // Continue on a new sheet once the current one is full.
+                if (rowIdx == EXCEL_MAX_ROWS) {
+                    sheet = createSheet(workbook);
+                    rowIdx = 1;
+                }
                 Row row = sheet.createRow(rowIdx++);
-                row.createCell(0).setCellValue(user.getId());
-                row.createCell(1).setCellValue(user.getEmail());
-                row.createCell(2).setCellValue(user.getFullName());
-                row.createCell(3).setCellValue(
-                        user.getRoles().stream().map(r -> r.getName()).collect(Collectors.joining(", "))
-                );
+                row.createCell(0).setCellValue(user.id());
+                row.createCell(1).setCellValue(user.email());
+                row.createCell(2).setCellValue(user.fullName());
+                row.createCell(3).setCellValue(String.join(", ", user.roles()));
+                progress.accept(++rowCount);
             }
             workbook.write(out);
-            return out.toByteArray();
-        } catch (Exception e) {
-            throw new ResponseStatusException(org.springframework.http.HttpStatus.INTERNAL_SERVER_ERROR, "Excel export failed", e);
+        } finally {
+            workbook.dispose();
+            workbook.close();
         }
     }
 
-    @Override
-    public byte[] exportToPdf(List<User> users) {
-        try (ByteArrayOutputStream out = new ByteArrayOutputStream()) {
-            Document document = new Document();
-            PdfWriter.getInstance(document, out);
-            document.open();
+    private static Sheet createSheet(Workbook workbook) {
+        int index = workbook.getNumberOfSheets();
+        Sheet sheet = workbook.createSheet(index == 0 ? "Users" : "Users (" + (index + 1) + ")");
+        Row header = sheet.createRow(0);
+        for (int i = 0; i < HEADERS.length; i++) {
+            header.createCell(i).setCellValue(HEADERS[i]);
+        }
+        return sheet;
+    }
 
-            Font titleFont = FontFactory.getFont(FontFactory.HELVETICA_BOLD, 16);
-            Font headFont = FontFactory.getFont(FontFactory.HELVETICA_BOLD, 12);
+    @Override
+    @Transactional(readOnly = true)
+    public void exportToPdf(Long organizationId, String email, OutputStream out) throws IOException {
+        exportToPdf(organizationId, email, out, rows -> { });
+    }
 
-            Paragraph title = new Paragraph("Users Export", titleFont);
+    @Override
+    @Transactional(readOnly = true)
+    public void exportToPdf(Long organizationId, String email, OutputStream out, LongConsumer progress) throws IOException {
+        Document document = new Document();
+        PdfWriter writer = PdfWriter.getInstance(document, out);
+        writer.setCloseStream(false);
+        document.open();
+        try (Stream<UserSummaryRow> rows = userRepository.streamSummariesByOrganizationId(
+                organizationId, emailFilter.toPattern(email))) {
+            Paragraph title = new Paragraph("Users Export", PDF_TITLE_FONT);
             title.setAlignment(Element.ALIGN_CENTER);
             document.add(title);
             document.add(Chunk.NEWLINE);
 
-            PdfPTable table = new PdfPTable(4);
+            PdfPTable table = new PdfPTable(HEADERS.length);
             table.setWidthPercentage(100f);
             table.setWidths(new int[]{1, 4, 4, 3});
             table.setSpacingBefore(10);
+            table.setHeaderRows(1);
+            // Incomplete table: each document.add writes the finished rows and drops them from memory.
+            table.setComplete(false);
 
-            String[] headers = {"ID", "Email", "Full Name", "Roles"};
-            for (String h : headers) {
-                PdfPCell cell = new PdfPCell(new Phrase(h, headFont));
+            for (String h : HEADERS) {
+                PdfPCell cell = new PdfPCell(new Phrase(h, PDF_HEAD_FONT));
                 cell.setHorizontalAlignment(Element.ALIGN_CENTER);
                 table.addCell(cell);
             }
 
-            for (User user : users) {
-                table.addCell(String.valueOf(user.getId()));
-                table.addCell(user.getEmail());
-                table.addCell(user.getFullName());
-                table.addCell(user.getRoles().stream().map(r -> r.getName()).collect(Collectors.joining(", ")));
+            long rowCount = 0;
+            for (Iterator<UserSummaryRow> it = rows.iterator(); it.hasNext(); ) {
+                UserSummaryRow user = it.next();
+                table.addCell(new Phrase(String.valueOf(user.id()), PDF_BODY_FONT));
+                table.addCell(new Phrase(user.email(), PDF_BODY_FONT));
+                table.addCell(new Phrase(user.fullName(), PDF_BODY_FONT));
+                table.addCell(new Phrase(String.join(", ", user.roles()), PDF_BODY_FONT));
+                progress.accept(++rowCount);
+                if (rowCount % PDF_CHUNK_ROWS == 0) {
+                    document.add(table);
+                }
             }
-
+            table.setComplete(true);
             document.add(table);
+            // Only a complete export gets a trailer. On failure the document is abandoned unclosed, so the
+            // output is not a valid but truncated PDF and the original exception is not replaced by
+            // "The document has no pages".
             document.close();
-            return out.toByteArray();
-        } catch (Exception e) {
-            throw new ResponseStatusException(org.springframework.http.HttpStatus.INTERNAL_SERVER_ERROR, "PDF export failed", e);
         }
     }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void exportToCsv(Long organizationId, String email, OutputStream out) throws IOException {
+        exportToCsv(organizationId, email, out, rows -> { });
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void exportToCsv(Long organizationId, String email, OutputStream out, LongConsumer progress) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), TEXT_BUFFER_CHARS);
+        try (Stream<UserSummaryRow> rows = userRepository.streamSummariesByOrganizationId(
+                organizationId, emailFilter.toPattern(email))) {
+            writer.write(String.join(",", HEADERS));
+            writer.write("\r\n");
+            long rowCount = 0;
+            for (Iterator<UserSummaryRow> it = rows.iterator(); it.hasNext(); ) {
+                UserSummaryRow user = it.next();
+                writer.write(String.valueOf(user.id()));
+                writer.write(',');
+                writeCsvField(writer, user.email());
+                writer.write(',');
+                writeCsvField(writer, user.fullName());
+                writer.write(',');
+                writeCsvField(writer, user.roleNames() != null ? String.join(",", user.roles()) : null);
+                writer.write("\r\n");
+                progress.accept(++rowCount);
+            }
+        }
+        writer.flush();
+    }
+
+    /**
+     * Writes the value, quoted only when it contains a separator, quote or line break.
+     */
+    private static void writeCsvField(Writer writer, String value) throws IOException {
+        if (value == null) return;
+        boolean quote = false;
+        for (int i = 0; i < value.length() && !quote; i++) {
+            char c = value.charAt(i);
+            quote = c == ',' || c == '"' || c == '\r' || c == '\n';
+        }
+        if (!quote) {
+            writer.write(value);
+            return;
+        }
+        writer.write('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"') writer.write('"');
+            writer.write(c);
+        }
+        writer.write('"');
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void exportToNdjson(Long organizationId, String email, OutputStream out) throws IOException {
+        exportToNdjson(organizationId, email, out, rows -> { });
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void exportToNdjson(Long organizationId, String email, OutputStream out, LongConsumer progress) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), TEXT_BUFFER_CHARS);
+        try (Stream<UserSummaryRow> rows = userRepository.streamSummariesByOrganizationId(
+                organizationId, emailFilter.toPattern(email));
+             JsonGenerator json = JSON.createGenerator(writer)) {
+            long rowCount = 0;
+            for (Iterator<UserSummaryRow> it = rows.iterator(); it.hasNext(); ) {
+                UserSummaryRow user = it.next();
+                json.writeStartObject();
+                json.writeNumberField("id", user.id());
+                json.writeStringField("email", user.email());
+                json.writeStringField("fullName", user.fullName());
+                json.writeArrayFieldStart("roles");
+                for (String role : user.roles()) {
+                    json.writeString(role);
+                }
+                json.writeEndArray();
+                json.writeEndObject();
+                json.writeRaw('\n');
+                progress.accept(++rowCount);
+            }
+        }
+        writer.flush();
+    }
 }
\ No newline at end of file
@@ -4,11 +4,14 @@ import com.urke.saasbackendstarter.domain.User;
 import com.urke.saasbackendstarter.domain.Organization;
 import com.urke.saasbackendstarter.domain.Role;
 import com.urke.saasbackendstarter.dto.user.UserCreateRequest;
+import com.urke.saasbackendstarter.dto.user.UserSummary;
 import com.urke.saasbackendstarter.dto.user.UserUpdateRequest;
 import com.urke.saasbackendstarter.events.UserEvent;
 import com.urke.saasbackendstarter.exception.UserAlreadyExistsException;
 import com.urke.saasbackendstarter.exception.UserNotFoundException;
+import com.urke.saasbackendstarter.repository.UserEmailFilter;
 import com.urke.saasbackendstarter.repository.UserRepository;
+import com.urke.saasbackendstarter.repository.UserSummaryRow;
 import com.urke.saasbackendstarter.service.UserService;
 import com.urke.saasbackendstarter.repository.OrganizationRepository;
 import com.urke.saasbackendstarter.repository.RoleRepository;
@@ -16,9 +19,15 @@ import lombok.RequiredArgsConstructor;
 import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.context.MessageSource;
 import org.springframework.context.i18n.LocaleContextHolder;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -31,9 +40,12 @@ public class UserServiceImpl implements UserService {
     private final UserRepository userRepository;
     private final RoleRepository roleRepository;
     private final OrganizationRepository organizationRepository;
-    private final BCryptPasswordEncoder passwordEncoder;
+    private final PasswordEncoder passwordEncoder;
     private final ApplicationEventPublisher eventPublisher;
     private final MessageSource messageSource;
+    private final UserEmailFilter emailFilter;
+
+    private static final Sort SCROLL_SORT = Sort.by("email", "id");
 
     @Override
     @Transactional
@@ -81,6 +93,11 @@ public class UserServiceImpl implements UserService {
         return userRepository.findByIdAndDeletedFalse(id);
     }
 
+    @Override
+    public Optional<User> findDetailsById(Long id) {
+        return userRepository.findWithDetailsByIdAndDeletedFalse(id);
+    }
+
     @Override
     public List<User> findAll() {
         return userRepository.findAllByDeletedFalse();
@@ -98,7 +115,45 @@ public class UserServiceImpl implements UserService {
 
     @Override
     public Page<User> findAllByEmailFilter(String email, Pageable pageable) {
-        return userRepository.findByEmailContainingIgnoreCaseAndDeletedFalse(email, pageable);
+        return userRepository.findByEmailPattern(emailFilter.toPattern(email), pageable);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Page<UserSummary> findSummaries(String email, Pageable pageable) {
+        return userRepository.findSummaries(emailFilter.toPattern(email), sortedByEmail(pageable))
+                .map(UserServiceImpl::toSummary);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Page<UserSummary> findSummariesByOrganization(Long organizationId, String email, Pageable pageable) {
+        return userRepository.findSummariesByOrganizationId(organizationId, emailFilter.toPattern(email), sortedByEmail(pageable))
+                .map(UserServiceImpl::toSummary);
+    }
+
+    @Override
+    public Window<User> scroll(String email, KeysetScrollPosition position, int limit) {
+        Map<String, Object> after = position.getKeys();
+        return toWindow(userRepository.scrollByEmailPattern(emailFilter.toPattern(email),
+                (String) after.get("email"), (Long) after.get("id"), Limit.of(limit + 1)), limit);
+    }
+
+    @Override
+    public Window<User> scrollByOrganization(Long organizationId, String email, KeysetScrollPosition position, int limit) {
+        Map<String, Object> after = position.getKeys();
+        return toWindow(userRepository.scrollByOrganizationIdAndEmailPattern(organizationId, emailFilter.toPattern(email),
+                (String) after.get("email"), (Long) after.get("id"), Limit.of(limit + 1)), limit);
+    }
+
+    @Override
+    public long count(String email) {
+        return userRepository.countByEmailPattern(emailFilter.toPattern(email));
+    }
+
+    @Override
+    public long countByOrganization(Long organizationId, String email) {
+        return userRepository.countSummariesByOrganizationId(organizationId, emailFilter.toPattern(email));
     }
 
     @Override
@@ -129,4 +184,29 @@ public class UserServiceImpl implements UserService {
         userRepository.save(user);
         eventPublisher.publishEvent(new UserEvent(this, UserEvent.Type.DELETED, user));
     }
-}
\ No newline at end of file
+
+    private static Pageable sortedByEmail(Pageable pageable) {
+        if (pageable.getSort().isSorted()) return pageable;
+        return PageRequest.of(pageable.getPageNumber(), pageable.getPageSize(), SCROLL_SORT);
+    }
+
+    /**
+     * Turns up to {@code limit + 1} scrolled rows into a window of at most {@code limit}; the extra row
+     * only tells whether there is a next slice.
+     */
+    private static Window<User> toWindow(List<User> rows, int limit) {
+        boolean hasNext = rows.size() > limit;
+        List<User> content = hasNext ? rows.subList(0, limit) : rows;
+        return Window.from(content, index -> ScrollPosition.forward(
+                Map.of("email", content.get(index).getEmail(), "id", content.get(index).getId())), hasNext);
+    }
+
+    private static UserSummary toSummary(UserSummaryRow row) {
+        return UserSummary.builder()
+                .id(row.id())
+                .email(row.email())
+                .fullName(row.fullName())
+                .roles(new LinkedHashSet<>(row.roles()))
+                .build();
+    }
+}
@@ -1,5 +1,6 @@
 package com.urke.saasbackendstarter.audit;
 
+import com.urke.saasbackendstarter.dto.AuditLogDTO;
 import com.urke.saasbackendstarter.security.JwtTokenProvider;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -42,7 +43,7 @@ class AuditLogControllerTest {
     @WithMockUser(username = "admin@demo.com", roles = {"ADMIN"})
     @DisplayName("Admin can retrieve paginated audit logs")
     void getAllPaged_AsAdmin_ReturnsPagedLogs() throws Exception {
-        AuditLog log1 = AuditLog.builder()
+        AuditLogDTO log1 = AuditLogDTO.builder()
                 .id(1L)
                 .action("LOGIN")
                 .entityType("USER")
@@ -51,7 +52,7 @@ class AuditLogControllerTest {
                 .timestamp(LocalDateTime.now())
                 .actorEmail("admin@demo.com")
                 .build();
-        AuditLog log2 = AuditLog.builder()
+        AuditLogDTO log2 = AuditLogDTO.builder()
                 .id(2L)
                 .action("UPDATE")
                 .entityType("ORG")
@@ -60,9 +61,9 @@ class AuditLogControllerTest {
                 .timestamp(LocalDateTime.now())
                 .actorEmail("admin@demo.com")
                 .build();
-        Page<AuditLog> page = new PageImpl<>(List.of(log1, log2), PageRequest.of(0, 10), 2);
+        Page<AuditLogDTO> page = new PageImpl<>(List.of(log1, log2), PageRequest.of(0, 10), 2);
 
-        Mockito.when(auditLogService.findPagedFiltered(
+        Mockito.when(auditLogService.findDTOsFiltered(
                 any(), any(), any(Pageable.class))
         ).thenReturn(page);
 
@@ -76,6 +77,42 @@ class AuditLogControllerTest {
                 .andExpect(jsonPath("$.totalElements").value(2));
     }
 
+    @Test
+    @WithMockUser(username = "admin@demo.com", roles = {"ADMIN"})
+    @DisplayName("Admin can scroll audit logs by timestamp cursor")
+    void scroll_AsAdmin_ReturnsSliceWithCursor() throws Exception {
+        LocalDateTime timestamp = LocalDateTime.of(2026, 1, 2, 3, 4, 5, 600_000_000);
+        AuditLog log = AuditLog.builder()
+                .id(7L)
+                .action("LOGIN")
+                .entityType("USER")
+                .timestamp(timestamp)
+                .actorEmail("admin@demo.com")
+                .build();
+        Mockito.when(auditLogService.scrollFiltered(any(), any(), eq(ScrollPosition.keyset()), eq(1)))
+                .thenReturn(Window.from(List.of(log), i -> ScrollPosition.offset(i), true));
+
+        String body = mockMvc.perform(get("/api/v1/audit-logs/scroll?size=1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[0].action").value("LOGIN"))
+                .andExpect(jsonPath("$.hasNext").value(true))
+                .andReturn().getResponse().getContentAsString();
+
+        String cursor = com.jayway.jsonpath.JsonPath.read(body, "$.nextCursor");
+        Mockito.when(auditLogService.scrollFiltered(any(), any(), any(KeysetScrollPosition.class), eq(1)))
+                .thenReturn(Window.from(List.of(), i -> ScrollPosition.offset(i), false));
+
+        mockMvc.perform(get("/api/v1/audit-logs/scroll?size=1&cursor=" + cursor))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.hasNext").value(false));
+
+        Mockito.verify(auditLogService).scrollFiltered(any(), any(),
+                argThat(position -> position instanceof KeysetScrollPosition keyset
+                        && timestamp.equals(keyset.getKeys().get("timestamp"))
+                        && Long.valueOf(7L).equals(keyset.getKeys().get("id"))), eq(1));
+        Mockito.verify(auditLogService, Mockito.never()).countFiltered(any(), any());
+    }
+
     @Test
     @WithMockUser(username = "user@demo.com", roles = {"USER"})
     @DisplayName("Non-admin user cannot access audit logs (should return 403 Forbidden)")
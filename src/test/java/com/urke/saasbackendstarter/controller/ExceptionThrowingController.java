@@ -1,5 +1,6 @@
 package com.urke.saasbackendstarter.controller;
 
+import com.urke.saasbackendstarter.exception.PasswordHashingUnavailableException;
 import com.urke.saasbackendstarter.exception.UserAlreadyExistsException;
 import com.urke.saasbackendstarter.exception.UserNotFoundException;
 import org.springframework.web.bind.annotation.*;
@@ -17,4 +18,9 @@ public class ExceptionThrowingController {
     public void throwAlreadyExists() {
         throw new UserAlreadyExistsException("User already exists.");
     }
+
+    @GetMapping("/hashing-busy")
+    public void throwHashingBusy() {
+        throw new PasswordHashingUnavailableException("Password hashing queue is full");
+    }
 }
\ No newline at end of file
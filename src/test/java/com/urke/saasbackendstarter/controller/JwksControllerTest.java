@@ -0,0 +1,63 @@
+package com.urke.saasbackendstarter.controller;
+
+import com.urke.saasbackendstarter.security.JwtTokenProvider;
+import com.urke.saasbackendstarter.security.SecurityConfig;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.security.KeyPairGenerator;
+import java.security.PublicKey;
+import java.security.spec.ECGenParameterSpec;
+import java.util.Map;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.is;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest(JwksController.class)
+@Import(SecurityConfig.class)
+class JwksControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private JwtTokenProvider jwtTokenProvider;
+
+    @MockBean
+    private UserDetailsService userDetailsService;
+
+    @Test
+    @DisplayName("Should publish public keys anonymously with cache headers")
+    void getJwks_ReturnsKeySet() throws Exception {
+        KeyPairGenerator generator = KeyPairGenerator.getInstance("EC");
+        generator.initialize(new ECGenParameterSpec("secp256r1"));
+        PublicKey publicKey = generator.generateKeyPair().getPublic();
+        when(jwtTokenProvider.getPublicKeys()).thenReturn(Map.of("k1", publicKey));
+
+        mockMvc.perform(get("/.well-known/jwks.json"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Cache-Control", containsString("max-age=900")))
+                .andExpect(jsonPath("$.keys[0].kid", is("k1")))
+                .andExpect(jsonPath("$.keys[0].kty", is("EC")))
+                .andExpect(jsonPath("$.keys[0].crv", is("P-256")))
+                .andExpect(jsonPath("$.keys[0].use", is("sig")));
+    }
+
+    @Test
+    @DisplayName("Should return 404 when tokens are HMAC-signed")
+    void getJwks_HmacMode_ReturnsNotFound() throws Exception {
+        when(jwtTokenProvider.getPublicKeys()).thenReturn(Map.of());
+
+        mockMvc.perform(get("/.well-known/jwks.json"))
+                .andExpect(status().isNotFound());
+    }
+}
@@ -23,6 +23,8 @@ import java.util.Locale;
 
 import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.Mockito.doNothing;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -81,18 +83,12 @@ class OrganizationControllerTest {
     @WithMockUser(username = "admin@demo.com", roles = {"ADMIN"})
     @DisplayName("GET /api/v1/organizations - get all paged - no filter")
     void getAllPaged_NoFilter() throws Exception {
-        Organization org1 = Organization.builder().id(1L).name("Org1").slug("org1").build();
-        Organization org2 = Organization.builder().id(2L).name("Org2").slug("org2").build();
-
         OrganizationSummary sum1 = OrganizationSummary.builder().id(1L).name("Org1").slug("org1").build();
         OrganizationSummary sum2 = OrganizationSummary.builder().id(2L).name("Org2").slug("org2").build();
 
-        Page<Organization> orgPage = new PageImpl<>(List.of(org1, org2), PageRequest.of(0, 10), 2);
         Page<OrganizationSummary> sumPage = new PageImpl<>(List.of(sum1, sum2), PageRequest.of(0, 10), 2);
 
-        when(organizationService.findAll(any(Pageable.class))).thenReturn(orgPage);
-        when(organizationMapper.toSummary(org1)).thenReturn(sum1);
-        when(organizationMapper.toSummary(org2)).thenReturn(sum2);
+        when(organizationService.findSummaries(isNull(), any(Pageable.class))).thenReturn(sumPage);
 
         mockMvc.perform(get("/api/v1/organizations?page=0&size=10"))
                 .andExpect(status().isOk())
@@ -105,19 +101,62 @@ class OrganizationControllerTest {
     @WithMockUser(username = "admin@demo.com", roles = {"ADMIN"})
     @DisplayName("GET /api/v1/organizations - get all paged - with name filter")
     void getAllPaged_WithNameFilter() throws Exception {
-        Organization org1 = Organization.builder().id(1L).name("Org1").slug("org1").build();
         OrganizationSummary sum1 = OrganizationSummary.builder().id(1L).name("Org1").slug("org1").build();
 
-        Page<Organization> orgPage = new PageImpl<>(List.of(org1), PageRequest.of(0, 10), 1);
+        Page<OrganizationSummary> sumPage = new PageImpl<>(List.of(sum1), PageRequest.of(0, 10), 1);
 
-        when(organizationService.findAllByNameFilter(eq("Org1"), any(Pageable.class))).thenReturn(orgPage);
-        when(organizationMapper.toSummary(org1)).thenReturn(sum1);
+        when(organizationService.findSummaries(eq("Org1"), any(Pageable.class))).thenReturn(sumPage);
 
         mockMvc.perform(get("/api/v1/organizations?name=Org1"))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.content[0].name").value("Org1"));
     }
 
+    @Test
+    @WithMockUser(username = "admin@demo.com", roles = {"ADMIN"})
+    @DisplayName("GET /api/v1/organizations/scroll - cursor from one slice seeks past its last row")
+    void scroll_CursorRoundTrip() throws Exception {
+        Organization org1 = Organization.builder().id(1L).name("Acme").slug("acme").build();
+        Organization org2 = Organization.builder().id(2L).name("Beta: Labs").slug("beta-labs").build();
+        OrganizationSummary sum1 = OrganizationSummary.builder().id(1L).name("Acme").slug("acme").build();
+        OrganizationSummary sum2 = OrganizationSummary.builder().id(2L).name("Beta: Labs").slug("beta-labs").build();
+
+        when(organizationService.scroll(isNull(), eq(ScrollPosition.keyset()), eq(2)))
+                .thenReturn(Window.from(List.of(org1, org2), i -> ScrollPosition.offset(i), true));
+        when(organizationMapper.toSummary(org1)).thenReturn(sum1);
+        when(organizationMapper.toSummary(org2)).thenReturn(sum2);
+
+        String body = mockMvc.perform(get("/api/v1/organizations/scroll?size=2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[1].name").value("Beta: Labs"))
+                .andExpect(jsonPath("$.hasNext").value(true))
+                .andExpect(jsonPath("$.nextCursor").isString())
+                .andExpect(jsonPath("$.totalElements").doesNotExist())
+                .andReturn().getResponse().getContentAsString();
+        verify(organizationService, never()).count(any());
+
+        String cursor = com.jayway.jsonpath.JsonPath.read(body, "$.nextCursor");
+        KeysetScrollPosition expected = ScrollPosition.forward(
+                new java.util.LinkedHashMap<>(java.util.Map.of("name", "Beta: Labs", "id", 2L)));
+        when(organizationService.scroll(isNull(), eq(expected), eq(2)))
+                .thenReturn(Window.from(List.of(), i -> ScrollPosition.offset(i), false));
+        when(organizationService.count(isNull())).thenReturn(2L);
+
+        mockMvc.perform(get("/api/v1/organizations/scroll?size=2&includeTotal=true&cursor=" + cursor))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content").isEmpty())
+                .andExpect(jsonPath("$.hasNext").value(false))
+                .andExpect(jsonPath("$.totalElements").value(2));
+    }
+
+    @Test
+    @WithMockUser(username = "admin@demo.com", roles = {"ADMIN"})
+    @DisplayName("GET /api/v1/organizations/scroll - malformed cursor is rejected with 400")
+    void scroll_InvalidCursor_BadRequest() throws Exception {
+        mockMvc.perform(get("/api/v1/organizations/scroll?cursor=not-a-cursor"))
+                .andExpect(status().isBadRequest());
+    }
+
     @Test
     @WithMockUser(username = "admin@demo.com", roles = {"ADMIN"})
     @DisplayName("DELETE /api/v1/organizations/{id} - admin can delete")
@@ -3,6 +3,7 @@ package com.urke.saasbackendstarter.controller;
 import com.urke.saasbackendstarter.domain.Permission;
 import com.urke.saasbackendstarter.domain.Role;
 import com.urke.saasbackendstarter.domain.Organization;
+import com.urke.saasbackendstarter.mapper.RoleMapper;
 import com.urke.saasbackendstarter.repository.PermissionRepository;
 import com.urke.saasbackendstarter.repository.OrganizationRepository;
 import com.urke.saasbackendstarter.service.RoleService;
@@ -24,6 +25,8 @@ import java.util.Set;
 import java.util.Optional;
 
 import static org.hamcrest.Matchers.*;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.mockito.ArgumentMatchers.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
@@ -60,9 +63,8 @@ class RoleControllerTest {
         Organization org = Organization.builder().id(orgId).name("Demo Org").slug("demo-org").build();
         Permission p1 = Permission.builder().id(1L).name("USER_VIEW_ALL").organization(org).build();
         Role r1 = Role.builder().id(10L).name("ADMIN").organization(org).permissions(Set.of(p1)).build();
-        List<Role> roles = List.of(r1);
 
-        when(roleService.findAllByOrganizationId(orgId)).thenReturn(roles);
+        when(roleService.findDTOsByOrganizationId(orgId)).thenReturn(List.of(RoleMapper.toDTO(r1)));
 
         mockMvc.perform(get("/api/v1/roles/organization/{organizationId}", orgId)
                         .contentType(MediaType.APPLICATION_JSON))
@@ -135,4 +137,22 @@ class RoleControllerTest {
                         .content(requestBody))
                 .andExpect(status().isForbidden());
     }
-}
\ No newline at end of file
+
+    @Test
+    @WithMockUser(roles = "ADMIN")
+    @DisplayName("Should reject role names with control characters")
+    void createRole_ControlCharacterInName_BadRequest() throws Exception {
+        String requestBody = """
+            {
+                "name": "OPS\\u001fREAD",
+                "organizationId": 1
+            }
+        """;
+        mockMvc.perform(post("/api/v1/roles")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(requestBody))
+                .andExpect(status().isBadRequest());
+
+        verify(roleService, never()).save(any(Role.class));
+    }
+}
@@ -7,6 +7,7 @@ import com.urke.saasbackendstarter.mapper.UserMapper;
 import com.urke.saasbackendstarter.service.UserExportService;
 import com.urke.saasbackendstarter.service.UserService;
 import com.urke.saasbackendstarter.security.CurrentUserProvider;
+import com.urke.saasbackendstarter.security.CustomUserDetails;
 import com.urke.saasbackendstarter.security.JwtTokenProvider;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -16,16 +17,44 @@ import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.context.MessageSource;
 import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Window;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 
+import com.urke.saasbackendstarter.dto.user.UserSummary;
+
+import java.io.ByteArrayInputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
+import java.util.zip.GZIPInputStream;
 
 import static org.mockito.ArgumentMatchers.eq;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.when;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @WebMvcTest(UserController.class)
@@ -86,10 +115,206 @@ class UserControllerTest {
                 .deleted(false)
                 .build();
 
-        when(userService.findByEmail(eq("user1@demo.com"))).thenReturn(Optional.of(currentUser));
+        when(currentUserProvider.getCurrentPrincipal()).thenReturn(new CustomUserDetails(currentUser));
         when(userService.findById(eq(22L))).thenReturn(Optional.of(targetUser));
 
         mockMvc.perform(delete("/api/v1/users/22"))
             .andExpect(status().isForbidden());
     }
-}
\ No newline at end of file
+
+    @Test
+    @WithMockUser(username = "viewer@demo.com", authorities = {"USER_VIEW_ALL"})
+    @DisplayName("Non-admin listing is paged and filtered in the database for the user's own organization")
+    void getAllPaged_NonAdmin_UsesOrgScopedPagedQuery() throws Exception {
+        Organization org1 = Organization.builder().id(1L).name("Org1").build();
+        Role userRole = Role.builder().id(1L).name("USER").build();
+        User currentUser = User.builder()
+                .id(11L)
+                .email("viewer@demo.com")
+                .roles(Set.of(userRole))
+                .organization(org1)
+                .build();
+        UserSummary summary = UserSummary.builder().id(12L).email("ann@demo.com").roles(Set.of("USER")).build();
+
+        when(currentUserProvider.getCurrentPrincipal()).thenReturn(new CustomUserDetails(currentUser));
+        when(userService.findSummariesByOrganization(eq(1L), eq("ann"), eq(PageRequest.of(2, 5))))
+                .thenReturn(new PageImpl<>(List.of(summary), PageRequest.of(2, 5), 11));
+
+        mockMvc.perform(get("/api/v1/users?page=2&size=5&email=ann"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.content[0].email").value("ann@demo.com"))
+            .andExpect(jsonPath("$.totalElements").value(11));
+
+        verify(userService, never()).findAllByOrganization(any());
+        verify(currentUserProvider, never()).getCurrentUser();
+    }
+
+    @Test
+    @WithMockUser(username = "admin@demo.com", roles = {"ADMIN"})
+    @DisplayName("Admin listing reads summary projections across all organizations")
+    void getAllPaged_Admin_UsesSummaryProjection() throws Exception {
+        Role adminRole = Role.builder().id(1L).name("ADMIN").build();
+        User currentUser = User.builder()
+                .id(1L)
+                .email("admin@demo.com")
+                .roles(Set.of(adminRole))
+                .organization(Organization.builder().id(1L).build())
+                .build();
+        UserSummary summary = UserSummary.builder().id(12L).email("ann@other.com").roles(Set.of("ADMIN", "USER")).build();
+
+        when(currentUserProvider.getCurrentPrincipal()).thenReturn(new CustomUserDetails(currentUser));
+        when(userService.findSummaries(isNull(), eq(PageRequest.of(0, 10))))
+                .thenReturn(new PageImpl<>(List.of(summary), PageRequest.of(0, 10), 1));
+
+        mockMvc.perform(get("/api/v1/users"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.content[0].email").value("ann@other.com"))
+            .andExpect(jsonPath("$.content[0].roles.length()").value(2));
+
+        verify(userService, never()).findAll(any(Pageable.class));
+    }
+
+    @Test
+    @WithMockUser(username = "viewer@demo.com", authorities = {"USER_VIEW_ALL"})
+    @DisplayName("CSV export is gzip-encoded when the client accepts gzip")
+    void exportUsers_Csv_GzipEncodedWhenAccepted() throws Exception {
+        when(currentUserProvider.getCurrentOrganization()).thenReturn(Organization.builder().id(1L).build());
+        doAnswer(invocation -> {
+            OutputStream out = invocation.getArgument(2);
+            out.write("ID,Email\r\n1,ann@demo.com\r\n".getBytes(StandardCharsets.UTF_8));
+            return null;
+        }).when(userExportService).exportToCsv(eq(1L), isNull(), any(OutputStream.class));
+
+        MvcResult started = mockMvc.perform(get("/api/v1/users/export?format=csv")
+                        .header(HttpHeaders.ACCEPT_ENCODING, "gzip, deflate"))
+            .andExpect(request().asyncStarted())
+            .andReturn();
+        MvcResult result = mockMvc.perform(asyncDispatch(started))
+            .andExpect(status().isOk())
+            .andExpect(header().string(HttpHeaders.CONTENT_ENCODING, "gzip"))
+            .andExpect(header().string(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=users.csv"))
+            .andReturn();
+
+        byte[] body = result.getResponse().getContentAsByteArray();
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(body))) {
+            assertThat(new String(in.readAllBytes(), StandardCharsets.UTF_8)).isEqualTo("ID,Email\r\n1,ann@demo.com\r\n");
+        }
+    }
+
+    @Test
+    @WithMockUser(username = "viewer@demo.com", authorities = {"USER_VIEW_ALL"})
+    @DisplayName("NDJSON export is sent uncompressed when the client does not accept gzip")
+    void exportUsers_Ndjson_PlainWithoutAcceptEncoding() throws Exception {
+        when(currentUserProvider.getCurrentOrganization()).thenReturn(Organization.builder().id(1L).build());
+
+        MvcResult started = mockMvc.perform(get("/api/v1/users/export?format=ndjson&email=ann"))
+            .andExpect(request().asyncStarted())
+            .andReturn();
+        mockMvc.perform(asyncDispatch(started))
+            .andExpect(status().isOk())
+            .andExpect(header().doesNotExist(HttpHeaders.CONTENT_ENCODING))
+            .andExpect(header().string(HttpHeaders.CONTENT_TYPE, "application/x-ndjson"));
+
+        verify(userExportService).exportToNdjson(eq(1L), eq("ann"), any(OutputStream.class));
+    }
+
+    @Test
+    @WithMockUser(username = "admin@demo.com", roles = {"ADMIN"})
+    @DisplayName("Admin scroll reads across organizations with the email filter and returns a next cursor")
+    void scroll_Admin_ScrollsAllOrganizations() throws Exception {
+        Role adminRole = Role.builder().id(1L).name("ADMIN").build();
+        User currentUser = User.builder().id(1L).email("admin@demo.com").roles(Set.of(adminRole))
+                .organization(Organization.builder().id(1L).build()).build();
+        User ann = User.builder().id(12L).email("ann@other.com").build();
+        User bob = User.builder().id(13L).email("ann.bob@demo.com").build();
+
+        when(currentUserProvider.getCurrentPrincipal()).thenReturn(new CustomUserDetails(currentUser));
+        when(userService.scroll(eq("ann"), eq(ScrollPosition.keyset()), eq(2)))
+                .thenReturn(Window.from(List.of(ann, bob), ScrollPosition::offset, true));
+        when(userMapper.toSummary(any(User.class))).thenAnswer(invocation -> {
+            User user = invocation.getArgument(0);
+            return UserSummary.builder().id(user.getId()).email(user.getEmail()).build();
+        });
+
+        mockMvc.perform(get("/api/v1/users/scroll?size=2&email=ann"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.content.length()").value(2))
+            .andExpect(jsonPath("$.content[1].email").value("ann.bob@demo.com"))
+            .andExpect(jsonPath("$.hasNext").value(true))
+            .andExpect(jsonPath("$.nextCursor").value(cursor(13L, "ann.bob@demo.com")))
+            .andExpect(jsonPath("$.totalElements").doesNotExist());
+
+        verify(userService, never()).count(any());
+        verify(userService, never()).scrollByOrganization(any(), any(), any(), Mockito.anyInt());
+    }
+
+    @Test
+    @WithMockUser(username = "admin@demo.com", roles = {"ADMIN"})
+    @DisplayName("Admin scroll with includeTotal counts the filtered users and clamps the size")
+    void scroll_Admin_IncludeTotalCountsFilteredUsers() throws Exception {
+        Role adminRole = Role.builder().id(1L).name("ADMIN").build();
+        User currentUser = User.builder().id(1L).email("admin@demo.com").roles(Set.of(adminRole))
+                .organization(Organization.builder().id(1L).build()).build();
+
+        when(currentUserProvider.getCurrentPrincipal()).thenReturn(new CustomUserDetails(currentUser));
+        when(userService.scroll(eq("ann"), eq(ScrollPosition.keyset()), eq(100)))
+                .thenReturn(Window.from(List.of(), ScrollPosition::offset, false));
+        when(userService.count("ann")).thenReturn(42L);
+
+        mockMvc.perform(get("/api/v1/users/scroll?size=500&email=ann&includeTotal=true"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.hasNext").value(false))
+            .andExpect(jsonPath("$.nextCursor").doesNotExist())
+            .andExpect(jsonPath("$.totalElements").value(42));
+
+        verify(userService, never()).countByOrganization(any(), any());
+    }
+
+    @Test
+    @WithMockUser(username = "viewer@demo.com", authorities = {"USER_VIEW_ALL"})
+    @DisplayName("Non-admin scroll resumes from the cursor within the user's organization with the email filter")
+    void scroll_NonAdmin_OrganizationScopedFromCursor() throws Exception {
+        Organization org1 = Organization.builder().id(1L).name("Org1").build();
+        Role userRole = Role.builder().id(1L).name("USER").build();
+        User currentUser = User.builder().id(11L).email("viewer@demo.com").roles(Set.of(userRole))
+                .organization(org1).build();
+        User carl = User.builder().id(14L).email("carl@demo.com").build();
+        KeysetScrollPosition after = ScrollPosition.forward(Map.of("email", "bob@demo.com", "id", 13L));
+
+        when(currentUserProvider.getCurrentPrincipal()).thenReturn(new CustomUserDetails(currentUser));
+        when(userService.scrollByOrganization(eq(1L), eq("ann"), eq(after), eq(10)))
+                .thenReturn(Window.from(List.of(carl), ScrollPosition::offset, false));
+        when(userService.countByOrganization(1L, "ann")).thenReturn(3L);
+        when(userMapper.toSummary(carl)).thenReturn(UserSummary.builder().id(14L).email("carl@demo.com").build());
+
+        mockMvc.perform(get("/api/v1/users/scroll")
+                        .param("cursor", cursor(13L, "bob@demo.com"))
+                        .param("email", "ann")
+                        .param("includeTotal", "true"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.content[0].email").value("carl@demo.com"))
+            .andExpect(jsonPath("$.hasNext").value(false))
+            .andExpect(jsonPath("$.totalElements").value(3));
+
+        verify(userService, never()).scroll(any(), any(), Mockito.anyInt());
+        verify(userService, never()).count(any());
+    }
+
+    @Test
+    @WithMockUser(username = "viewer@demo.com", authorities = {"USER_VIEW_ALL"})
+    @DisplayName("Scroll with a malformed cursor returns 400")
+    void scroll_InvalidCursor_BadRequest() throws Exception {
+        Role userRole = Role.builder().id(1L).name("USER").build();
+        when(currentUserProvider.getCurrentPrincipal()).thenReturn(new CustomUserDetails(User.builder().id(11L).roles(Set.of(userRole))
+                .organization(Organization.builder().id(1L).build()).build()));
+
+        mockMvc.perform(get("/api/v1/users/scroll?cursor=not-a-cursor"))
+            .andExpect(status().isBadRequest());
+
+        verify(userService, never()).scrollByOrganization(any(), any(), any(), Mockito.anyInt());
+    }
+
+    private static String cursor(Long id, String email) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString((id + ":" + email).getBytes(StandardCharsets.UTF_8));
+    }
+}
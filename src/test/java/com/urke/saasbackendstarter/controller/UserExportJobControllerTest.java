@@ -0,0 +1,106 @@
+package com.urke.saasbackendstarter.controller;
+
+import com.urke.saasbackendstarter.domain.Organization;
+import com.urke.saasbackendstarter.dto.ExportJobDTO;
+import com.urke.saasbackendstarter.security.CurrentUserProvider;
+import com.urke.saasbackendstarter.security.CustomUserDetails;
+import com.urke.saasbackendstarter.security.JwtTokenProvider;
+import com.urke.saasbackendstarter.service.UserExportJobService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.Set;
+
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@WebMvcTest(UserExportJobController.class)
+@Import(com.urke.saasbackendstarter.security.SecurityConfig.class)
+class UserExportJobControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private UserExportJobService userExportJobService;
+
+    @MockBean
+    private CurrentUserProvider currentUserProvider;
+
+    @MockBean
+    private JwtTokenProvider jwtTokenProvider;
+
+    @MockBean
+    private org.springframework.security.core.userdetails.UserDetailsService userDetailsService;
+
+    @BeforeEach
+    void setUp() {
+        when(currentUserProvider.getCurrentPrincipal()).thenReturn(
+                new CustomUserDetails(11L, "viewer@demo.com", null, 1L, Set.of("USER"), Set.of("USER_VIEW_ALL")));
+        when(currentUserProvider.getCurrentOrganization()).thenReturn(Organization.builder().id(1L).build());
+    }
+
+    @Test
+    @WithMockUser(username = "viewer@demo.com", authorities = {"USER_VIEW_ALL"})
+    @DisplayName("Submitting an export queues a job for the user's organization and returns 202")
+    void submit_ReturnsAccepted() throws Exception {
+        when(userExportJobService.submit(11L, 1L, "xlsx", null)).thenReturn(
+                ExportJobDTO.builder().id("job-1").format("xlsx").status(ExportJobDTO.Status.QUEUED).build());
+
+        mockMvc.perform(post("/api/v1/users/export/jobs").param("format", "xlsx"))
+                .andExpect(status().isAccepted())
+                .andExpect(jsonPath("$.id").value("job-1"))
+                .andExpect(jsonPath("$.status").value("QUEUED"));
+    }
+
+    @Test
+    @WithMockUser(username = "viewer@demo.com", authorities = {"USER_VIEW_ALL"})
+    @DisplayName("A completed export is downloaded with the content type of its format")
+    void download_ReturnsFile() throws Exception {
+        when(userExportJobService.getJob("job-1", 1L)).thenReturn(
+                ExportJobDTO.builder().id("job-1").format("pdf").status(ExportJobDTO.Status.COMPLETED).build());
+        when(userExportJobService.getResult("job-1", 1L)).thenReturn(new ByteArrayResource("%PDF".getBytes()));
+
+        mockMvc.perform(get("/api/v1/users/export/jobs/job-1/download"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CONTENT_TYPE, "application/pdf"))
+                .andExpect(header().string(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=users.pdf"))
+                .andExpect(content().string("%PDF"));
+    }
+
+    @Test
+    @WithMockUser(username = "viewer@demo.com", authorities = {"USER_VIEW_ALL"})
+    @DisplayName("A full export queue is reported as 503")
+    void submit_QueueFull_ReturnsServiceUnavailable() throws Exception {
+        when(userExportJobService.submit(11L, 1L, "pdf", null))
+                .thenThrow(new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "export.busy"));
+
+        mockMvc.perform(post("/api/v1/users/export/jobs").param("format", "pdf"))
+                .andExpect(status().isServiceUnavailable());
+    }
+
+    @Test
+    @WithMockUser(username = "user@demo.com", roles = {"USER"})
+    @DisplayName("Users without USER_VIEW_ALL cannot start exports")
+    void submit_WithoutPermission_ReturnsForbidden() throws Exception {
+        mockMvc.perform(post("/api/v1/users/export/jobs").param("format", "pdf"))
+                .andExpect(status().isForbidden());
+    }
+}
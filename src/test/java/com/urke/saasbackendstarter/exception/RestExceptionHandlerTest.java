@@ -56,4 +56,17 @@ class RestExceptionHandlerTest {
                 .andExpect(jsonPath("$.status").value("user_exists"))
                 .andExpect(jsonPath("$.message").value("User already exists (localized)"));
     }
-}
\ No newline at end of file
+
+    @Test
+    @DisplayName("PasswordHashingUnavailableException handled with 503 and Retry-After")
+    void passwordHashingUnavailableReturns503() throws Exception {
+        given(messageSource.getMessage(eq("password.hashing.busy"), any(), any(Locale.class)))
+                .willReturn("Service busy (localized)");
+
+        mockMvc.perform(get("/test-ex/hashing-busy"))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(header().string("Retry-After", "1"))
+                .andExpect(jsonPath("$.status").value("service_unavailable"))
+                .andExpect(jsonPath("$.message").value("Service busy (localized)"));
+    }
+}
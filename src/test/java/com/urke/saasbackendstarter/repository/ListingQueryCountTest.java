@@ -0,0 +1,236 @@
+package com.urke.saasbackendstarter.repository;
+
+import com.urke.saasbackendstarter.audit.AuditLog;
+import com.urke.saasbackendstarter.audit.AuditLogRepository;
+import com.urke.saasbackendstarter.domain.Organization;
+import com.urke.saasbackendstarter.domain.Permission;
+import com.urke.saasbackendstarter.domain.Role;
+import com.urke.saasbackendstarter.domain.User;
+import com.urke.saasbackendstarter.dto.AuditLogDTO;
+import com.urke.saasbackendstarter.dto.organization.OrganizationSummary;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Checks that the listing projections cost a fixed number of SQL statements per page,
+ * no matter how many rows the page holds (no N+1 through the role/permission graph).
+ * H2 runs with {@code IGNORECASE}, so text columns compare case-insensitively as with MariaDB's default collation.
+ */
+@DataJpaTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:listing;IGNORECASE=TRUE;DB_CLOSE_DELAY=-1",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "spring.jpa.properties.hibernate.auto_quote_keyword=true"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+class ListingQueryCountTest {
+
+    private static final int USERS = 30;
+    private static final UserEmailFilter CONTAINS = new UserEmailFilter("contains");
+    private static final UserEmailFilter PREFIX = new UserEmailFilter("prefix");
+
+    @Autowired private TestEntityManager entityManager;
+    @Autowired private EntityManagerFactory entityManagerFactory;
+    @Autowired private UserRepository userRepository;
+    @Autowired private OrganizationRepository organizationRepository;
+    @Autowired private RoleRepository roleRepository;
+    @Autowired private AuditLogRepository auditLogRepository;
+
+    private Organization organization;
+    private Statistics statistics;
+
+    @BeforeEach
+    void seed() {
+        organization = entityManager.persist(Organization.builder().name("Acme").slug("acme").build());
+        Permission view = entityManager.persist(Permission.builder().name("USER_VIEW_ALL").organization(organization).build());
+        Permission manage = entityManager.persist(Permission.builder().name("ORG_MANAGE").organization(organization).build());
+        Role admin = entityManager.persist(Role.builder().name("ADMIN").organization(organization).permissions(Set.of(view, manage)).build());
+        Role user = entityManager.persist(Role.builder().name("USER").organization(organization).permissions(Set.of(view)).build());
+        entityManager.persist(Role.builder().name("GUEST").organization(organization).permissions(Set.of()).build());
+
+        for (int i = 0; i < USERS; i++) {
+            entityManager.persist(User.builder()
+                    .email(String.format("user%02d@acme.com", i))
+                    .password("{noop}secret")
+                    .fullName("User " + i)
+                    .organization(organization)
+                    .roles(i % 3 == 0 ? Set.of(admin, user) : Set.of(user))
+                    .build());
+            entityManager.persist(AuditLog.builder()
+                    .action("LOGIN")
+                    .entityType("USER")
+                    .entityId((long) i)
+                    .timestamp(LocalDateTime.now())
+                    .actorEmail("admin@acme.com")
+                    .organization(organization)
+                    .build());
+        }
+        entityManager.flush();
+        entityManager.clear();
+
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {5, 25})
+    @DisplayName("User summaries: one select plus one count per page, roles included")
+    void userSummaries_fixedStatementCount(int size) {
+        Page<UserSummaryRow> page = userRepository.findSummariesByOrganizationId(
+                organization.getId(), null, PageRequest.of(0, size, Sort.by("email", "id")));
+
+        assertThat(page.getContent()).hasSize(size);
+        assertThat(page.getTotalElements()).isEqualTo(USERS);
+        assertThat(page.getContent().get(0).roles()).containsExactly("ADMIN", "USER");
+        assertThat(page.getContent().get(1).roles()).containsExactly("USER");
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+        assertThat(statistics.getEntityLoadCount()).isZero();
+    }
+
+    @Test
+    @DisplayName("User summaries: email filter is applied to both the page and the count")
+    void userSummaries_emailFilter() {
+        Page<UserSummaryRow> page = userRepository.findSummaries(CONTAINS.toPattern("USER1"), PageRequest.of(0, 5, Sort.by("email")));
+
+        assertThat(page.getTotalElements()).isEqualTo(10);
+        assertThat(page.getContent()).extracting(UserSummaryRow::email).first().isEqualTo("user10@acme.com");
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Email filter: LIKE wildcards in the input match literally, prefix mode anchors at the start")
+    void emailFilter_escapesWildcardsAndSupportsPrefixMode() {
+        assertThat(userRepository.countSummariesByOrganizationId(organization.getId(), CONTAINS.toPattern("USER_0"))).isZero();
+        assertThat(userRepository.countSummariesByOrganizationId(organization.getId(), CONTAINS.toPattern("0@"))).isEqualTo(3);
+        assertThat(userRepository.countSummariesByOrganizationId(organization.getId(), PREFIX.toPattern("0"))).isZero();
+        assertThat(userRepository.countSummariesByOrganizationId(organization.getId(), PREFIX.toPattern("User0"))).isEqualTo(10);
+    }
+
+    @Test
+    @DisplayName("User summaries: role names containing commas are kept whole")
+    void userSummaries_roleNamesWithCommas() {
+        Role opsRead = entityManager.persist(Role.builder().name("Ops,Read").organization(organization).permissions(Set.of()).build());
+        User user = entityManager.persist(User.builder()
+                .email("ops@acme.com")
+                .password("{noop}secret")
+                .fullName("Ops")
+                .organization(organization)
+                .roles(Set.of(opsRead))
+                .build());
+        entityManager.flush();
+
+        try (Stream<UserSummaryRow> rows = userRepository.streamSummariesByOrganizationId(organization.getId(), CONTAINS.toPattern("ops@"))) {
+            assertThat(rows.toList()).singleElement()
+                    .satisfies(row -> assertThat(row.id()).isEqualTo(user.getId()))
+                    .extracting(UserSummaryRow::roles).asList().containsExactly("Ops,Read");
+        }
+    }
+
+    @Test
+    @DisplayName("Email filter: emails stored in mixed case match through the case-insensitive collation")
+    void emailFilter_caseInsensitiveForMixedCaseEmails() {
+        entityManager.persist(User.builder()
+                .email("Mixed.Case@Acme.com")
+                .password("{noop}secret")
+                .fullName("Mixed Case")
+                .organization(organization)
+                .build());
+        entityManager.flush();
+
+        assertThat(userRepository.countSummariesByOrganizationId(organization.getId(), CONTAINS.toPattern("mixed.case"))).isEqualTo(1);
+        assertThat(userRepository.countSummariesByOrganizationId(organization.getId(), PREFIX.toPattern("MIXED"))).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("User scroll: the email filter and the keyset position are applied in the same query")
+    void userScroll_emailFilter() {
+        List<User> first = userRepository.scrollByOrganizationIdAndEmailPattern(
+                organization.getId(), CONTAINS.toPattern("USER1"), null, null, Limit.of(4));
+        User last = first.get(first.size() - 1);
+        List<User> second = userRepository.scrollByOrganizationIdAndEmailPattern(
+                organization.getId(), CONTAINS.toPattern("USER1"), last.getEmail(), last.getId(), Limit.of(10));
+
+        assertThat(first).extracting(User::getEmail)
+                .containsExactly("user10@acme.com", "user11@acme.com", "user12@acme.com", "user13@acme.com");
+        assertThat(second).extracting(User::getEmail).hasSize(6).first().isEqualTo("user14@acme.com");
+        assertThat(userRepository.countByEmailPattern(PREFIX.toPattern("user1"))).isEqualTo(10);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(3);
+    }
+
+    @Test
+    @DisplayName("Export stream: all matching rows in id order from a single statement")
+    void exportStream_singleStatement() {
+        List<UserSummaryRow> rows;
+        try (Stream<UserSummaryRow> stream = userRepository.streamSummariesByOrganizationId(organization.getId(), CONTAINS.toPattern("user2"))) {
+            rows = stream.toList();
+        }
+
+        assertThat(rows).hasSize(10);
+        assertThat(rows).extracting(UserSummaryRow::id).isSorted();
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Organization summaries: one select plus one count, no entities loaded")
+    void organizationSummaries_fixedStatementCount() {
+        entityManager.persist(Organization.builder().name("Beta").slug("beta").build());
+        entityManager.flush();
+        statistics.clear();
+
+        // A full first page, so the count query is not skipped.
+        Page<OrganizationSummary> page = organizationRepository.findSummaries(null, PageRequest.of(0, 1, Sort.by("name")));
+
+        assertThat(page.getContent()).extracting(OrganizationSummary::getSlug).containsExactly("acme");
+        assertThat(page.getTotalElements()).isEqualTo(2);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+        assertThat(statistics.getEntityLoadCount()).isZero();
+    }
+
+    @Test
+    @DisplayName("Roles with permissions are read with a single statement")
+    void rolePermissions_singleStatement() {
+        List<RolePermissionRow> rows = roleRepository.findPermissionRowsByOrganizationId(organization.getId());
+
+        // ADMIN x2, USER x1, GUEST without permissions x1
+        assertThat(rows).hasSize(4);
+        assertThat(rows).filteredOn(row -> row.roleName().equals("GUEST"))
+                .singleElement().extracting(RolePermissionRow::permissionId).isNull();
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+        assertThat(statistics.getEntityLoadCount()).isZero();
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {5, 25})
+    @DisplayName("Audit log DTOs: one select plus one count per page")
+    void auditLogDTOs_fixedStatementCount(int size) {
+        Page<AuditLogDTO> page = auditLogRepository.findDTOs(organization, "log", null, PageRequest.of(0, size));
+
+        assertThat(page.getContent()).hasSize(size);
+        assertThat(page.getTotalElements()).isEqualTo(USERS);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+        assertThat(statistics.getEntityLoadCount()).isZero();
+    }
+}
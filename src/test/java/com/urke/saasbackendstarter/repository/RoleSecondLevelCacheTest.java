@@ -0,0 +1,85 @@
+package com.urke.saasbackendstarter.repository;
+
+import com.urke.saasbackendstarter.domain.Organization;
+import com.urke.saasbackendstarter.domain.Permission;
+import com.urke.saasbackendstarter.domain.Role;
+import com.urke.saasbackendstarter.dto.role.RoleDTO;
+import com.urke.saasbackendstarter.mapper.RoleMapper;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Checks that role permission sets are served from the second-level cache once loaded.
+ * Runs without the test transaction: entries written by an uncommitted transaction stay
+ * locked in the cache, so the data has to be committed first.
+ */
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class RoleSecondLevelCacheTest {
+
+    @Autowired private EntityManagerFactory entityManagerFactory;
+    @Autowired private PlatformTransactionManager transactionManager;
+    @Autowired private OrganizationRepository organizationRepository;
+    @Autowired private PermissionRepository permissionRepository;
+    @Autowired private RoleRepository roleRepository;
+
+    private TransactionTemplate transaction;
+    private Long organizationId;
+
+    @BeforeEach
+    void seed() {
+        transaction = new TransactionTemplate(transactionManager);
+        organizationId = transaction.execute(status -> {
+            Organization organization = organizationRepository.save(Organization.builder().name("Acme").slug("acme").build());
+            Permission view = permissionRepository.save(Permission.builder().name("USER_VIEW_ALL").organization(organization).build());
+            Permission manage = permissionRepository.save(Permission.builder().name("ORG_MANAGE").organization(organization).build());
+            roleRepository.save(Role.builder().name("ADMIN").organization(organization).permissions(Set.of(view, manage)).build());
+            roleRepository.save(Role.builder().name("USER").organization(organization).permissions(Set.of(view)).build());
+            return organization.getId();
+        });
+    }
+
+    @AfterEach
+    void cleanUp() {
+        transaction.executeWithoutResult(status -> {
+            roleRepository.deleteAll();
+            permissionRepository.deleteAll();
+            organizationRepository.deleteAll();
+        });
+    }
+
+    @Test
+    void permissionSets_servedFromCacheOnSecondLoad() {
+        transaction.execute(status -> loadRoles());
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        List<RoleDTO> roles = transaction.execute(status -> loadRoles());
+
+        // roles and the organization; no permission query
+        assertThat(roles).flatExtracting(RoleDTO::getPermissions).hasSize(3);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+        assertThat(statistics.getSecondLevelCacheHitCount()).isPositive();
+    }
+
+    private List<RoleDTO> loadRoles() {
+        return roleRepository.findAllByOrganizationId(organizationId).stream()
+                .map(RoleMapper::toDTO)
+                .toList();
+    }
+}
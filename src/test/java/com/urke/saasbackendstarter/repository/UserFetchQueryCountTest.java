@@ -0,0 +1,131 @@
+package com.urke.saasbackendstarter.repository;
+
+import com.urke.saasbackendstarter.domain.Organization;
+import com.urke.saasbackendstarter.domain.Permission;
+import com.urke.saasbackendstarter.domain.Role;
+import com.urke.saasbackendstarter.domain.User;
+import com.urke.saasbackendstarter.dto.role.RoleDTO;
+import com.urke.saasbackendstarter.dto.user.UserDetails;
+import com.urke.saasbackendstarter.dto.user.UserSummary;
+import com.urke.saasbackendstarter.mapper.RoleMapper;
+import com.urke.saasbackendstarter.mapper.UserMapper;
+import com.urke.saasbackendstarter.security.CustomUserDetails;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Counts the SQL statements behind each use case that loads User and Role entities, so a
+ * change to fetch types, entity graphs or batch size that brings back N+1 loading fails here.
+ */
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+class UserFetchQueryCountTest {
+
+    private static final int USERS = 30;
+
+    @Autowired private TestEntityManager entityManager;
+    @Autowired private EntityManagerFactory entityManagerFactory;
+    @Autowired private UserRepository userRepository;
+    @Autowired private RoleRepository roleRepository;
+
+    private final UserMapper userMapper = new UserMapper();
+    private Organization organization;
+    private Long firstUserId;
+    private Statistics statistics;
+
+    @BeforeEach
+    void seed() {
+        organization = entityManager.persist(Organization.builder().name("Acme").slug("acme").build());
+        Permission view = entityManager.persist(Permission.builder().name("USER_VIEW_ALL").organization(organization).build());
+        Permission manage = entityManager.persist(Permission.builder().name("ORG_MANAGE").organization(organization).build());
+        Role admin = entityManager.persist(Role.builder().name("ADMIN").organization(organization).permissions(Set.of(view, manage)).build());
+        Role user = entityManager.persist(Role.builder().name("USER").organization(organization).permissions(Set.of(view)).build());
+
+        for (int i = 0; i < USERS; i++) {
+            User persisted = entityManager.persist(User.builder()
+                    .email(String.format("user%02d@acme.com", i))
+                    .password("{noop}secret")
+                    .fullName("User " + i)
+                    .organization(organization)
+                    .roles(i % 3 == 0 ? Set.of(admin, user) : Set.of(user))
+                    .build());
+            if (i == 0) firstUserId = persisted.getId();
+        }
+        entityManager.flush();
+        entityManager.clear();
+
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    @DisplayName("Auth principal: user, roles and permissions in one statement")
+    void principal_singleStatement() {
+        CustomUserDetails principal = new CustomUserDetails(userRepository.findByEmailAndDeletedFalse("user00@acme.com").orElseThrow());
+
+        assertThat(principal.getRoleNames()).containsExactlyInAnyOrder("ADMIN", "USER");
+        assertThat(principal.getPermissionNames()).containsExactlyInAnyOrder("USER_VIEW_ALL", "ORG_MANAGE");
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("User details: user, roles and organization in one statement")
+    void details_singleStatement() {
+        UserDetails details = userMapper.toDetails(userRepository.findWithDetailsByIdAndDeletedFalse(firstUserId).orElseThrow());
+
+        assertThat(details.getRoles()).containsExactlyInAnyOrder("ADMIN", "USER");
+        assertThat(details.getOrganizationName()).isEqualTo("Acme");
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {5, 25})
+    @DisplayName("Paged user entities: select, count and one batched role load, whatever the page size")
+    void pagedUsers_rolesBatchFetched(int size) {
+        Page<UserSummary> page = userRepository.findAllByDeletedFalse(PageRequest.of(0, size, Sort.by("email")))
+                .map(userMapper::toSummary);
+
+        assertThat(page.getContent()).hasSize(size);
+        assertThat(page.getContent().get(0).getRoles()).containsExactlyInAnyOrder("ADMIN", "USER");
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(3);
+    }
+
+    @Test
+    @DisplayName("Organization user list (export): users and roles in one statement")
+    void organizationUsers_singleStatement() {
+        List<UserSummary> users = userRepository.findAllByOrganizationAndDeletedFalse(organization).stream()
+                .map(userMapper::toSummary)
+                .toList();
+
+        assertThat(users).hasSize(USERS);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Role entities: permission sets batch-fetched in one statement")
+    void roles_permissionsBatchFetched() {
+        List<RoleDTO> roles = roleRepository.findAllByOrganizationId(organization.getId()).stream()
+                .map(RoleMapper::toDTO)
+                .toList();
+
+        // roles, one batch for both permission sets, the shared organization
+        assertThat(roles).flatExtracting(RoleDTO::getPermissions).hasSize(3);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(3);
+    }
+}
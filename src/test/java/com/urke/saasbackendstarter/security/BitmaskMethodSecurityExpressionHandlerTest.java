@@ -0,0 +1,73 @@
+package com.urke.saasbackendstarter.security;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.expression.EvaluationContext;
+import org.springframework.expression.Expression;
+import org.springframework.security.access.expression.ExpressionUtils;
+import org.springframework.security.access.expression.method.DefaultMethodSecurityExpressionHandler;
+import org.springframework.security.access.expression.method.MethodSecurityExpressionHandler;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.util.SimpleMethodInvocation;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class BitmaskMethodSecurityExpressionHandlerTest {
+
+    private static final List<String> EXPRESSIONS = List.of(
+            "hasRole('ADMIN')",
+            "hasRole('ROLE_ADMIN')",
+            "hasAuthority('USER_VIEW_ALL') or hasRole('ADMIN')",
+            "hasAuthority('USER_DELETE') or hasRole('ADMIN')",
+            "hasAnyAuthority('USER_DELETE', 'USER_UPDATE_SELF')",
+            "hasAnyRole('ADMIN', 'USER')",
+            "isAuthenticated() and principal.username == 'ann@acme.com'");
+
+    private final MethodSecurityExpressionHandler bitmask = new BitmaskMethodSecurityExpressionHandler();
+    private final MethodSecurityExpressionHandler stock = new DefaultMethodSecurityExpressionHandler();
+
+    @Test
+    void agreesWithStockHandlerForCustomUserDetails() throws Exception {
+        List<CustomUserDetails> principals = List.of(
+                new CustomUserDetails(1L, "ann@acme.com", "x", 7001L, Set.of("ADMIN"), Set.of()),
+                new CustomUserDetails(2L, "ben@acme.com", "x", 7001L, Set.of("USER"), Set.of("USER_UPDATE_SELF")),
+                new CustomUserDetails(3L, "cat@acme.com", "x", 7001L, Set.of(), Set.of("USER_VIEW_ALL")),
+                new CustomUserDetails(4L, "dan@acme.com", "x", 7002L, Set.of(), Set.of()));
+
+        for (CustomUserDetails principal : principals) {
+            Authentication authentication = authenticated(principal);
+            for (String expression : EXPRESSIONS) {
+                assertThat(evaluate(bitmask, expression, authentication))
+                        .as("%s for %s", expression, principal.getUsername())
+                        .isEqualTo(evaluate(stock, expression, authentication));
+            }
+        }
+    }
+
+    @Test
+    void fallsBackToStockEvaluationForOtherPrincipals() throws Exception {
+        User principal = new User("ann@acme.com", "x",
+                List.of(new SimpleGrantedAuthority("ROLE_ADMIN")));
+        Authentication authentication = authenticated(principal);
+
+        assertThat(evaluate(bitmask, "hasRole('ADMIN')", authentication)).isTrue();
+        assertThat(evaluate(bitmask, "hasAuthority('USER_DELETE')", authentication)).isFalse();
+    }
+
+    private static Authentication authenticated(UserDetails principal) {
+        return new UsernamePasswordAuthenticationToken(principal, null, principal.getAuthorities());
+    }
+
+    private static boolean evaluate(MethodSecurityExpressionHandler handler, String expression,
+                                    Authentication authentication) throws NoSuchMethodException {
+        Expression parsed = handler.getExpressionParser().parseExpression(expression);
+        EvaluationContext context = handler.createEvaluationContext(() -> authentication, new SimpleMethodInvocation(new Object(), Object.class.getMethod("toString")));
+        return ExpressionUtils.evaluateAsBoolean(parsed, context);
+    }
+}
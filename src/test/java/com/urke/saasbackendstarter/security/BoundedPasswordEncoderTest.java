@@ -0,0 +1,102 @@
+package com.urke.saasbackendstarter.security;
+
+import com.urke.saasbackendstarter.exception.PasswordHashingUnavailableException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class BoundedPasswordEncoderTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private BoundedPasswordEncoder encoder;
+
+    @AfterEach
+    void tearDown() {
+        if (encoder != null) encoder.close();
+    }
+
+    @Test
+    void encodeAndMatches_shouldDelegateAndRecordTimers() {
+        encoder = new BoundedPasswordEncoder(new BCryptPasswordEncoder(4), 2, 4, Duration.ofSeconds(5), meterRegistry);
+
+        String hash = encoder.encode("secret");
+
+        assertThat(encoder.matches("secret", hash)).isTrue();
+        assertThat(encoder.matches("wrong", hash)).isFalse();
+        assertThat(meterRegistry.get("auth.password.hash").tag("operation", "encode").timer().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("auth.password.hash").tag("operation", "matches").timer().count()).isEqualTo(2);
+        assertThat(meterRegistry.get("auth.password.hash.wait").tag("operation", "matches").timer().count()).isEqualTo(2);
+    }
+
+    @Test
+    void encode_shouldFailFastWhenQueueIsFull() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        encoder = new BoundedPasswordEncoder(blockingEncoder(started, release), 1, 1, Duration.ofSeconds(5), meterRegistry);
+
+        CompletableFuture<String> running = CompletableFuture.supplyAsync(() -> encoder.encode("a"));
+        assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+        CompletableFuture<String> queued = CompletableFuture.supplyAsync(() -> encoder.encode("b"));
+        waitForQueued(1);
+
+        assertThatThrownBy(() -> encoder.encode("c")).isInstanceOf(PasswordHashingUnavailableException.class);
+
+        release.countDown();
+        assertThat(running.get(5, TimeUnit.SECONDS)).isEqualTo("hash:a");
+        assertThat(queued.get(5, TimeUnit.SECONDS)).isEqualTo("hash:b");
+    }
+
+    @Test
+    void encode_shouldFailWhenWaitExceedsMaxWait() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        encoder = new BoundedPasswordEncoder(blockingEncoder(started, release), 1, 4, Duration.ofMillis(100), meterRegistry);
+
+        assertThatThrownBy(() -> encoder.encode("a")).isInstanceOf(PasswordHashingUnavailableException.class);
+        release.countDown();
+    }
+
+    @Test
+    void calibrate_shouldStayWithinBounds() {
+        assertThat(BCryptStrengthCalibrator.calibrate(4, Duration.ZERO)).isEqualTo(4);
+        assertThat(BCryptStrengthCalibrator.calibrate(4, Duration.ofMillis(50)))
+                .isBetween(4, BCryptStrengthCalibrator.MAX_STRENGTH);
+    }
+
+    private void waitForQueued(double expected) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (meterRegistry.get("auth.password.hash.queue").gauge().value() < expected && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+    }
+
+    private static PasswordEncoder blockingEncoder(CountDownLatch started, CountDownLatch release) {
+        return new PasswordEncoder() {
+            @Override
+            public String encode(CharSequence rawPassword) {
+                started.countDown();
+                try {
+                    release.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                }
+                return "hash:" + rawPassword;
+            }
+
+            @Override
+            public boolean matches(CharSequence rawPassword, String encodedPassword) {
+                return encodedPassword.equals(encode(rawPassword));
+            }
+        };
+    }
+}
@@ -0,0 +1,142 @@
+package com.urke.saasbackendstarter.security;
+
+import com.urke.saasbackendstarter.domain.Organization;
+import com.urke.saasbackendstarter.domain.User;
+import com.urke.saasbackendstarter.exception.AuthException;
+import com.urke.saasbackendstarter.repository.OrganizationRepository;
+import com.urke.saasbackendstarter.repository.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.context.MessageSource;
+import org.springframework.core.MethodParameter;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.AuthorityUtils;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import java.lang.reflect.Method;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+class CurrentUserArgumentResolverTest {
+
+    private UserRepository userRepository;
+    private CustomUserDetailsService userDetailsService;
+    private CurrentUserArgumentResolver resolver;
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        userRepository = mock(UserRepository.class);
+        userDetailsService = mock(CustomUserDetailsService.class);
+        MessageSource messageSource = mock(MessageSource.class);
+        when(messageSource.getMessage(anyString(), any(), any())).thenAnswer(inv -> inv.getArgument(0));
+        CurrentUserProvider provider = new CurrentUserProvider(
+                userRepository, mock(OrganizationRepository.class), userDetailsService, messageSource);
+        @SuppressWarnings("unchecked")
+        ObjectProvider<CurrentUserProvider> providers = mock(ObjectProvider.class);
+        when(providers.getObject()).thenReturn(provider);
+        resolver = new CurrentUserArgumentResolver(providers);
+
+        user = User.builder().id(7L).email("ann@acme.com")
+                .organization(Organization.builder().id(1L).build()).build();
+        when(userRepository.findByIdAndDeletedFalse(7L)).thenReturn(Optional.of(user));
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    @Test
+    void supportsParameter_onlyAnnotatedUserAndPrincipal() throws Exception {
+        assertThat(resolver.supportsParameter(parameter(0))).isTrue();
+        assertThat(resolver.supportsParameter(parameter(1))).isTrue();
+        assertThat(resolver.supportsParameter(parameter(2))).isFalse();
+        assertThat(resolver.supportsParameter(parameter(3))).isFalse();
+    }
+
+    @Test
+    void resolveArgument_userAndPrincipal_shouldLoadUserOncePerRequest() throws Exception {
+        CustomUserDetails principal = authenticate();
+        ServletWebRequest request = startRequest();
+
+        Object first = resolver.resolveArgument(parameter(0), null, request, null);
+        Object second = resolver.resolveArgument(parameter(0), null, request, null);
+        Object resolvedPrincipal = resolver.resolveArgument(parameter(1), null, request, null);
+
+        assertThat(first).isSameAs(user).isSameAs(second);
+        assertThat(resolvedPrincipal).isSameAs(principal);
+        verify(userRepository, times(1)).findByIdAndDeletedFalse(7L);
+        verifyNoInteractions(userDetailsService);
+
+        // The next request loads the user again.
+        resolver.resolveArgument(parameter(0), null, startRequest(), null);
+        verify(userRepository, times(2)).findByIdAndDeletedFalse(7L);
+    }
+
+    @Test
+    void resolveArgument_principalWithoutSnapshot_shouldUseCachedUserDetails() throws Exception {
+        CustomUserDetails loaded = new CustomUserDetails(7L, "ann@acme.com", null, 1L, Set.of("USER"), Set.of());
+        when(userDetailsService.loadUser("ann@acme.com")).thenReturn(loaded);
+        SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken(
+                "ann@acme.com", null, AuthorityUtils.createAuthorityList("ROLE_USER")));
+
+        assertThat(resolver.resolveArgument(parameter(1), null, startRequest(), null)).isSameAs(loaded);
+        verifyNoInteractions(userRepository);
+    }
+
+    @Test
+    void resolveArgument_unauthenticated_shouldThrowAuthException() throws Exception {
+        ServletWebRequest request = startRequest();
+
+        assertThatThrownBy(() -> resolver.resolveArgument(parameter(0), null, request, null))
+                .isInstanceOf(AuthException.class)
+                .hasMessage("auth.required");
+        assertThatThrownBy(() -> resolver.resolveArgument(parameter(1), null, request, null))
+                .isInstanceOf(AuthException.class);
+
+        SecurityContextHolder.getContext().setAuthentication(new AnonymousAuthenticationToken(
+                "key", "anonymousUser", AuthorityUtils.createAuthorityList("ROLE_ANONYMOUS")));
+        assertThatThrownBy(() -> resolver.resolveArgument(parameter(0), null, request, null))
+                .isInstanceOf(AuthException.class);
+        verifyNoInteractions(userRepository, userDetailsService);
+    }
+
+    private CustomUserDetails authenticate() {
+        CustomUserDetails principal = new CustomUserDetails(7L, "ann@acme.com", null, 1L, Set.of("USER"), Set.of());
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(principal, null, principal.getAuthorities()));
+        return principal;
+    }
+
+    private static ServletWebRequest startRequest() {
+        MockHttpServletRequest servletRequest = new MockHttpServletRequest();
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(servletRequest));
+        return new ServletWebRequest(servletRequest);
+    }
+
+    private static MethodParameter parameter(int index) throws NoSuchMethodException {
+        Method method = Handlers.class.getDeclaredMethod("handle", User.class, CustomUserDetails.class, String.class, User.class);
+        return new MethodParameter(method, index);
+    }
+
+    @SuppressWarnings("unused")
+    private static final class Handlers {
+        void handle(@CurrentUser User user, @CurrentUser CustomUserDetails principal, @CurrentUser String other, User plain) {
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package com.urke.saasbackendstarter.security;
+
+import com.urke.saasbackendstarter.domain.Organization;
+import com.urke.saasbackendstarter.domain.Permission;
+import com.urke.saasbackendstarter.domain.Role;
+import com.urke.saasbackendstarter.domain.User;
+import com.urke.saasbackendstarter.events.AccessControlEvent;
+import com.urke.saasbackendstarter.events.UserEvent;
+import com.urke.saasbackendstarter.repository.UserRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.MessageSource;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class CustomUserDetailsServiceTest {
+
+    private UserRepository userRepository;
+    private MessageSource messageSource;
+    private UserDetailsCache cache;
+    private SimpleMeterRegistry meterRegistry;
+    private CustomUserDetailsService service;
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        userRepository = mock(UserRepository.class);
+        messageSource = mock(MessageSource.class);
+        meterRegistry = new SimpleMeterRegistry();
+        cache = new UserDetailsCache(100, Duration.ofMinutes(5), meterRegistry);
+        service = new CustomUserDetailsService(userRepository, cache, messageSource);
+
+        Organization org = Organization.builder().id(3L).name("Org").slug("org").build();
+        Permission viewAll = Permission.builder().id(1L).name("USER_VIEW_ALL").organization(org).build();
+        Role admin = Role.builder().id(1L).name("ADMIN").permissions(Set.of(viewAll)).organization(org).build();
+        user = User.builder().id(7L).email("user@example.com").password("hash")
+                .fullName("User").roles(Set.of(admin)).organization(org).build();
+    }
+
+    @Test
+    void loadUserByUsername_shouldHitDatabaseOnlyOnce() {
+        when(userRepository.findByEmailAndDeletedFalse("user@example.com")).thenReturn(Optional.of(user));
+
+        CustomUserDetails first = service.loadUser("user@example.com");
+        CustomUserDetails second = service.loadUser("user@example.com");
+
+        assertThat(second).isSameAs(first);
+        assertThat(first.getOrganizationId()).isEqualTo(3L);
+        assertThat(first.getAuthorities()).extracting(Object::toString)
+            .containsExactlyInAnyOrder("ROLE_ADMIN", "USER_VIEW_ALL");
+        verify(userRepository, times(1)).findByEmailAndDeletedFalse("user@example.com");
+        assertThat(meterRegistry.get("cache.gets").tag("cache", "userDetails").tag("result", "hit")
+            .functionCounter().count()).isEqualTo(1.0);
+    }
+
+    @Test
+    void userEvent_shouldInvalidateCachedEntry() {
+        when(userRepository.findByEmailAndDeletedFalse("user@example.com")).thenReturn(Optional.of(user));
+        service.loadUser("user@example.com");
+
+        cache.onUserEvent(new UserEvent(this, UserEvent.Type.DELETED, user));
+        when(userRepository.findByEmailAndDeletedFalse("user@example.com")).thenReturn(Optional.empty());
+        when(messageSource.getMessage(eq("user.notfound"), any(), any())).thenReturn("User not found");
+
+        assertThatThrownBy(() -> service.loadUserByUsername("user@example.com"))
+            .isInstanceOf(UsernameNotFoundException.class);
+    }
+
+    @Test
+    void accessControlEvent_shouldInvalidateOrganizationEntries() {
+        when(userRepository.findByEmailAndDeletedFalse("user@example.com")).thenReturn(Optional.of(user));
+        service.loadUser("user@example.com");
+
+        cache.onAccessControlEvent(new AccessControlEvent(this, AccessControlEvent.Type.ROLE_SAVED, 3L));
+        service.loadUser("user@example.com");
+
+        verify(userRepository, times(2)).findByEmailAndDeletedFalse("user@example.com");
+    }
+}
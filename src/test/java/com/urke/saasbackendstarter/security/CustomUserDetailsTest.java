@@ -0,0 +1,47 @@
+package com.urke.saasbackendstarter.security;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CustomUserDetailsTest {
+
+    @Test
+    void authoritiesAreComputedOnceAndSharedWithinOrganization() {
+        CustomUserDetails alice = new CustomUserDetails(1L, "alice@acme.com", "x", 6001L,
+                Set.of("ADMIN"), Set.of("USER_VIEW_ALL"));
+        CustomUserDetails bob = new CustomUserDetails(2L, "bob@acme.com", "x", 6001L,
+                Set.of("ADMIN"), Set.of());
+
+        assertThat(alice.getAuthorities()).isSameAs(alice.getAuthorities());
+        assertThat(alice.getAuthorities()).extracting(Object::toString)
+                .containsExactlyInAnyOrder("ROLE_ADMIN", "USER_VIEW_ALL");
+        assertThat(bob.getAuthorities()).hasSize(1);
+        assertThat(bob.getAuthorities().iterator().next())
+                .isSameAs(AuthorityTable.forOrganization(6001L).find("ROLE_ADMIN"));
+    }
+
+    @Test
+    void hasAuthorityChecksTheBitmask() {
+        CustomUserDetails user = new CustomUserDetails(3L, "carol@acme.com", "x", 6002L,
+                Set.of("USER"), Set.of("FILE_UPLOAD"));
+        new CustomUserDetails(4L, "dave@acme.com", "x", 6002L, Set.of("ADMIN"), Set.of("USER_DELETE"));
+
+        assertThat(user.hasAuthority("ROLE_USER")).isTrue();
+        assertThat(user.hasAuthority("FILE_UPLOAD")).isTrue();
+        assertThat(user.hasAuthority("ROLE_ADMIN")).isFalse();
+        assertThat(user.hasAuthority("USER_DELETE")).isFalse();
+        assertThat(user.hasAuthority("NEVER_GRANTED")).isFalse();
+    }
+
+    @Test
+    void organizationsHaveSeparateTables() {
+        CustomUserDetails first = new CustomUserDetails(5L, "a@one.com", "x", 6003L, Set.of("ADMIN"), Set.of());
+        CustomUserDetails second = new CustomUserDetails(6L, "a@two.com", "x", 6004L, Set.of("ADMIN"), Set.of());
+
+        assertThat(first.getAuthorityTable()).isNotSameAs(second.getAuthorityTable());
+        assertThat(second.hasAuthority("ROLE_ADMIN")).isTrue();
+    }
+}
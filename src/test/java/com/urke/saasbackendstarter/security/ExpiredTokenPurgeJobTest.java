@@ -0,0 +1,70 @@
+package com.urke.saasbackendstarter.security;
+
+import com.urke.saasbackendstarter.repository.PasswordResetTokenRepository;
+import com.urke.saasbackendstarter.repository.RefreshTokenRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class ExpiredTokenPurgeJobTest {
+
+    private RefreshTokenRepository refreshTokenRepository;
+    private PasswordResetTokenRepository passwordResetTokenRepository;
+    private RefreshTokenStore refreshTokenStore;
+    private SimpleMeterRegistry meterRegistry;
+    private ExpiredTokenPurgeJob job;
+
+    @BeforeEach
+    void setUp() {
+        refreshTokenRepository = mock(RefreshTokenRepository.class);
+        passwordResetTokenRepository = mock(PasswordResetTokenRepository.class);
+        refreshTokenStore = mock(RefreshTokenStore.class);
+        meterRegistry = new SimpleMeterRegistry();
+        job = new ExpiredTokenPurgeJob(refreshTokenRepository, passwordResetTokenRepository, refreshTokenStore,
+                meterRegistry, 100, 5, Duration.ZERO);
+    }
+
+    @Test
+    void purge_shouldLoopUntilShortBatchAndRecordMetrics() {
+        when(refreshTokenRepository.deleteExpiredBatch(any(), eq(100))).thenReturn(100, 100, 42);
+        when(passwordResetTokenRepository.deleteExpiredBatch(any(), eq(100))).thenReturn(3);
+
+        job.purgeExpiredTokens();
+
+        verify(refreshTokenRepository, times(3)).deleteExpiredBatch(any(), eq(100));
+        verify(passwordResetTokenRepository, times(1)).deleteExpiredBatch(any(), eq(100));
+        verify(refreshTokenStore).evictExpired(any());
+        assertThat(meterRegistry.get("auth.tokens.purged").tag("table", "refresh_tokens").counter().count())
+            .isEqualTo(242);
+        assertThat(meterRegistry.get("auth.tokens.purged").tag("table", "password_reset_tokens").counter().count())
+            .isEqualTo(3);
+        assertThat(meterRegistry.get("auth.tokens.purge.batch").tag("table", "refresh_tokens").timer().count())
+            .isEqualTo(3);
+    }
+
+    @Test
+    void purge_shouldStopAtMaxBatchesPerRun() {
+        when(refreshTokenRepository.deleteExpiredBatch(any(), anyInt())).thenReturn(100);
+
+        job.purgeExpiredTokens();
+
+        verify(refreshTokenRepository, times(5)).deleteExpiredBatch(any(), anyInt());
+    }
+
+    @Test
+    void purge_failingBatch_shouldNotAbortOtherTables() {
+        when(refreshTokenRepository.deleteExpiredBatch(any(), anyInt())).thenThrow(new IllegalStateException("lock wait"));
+        when(passwordResetTokenRepository.deleteExpiredBatch(any(), anyInt())).thenReturn(1);
+
+        job.purgeExpiredTokens();
+
+        verify(passwordResetTokenRepository).deleteExpiredBatch(any(), anyInt());
+    }
+}
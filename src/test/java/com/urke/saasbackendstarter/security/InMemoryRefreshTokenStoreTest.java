@@ -0,0 +1,278 @@
+package com.urke.saasbackendstarter.security;
+
+import com.urke.saasbackendstarter.domain.RefreshToken;
+import com.urke.saasbackendstarter.domain.User;
+import com.urke.saasbackendstarter.exception.RefreshTokenStoreUnavailableException;
+import com.urke.saasbackendstarter.repository.RefreshTokenRepository;
+import com.urke.saasbackendstarter.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionStatus;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class InMemoryRefreshTokenStoreTest {
+
+    private RefreshTokenRepository refreshTokenRepository;
+    private UserRepository userRepository;
+    private PlatformTransactionManager transactionManager;
+    private InMemoryRefreshTokenStore store;
+
+    @BeforeEach
+    void setUp() {
+        refreshTokenRepository = mock(RefreshTokenRepository.class);
+        userRepository = mock(UserRepository.class);
+        transactionManager = mock(PlatformTransactionManager.class);
+        when(transactionManager.getTransaction(any())).thenReturn(mock(TransactionStatus.class));
+        when(userRepository.getReferenceById(any())).thenAnswer(inv -> User.builder().id(inv.getArgument(0)).build());
+        store = new InMemoryRefreshTokenStore(refreshTokenRepository, userRepository, transactionManager,
+                Duration.ofSeconds(10), 2, 100, Duration.ofMillis(50), Duration.ofHours(1));
+    }
+
+    @Test
+    void start_shouldRebuildStoreFromTable() {
+        RefreshTokenRepository.ActiveToken row = mock(RefreshTokenRepository.ActiveToken.class);
+        when(row.getTokenHash()).thenReturn(RefreshTokenStore.hash("persisted"));
+        when(row.getUserId()).thenReturn(9L);
+        when(row.getExpiryDate()).thenReturn(Instant.now().plusSeconds(60));
+        when(row.getFamilyId()).thenReturn("family-9");
+        when(refreshTokenRepository.findActiveTokens(any())).thenReturn(List.of(row));
+
+        store.start();
+
+        assertThat(store.find("persisted")).hasValueSatisfying(record -> {
+            assertThat(record.userId()).isEqualTo(9L);
+            assertThat(record.familyId()).isEqualTo("family-9");
+        });
+        store.stop();
+    }
+
+    @Test
+    void issue_shouldServeFromMemoryAndPersistInBatches() {
+        store.issue("a", new RefreshTokenRecord(1L, Instant.now().plusSeconds(60), "f1"));
+        store.issue("b", new RefreshTokenRecord(2L, Instant.now().plusSeconds(60), "f2"));
+        store.issue("c", new RefreshTokenRecord(3L, Instant.now().plusSeconds(60), "f3"));
+
+        assertThat(store.find("a")).isPresent();
+        verifyNoInteractions(refreshTokenRepository);
+
+        store.flush();
+
+        verify(refreshTokenRepository, times(2)).save(any(RefreshToken.class));
+        verify(transactionManager, times(1)).commit(any());
+        assertThat(store.pendingWriteCount()).isEqualTo(1);
+    }
+
+    @Test
+    void issue_shouldReplacePreviousTokensOfUser() {
+        store.issue("first", new RefreshTokenRecord(1L, Instant.now().plusSeconds(60), "f1"));
+        store.issue("second", new RefreshTokenRecord(1L, Instant.now().plusSeconds(60), "f2"));
+
+        assertThat(store.find("first")).isEmpty();
+        assertThat(store.find("second")).isPresent();
+    }
+
+    @Test
+    void revokeUser_shouldRemoveTokensAndQueueDelete() {
+        store.issue("a", new RefreshTokenRecord(1L, Instant.now().plusSeconds(60), "f1"));
+
+        store.revokeUser(1L);
+        store.flush();
+
+        assertThat(store.find("a")).isEmpty();
+        verify(refreshTokenRepository, times(2)).deleteByUserId(1L);
+    }
+
+    @Test
+    void rotate_shouldIssueReplacementInSameFamilyAndConsumeToken() {
+        store.issue("a", new RefreshTokenRecord(1L, Instant.now().plusSeconds(60), "f1"));
+
+        assertThat(store.rotate("a", "b", Instant.now().plusSeconds(60)))
+            .hasValueSatisfying(record -> assertThat(record.familyId()).isEqualTo("f1"));
+
+        assertThat(store.find("a")).hasValueSatisfying(record -> assertThat(record.revoked()).isTrue());
+        assertThat(store.find("b")).hasValueSatisfying(record -> assertThat(record.revoked()).isFalse());
+    }
+
+    @Test
+    void rotate_duplicateWithinGraceWindow_shouldBeRejectedWithoutRevokingFamily() {
+        store.issue("a", new RefreshTokenRecord(1L, Instant.now().plusSeconds(60), "f1"));
+        store.rotate("a", "b", Instant.now().plusSeconds(60));
+
+        assertThat(store.rotate("a", "c", Instant.now().plusSeconds(60))).isEmpty();
+
+        assertThat(store.find("b")).hasValueSatisfying(record -> assertThat(record.revoked()).isFalse());
+        assertThat(store.find("c")).isEmpty();
+        assertThat(store.rotate("b", "d", Instant.now().plusSeconds(60))).isPresent();
+    }
+
+    @Test
+    void rotate_reusedAfterGraceWindow_shouldRevokeWholeFamily() {
+        RefreshTokenRepository.ActiveToken used = activeToken("a", true, Instant.now().minusSeconds(60));
+        RefreshTokenRepository.ActiveToken live = activeToken("b", false, null);
+        when(refreshTokenRepository.findActiveTokens(any())).thenReturn(List.of(used, live));
+        store.start();
+
+        assertThat(store.rotate("a", "c", Instant.now().plusSeconds(60))).isEmpty();
+
+        assertThat(store.find("b")).hasValueSatisfying(record -> assertThat(record.revoked()).isTrue());
+        assertThat(store.find("c")).isEmpty();
+        assertThat(store.rotate("b", "d", Instant.now().plusSeconds(60))).isEmpty();
+        store.stop();
+    }
+
+    @Test
+    void rotate_expiredToken_shouldBeRejected() {
+        store.issue("a", new RefreshTokenRecord(1L, Instant.now().minusSeconds(1), "f1"));
+
+        assertThat(store.rotate("a", "b", Instant.now().plusSeconds(60))).isEmpty();
+    }
+
+    @Test
+    void rotate_concurrentRefreshes_shouldLetExactlyOneWin() throws Exception {
+        store.issue("a", new RefreshTokenRecord(1L, Instant.now().plusSeconds(60), "f1"));
+        int threads = 16;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Boolean>> results = new ArrayList<>();
+        for (int i = 0; i < threads; i++) {
+            String replacement = "r" + i;
+            results.add(executor.submit(() -> {
+                start.await();
+                return store.rotate("a", replacement, Instant.now().plusSeconds(60)).isPresent();
+            }));
+        }
+        start.countDown();
+        int winners = 0;
+        for (Future<Boolean> result : results) {
+            if (result.get()) winners++;
+        }
+        executor.shutdown();
+
+        assertThat(winners).isEqualTo(1);
+    }
+
+    @Test
+    void flush_failedBatch_shouldBeRetriedRowByRow() {
+        when(refreshTokenRepository.deleteByUserId(1L)).thenThrow(new IllegalStateException("deadlock")).thenReturn(1);
+        store.revokeUser(1L);
+        store.revokeUser(2L);
+
+        assertThat(store.flush()).isTrue();
+
+        verify(refreshTokenRepository, times(2)).deleteByUserId(1L);
+        verify(refreshTokenRepository).deleteByUserId(2L);
+        assertThat(store.pendingWriteCount()).isZero();
+    }
+
+    @Test
+    void flush_failingRevocation_shouldBeKeptAndBlockLaterWrites() {
+        when(refreshTokenRepository.deleteByUserId(1L)).thenThrow(new IllegalStateException("database down"));
+        store.revokeUser(1L);
+        store.revokeUser(2L);
+
+        for (int i = 0; i < InMemoryRefreshTokenStore.MAX_INSERT_ATTEMPTS + 2; i++) {
+            assertThat(store.flush()).isFalse();
+        }
+        assertThat(store.pendingWriteCount()).isEqualTo(2);
+        verify(refreshTokenRepository, never()).deleteByUserId(2L);
+
+        doReturn(1).when(refreshTokenRepository).deleteByUserId(1L);
+        assertThat(store.flush()).isTrue();
+
+        InOrder order = inOrder(refreshTokenRepository);
+        order.verify(refreshTokenRepository, atLeastOnce()).deleteByUserId(1L);
+        order.verify(refreshTokenRepository).deleteByUserId(2L);
+        assertThat(store.pendingWriteCount()).isZero();
+    }
+
+    @Test
+    void flush_failingInsert_shouldBeDroppedButItsRevocationWritten() {
+        when(refreshTokenRepository.save(any(RefreshToken.class))).thenThrow(new IllegalStateException("constraint"));
+        store.issue("a", new RefreshTokenRecord(1L, Instant.now().plusSeconds(60), "f1"));
+
+        for (int i = 1; i < InMemoryRefreshTokenStore.MAX_INSERT_ATTEMPTS; i++) {
+            assertThat(store.flush()).isFalse();
+        }
+        assertThat(store.flush()).isTrue();
+
+        assertThat(store.pendingWriteCount()).isZero();
+        // Every attempt deleted first; the last one committed the delete alone.
+        verify(refreshTokenRepository, times(InMemoryRefreshTokenStore.MAX_INSERT_ATTEMPTS * 2 + 1)).deleteByUserId(1L);
+        assertThat(store.find("a")).isPresent();
+    }
+
+    @Test
+    void enqueue_fullQueue_shouldFailFastAndLeaveMemoryUntouched() {
+        InMemoryRefreshTokenStore small = new InMemoryRefreshTokenStore(refreshTokenRepository, userRepository,
+                transactionManager, Duration.ofSeconds(10), 1, 1, Duration.ofMillis(50), Duration.ofHours(1));
+        small.issue("a", new RefreshTokenRecord(1L, Instant.now().plusSeconds(60), "f1"));
+
+        assertThatThrownBy(() -> small.rotate("a", "b", Instant.now().plusSeconds(60)))
+            .isInstanceOf(RefreshTokenStoreUnavailableException.class);
+        assertThatThrownBy(() -> small.revokeUser(1L))
+            .isInstanceOf(RefreshTokenStoreUnavailableException.class);
+
+        assertThat(small.find("a")).hasValueSatisfying(record -> assertThat(record.revoked()).isFalse());
+        assertThat(small.find("b")).isEmpty();
+        assertThat(small.pendingWriteCount()).isEqualTo(1);
+
+        small.flush();
+        assertThat(small.rotate("a", "b", Instant.now().plusSeconds(60))).isPresent();
+    }
+
+    @Test
+    void writes_shouldBeQueuedInTheOrderTheyWereMadeInMemory() {
+        store.issue("a", new RefreshTokenRecord(1L, Instant.now().plusSeconds(60), "f1"));
+        store.rotate("a", "b", Instant.now().plusSeconds(60));
+        store.revokeUser(1L);
+
+        assertThat(store.rotate("b", "c", Instant.now().plusSeconds(60))).isEmpty();
+        store.flush();
+        store.flush();
+
+        InOrder order = inOrder(refreshTokenRepository);
+        order.verify(refreshTokenRepository).deleteByUserId(1L);
+        order.verify(refreshTokenRepository).markUsed(eq(RefreshTokenStore.hash("a")), any(), eq(Instant.EPOCH));
+        order.verify(refreshTokenRepository).deleteByUserId(1L);
+        assertThat(store.find("b")).isEmpty();
+        assertThat(store.pendingWriteCount()).isZero();
+    }
+
+    @Test
+    void evictExpired_shouldDropOnlyExpiredTokens() {
+        store.issue("old", new RefreshTokenRecord(1L, Instant.now().minusSeconds(1), "f1"));
+        store.issue("live", new RefreshTokenRecord(2L, Instant.now().plusSeconds(60), "f2"));
+
+        assertThat(store.evictExpired(Instant.now())).isEqualTo(1);
+
+        assertThat(store.find("old")).isEmpty();
+        assertThat(store.find("live")).isPresent();
+    }
+
+    private RefreshTokenRepository.ActiveToken activeToken(String token, boolean revoked, Instant usedAt) {
+        RefreshTokenRepository.ActiveToken row = mock(RefreshTokenRepository.ActiveToken.class);
+        when(row.getTokenHash()).thenReturn(RefreshTokenStore.hash(token));
+        when(row.getUserId()).thenReturn(1L);
+        when(row.getExpiryDate()).thenReturn(Instant.now().plusSeconds(60));
+        when(row.getFamilyId()).thenReturn("f1");
+        when(row.isRevoked()).thenReturn(revoked);
+        when(row.getUsedAt()).thenReturn(usedAt);
+        return row;
+    }
+}
@@ -0,0 +1,111 @@
+package com.urke.saasbackendstarter.security;
+
+import com.urke.saasbackendstarter.domain.RefreshToken;
+import com.urke.saasbackendstarter.domain.User;
+import com.urke.saasbackendstarter.repository.RefreshTokenRepository;
+import com.urke.saasbackendstarter.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class JpaRefreshTokenStoreTest {
+
+    private static final String HASH = RefreshTokenStore.hash("a");
+
+    private RefreshTokenRepository refreshTokenRepository;
+    private JpaRefreshTokenStore store;
+
+    @BeforeEach
+    void setUp() {
+        refreshTokenRepository = mock(RefreshTokenRepository.class);
+        UserRepository userRepository = mock(UserRepository.class);
+        when(userRepository.getReferenceById(any())).thenAnswer(inv -> User.builder().id(inv.getArgument(0)).build());
+        store = new JpaRefreshTokenStore(refreshTokenRepository, userRepository, Duration.ofSeconds(10));
+    }
+
+    @Test
+    void rotate_shouldClaimTokenBeforeReadingIt() {
+        when(refreshTokenRepository.markUsed(eq(HASH), any(), any())).thenReturn(1);
+        when(refreshTokenRepository.findRecordByTokenHash(HASH))
+                .thenReturn(Optional.of(new RefreshTokenRecord(1L, Instant.now().plusSeconds(60), "f1", true)));
+
+        assertThat(store.rotate("a", "b", Instant.now().plusSeconds(60)))
+                .hasValueSatisfying(record -> {
+                    assertThat(record.familyId()).isEqualTo("f1");
+                    assertThat(record.revoked()).isFalse();
+                });
+
+        InOrder order = inOrder(refreshTokenRepository);
+        order.verify(refreshTokenRepository).markUsed(eq(HASH), any(), any());
+        order.verify(refreshTokenRepository).findRecordByTokenHash(HASH);
+        order.verify(refreshTokenRepository).save(any(RefreshToken.class));
+        verify(refreshTokenRepository, never()).revokeFamily(anyString());
+    }
+
+    @Test
+    void rotate_duplicateWithinGraceWindow_shouldBeRejectedWithoutRevokingFamily() {
+        when(refreshTokenRepository.markUsed(eq(HASH), any(), any())).thenReturn(0);
+        when(refreshTokenRepository.findRecordByTokenHash(HASH)).thenReturn(Optional.of(
+                new RefreshTokenRecord(1L, Instant.now().plusSeconds(60), "f1", true, Instant.now().minusSeconds(1))));
+
+        assertThat(store.rotate("a", "b", Instant.now().plusSeconds(60))).isEmpty();
+
+        verify(refreshTokenRepository, never()).revokeFamily(anyString());
+        verify(refreshTokenRepository, never()).save(any(RefreshToken.class));
+    }
+
+    @Test
+    void rotate_reusedAfterGraceWindow_shouldRevokeFamily() {
+        when(refreshTokenRepository.markUsed(eq(HASH), any(), any())).thenReturn(0);
+        when(refreshTokenRepository.findRecordByTokenHash(HASH)).thenReturn(Optional.of(
+                new RefreshTokenRecord(1L, Instant.now().plusSeconds(60), "f1", true, Instant.now().minusSeconds(60))));
+
+        assertThat(store.rotate("a", "b", Instant.now().plusSeconds(60))).isEmpty();
+
+        verify(refreshTokenRepository).revokeFamily("f1");
+        verify(refreshTokenRepository, never()).save(any(RefreshToken.class));
+    }
+
+    @Test
+    void rotate_revokedToken_shouldRevokeFamily() {
+        when(refreshTokenRepository.markUsed(eq(HASH), any(), any())).thenReturn(0);
+        when(refreshTokenRepository.findRecordByTokenHash(HASH))
+                .thenReturn(Optional.of(new RefreshTokenRecord(1L, Instant.now().plusSeconds(60), "f1", true)));
+
+        assertThat(store.rotate("a", "b", Instant.now().plusSeconds(60))).isEmpty();
+
+        verify(refreshTokenRepository).revokeFamily("f1");
+    }
+
+    @Test
+    void rotate_expiredToken_shouldBeRejectedWithoutRevokingFamily() {
+        when(refreshTokenRepository.markUsed(eq(HASH), any(), any())).thenReturn(0);
+        when(refreshTokenRepository.findRecordByTokenHash(HASH))
+                .thenReturn(Optional.of(new RefreshTokenRecord(1L, Instant.now().minusSeconds(1), "f1")));
+
+        assertThat(store.rotate("a", "b", Instant.now().plusSeconds(60))).isEmpty();
+
+        verify(refreshTokenRepository, never()).revokeFamily(anyString());
+        verify(refreshTokenRepository, never()).save(any(RefreshToken.class));
+    }
+
+    @Test
+    void rotate_unknownToken_shouldBeRejected() {
+        when(refreshTokenRepository.markUsed(eq(HASH), any(), any())).thenReturn(0);
+        when(refreshTokenRepository.findRecordByTokenHash(HASH)).thenReturn(Optional.empty());
+
+        assertThat(store.rotate("a", "b", Instant.now().plusSeconds(60))).isEmpty();
+
+        verify(refreshTokenRepository, never()).revokeFamily(anyString());
+    }
+}
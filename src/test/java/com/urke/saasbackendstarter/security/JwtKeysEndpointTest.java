@@ -0,0 +1,101 @@
+package com.urke.saasbackendstarter.security;
+
+import com.urke.saasbackendstarter.controller.JwksController;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.actuate.endpoint.web.WebEndpointResponse;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.RequestPostProcessor;
+
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@WebMvcTest(JwksController.class)
+@Import({SecurityConfig.class, JwtKeysEndpoint.class})
+@TestPropertySource(properties = "management.server.port=9001")
+class JwtKeysEndpointTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private JwtKeysEndpoint endpoint;
+
+    @MockBean
+    private JwtTokenProvider jwtTokenProvider;
+
+    @MockBean
+    private UserDetailsService userDetailsService;
+
+    @Test
+    @DisplayName("Should deny tenant admins on the application port")
+    @WithMockUser(roles = "ADMIN")
+    void applicationPort_Admin_IsForbidden() throws Exception {
+        mockMvc.perform(get("/actuator/jwtkeys").with(port(8080)))
+                .andExpect(status().isForbidden());
+        mockMvc.perform(post("/actuator/jwtkeys").with(port(8080)))
+                .andExpect(status().isForbidden());
+    }
+
+    @Test
+    @DisplayName("Should let requests on the management port through")
+    void managementPort_IsPermitted() throws Exception {
+        // The slice has no actuator mappings; all that matters is that security lets the request through.
+        mockMvc.perform(get("/actuator/jwtkeys").with(port(9001)))
+                .andExpect(result -> assertThat(result.getResponse().getStatus()).isNotIn(401, 403));
+    }
+
+    @Test
+    @DisplayName("Should reload the key file and report the new signing key")
+    void reload_ReloadableKeys_ReturnsStatus() {
+        when(jwtTokenProvider.isReloadable()).thenReturn(true);
+        when(jwtTokenProvider.getSigningKeyId()).thenReturn("k2");
+        when(jwtTokenProvider.getKeyIds()).thenReturn(Set.of("k1", "k2"));
+
+        WebEndpointResponse<?> response = endpoint.reload();
+
+        verify(jwtTokenProvider).reloadKeys();
+        assertThat(response.getStatus()).isEqualTo(WebEndpointResponse.STATUS_OK);
+        assertThat(endpoint.keys().getSigningKeyId()).isEqualTo("k2");
+    }
+
+    @Test
+    @DisplayName("Should return 409 when keys come from jwt.secret")
+    void reload_PropertyKeys_ReturnsConflict() {
+        when(jwtTokenProvider.isReloadable()).thenReturn(false);
+
+        assertThat(endpoint.reload().getStatus()).isEqualTo(409);
+        verify(jwtTokenProvider, never()).reloadKeys();
+    }
+
+    @Test
+    @DisplayName("Should return 500 and keep the keys when the file cannot be loaded")
+    void reload_BrokenFile_ReturnsServerError() {
+        when(jwtTokenProvider.isReloadable()).thenReturn(true);
+        doThrow(new IllegalStateException("broken")).when(jwtTokenProvider).reloadKeys();
+
+        assertThat(endpoint.reload().getStatus()).isEqualTo(WebEndpointResponse.STATUS_INTERNAL_SERVER_ERROR);
+    }
+
+    private static RequestPostProcessor port(int port) {
+        return request -> {
+            request.setLocalPort(port);
+            return request;
+        };
+    }
+}
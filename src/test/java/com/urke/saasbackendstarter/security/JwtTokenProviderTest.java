@@ -0,0 +1,254 @@
+package com.urke.saasbackendstarter.security;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.security.interfaces.ECPublicKey;
+import java.util.Base64;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.*;
+
+class JwtTokenProviderTest {
+
+    private static final String SECRET_V1 = "first-secret-key-that-is-long-enough-for-hmac-sha-256-signing";
+    private static final String SECRET_V2 = "second-secret-key-that-is-long-enough-for-hmac-sha-256-signing";
+
+    private JwtTokenProvider provider;
+    private PrincipalRevocationRegistry revocationRegistry;
+    private UserDetails userDetails;
+
+    @BeforeEach
+    void setUp() {
+        revocationRegistry = new PrincipalRevocationRegistry(60_000);
+        provider = newProvider(SECRET_V1, "v1", List.of(), false);
+        userDetails = User.withUsername("user@example.com").password("x").authorities("ROLE_USER").build();
+    }
+
+    @Test
+    void generatedToken_shouldBeValidForSameUser() {
+        String token = provider.generateToken(userDetails);
+
+        assertThat(provider.getEmailFromToken(token)).isEqualTo("user@example.com");
+        assertThat(provider.validateToken(provider.parseToken(token), userDetails)).isTrue();
+    }
+
+    @Test
+    void parsedToken_shouldNotValidateForDifferentUser() {
+        ParsedToken token = provider.parseToken(provider.generateToken(userDetails));
+        UserDetails other = User.withUsername("other@example.com").password("x").authorities("ROLE_USER").build();
+
+        assertThat(token.getKeyId()).isEqualTo("v1");
+        assertThat(provider.validateToken(token, other)).isFalse();
+    }
+
+    @Test
+    void parseToken_shouldRejectTamperedToken() {
+        String token = provider.generateToken(userDetails);
+        String tampered = token.substring(0, token.length() - 2) + (token.endsWith("A") ? "BB" : "AA");
+
+        assertThatThrownBy(() -> provider.parseToken(tampered))
+            .isInstanceOf(io.jsonwebtoken.JwtException.class);
+    }
+
+    @Test
+    void hmacKeysFile_shouldRotateAndRetireKeysOnReload(@TempDir Path dir) throws Exception {
+        Path file = dir.resolve("jwt-keys");
+        Files.writeString(file, "# current key first\nv1=" + SECRET_V1 + "\n");
+        JwtTokenProvider fromFile = newHmacFileProvider(file);
+        String oldToken = fromFile.generateToken(userDetails);
+
+        Files.writeString(file, "v2=" + SECRET_V2 + "\n\nv1=" + SECRET_V1 + "\n");
+        fromFile.reloadKeys();
+        String newToken = fromFile.generateToken(userDetails);
+
+        assertThat(fromFile.isReloadable()).isTrue();
+        assertThat(fromFile.getSigningKeyId()).isEqualTo("v2");
+        assertThat(fromFile.getKeyIds()).containsExactly("v2", "v1");
+        assertThat(fromFile.getEmailFromToken(oldToken)).isEqualTo("user@example.com");
+        assertThat(fromFile.parseToken(newToken).getKeyId()).isEqualTo("v2");
+
+        Files.writeString(file, "v2=" + SECRET_V2 + "\n");
+        fromFile.reloadKeys();
+
+        assertThatThrownBy(() -> fromFile.getEmailFromToken(oldToken))
+            .hasMessageContaining("JWT invalid");
+    }
+
+    @Test
+    void hmacKeysFile_invalidFileShouldKeepCurrentKeys(@TempDir Path dir) throws Exception {
+        Path file = dir.resolve("jwt-keys");
+        Files.writeString(file, "v1=" + SECRET_V1 + "\n");
+        JwtTokenProvider fromFile = newHmacFileProvider(file);
+        FileTime loaded = Files.getLastModifiedTime(file);
+
+        Files.writeString(file, "v2=too-short\n");
+        assertThatThrownBy(fromFile::reloadKeys)
+            .isInstanceOf(IllegalStateException.class)
+            .hasMessageContaining("line 1");
+
+        Files.writeString(file, "v2\n");
+        Files.setLastModifiedTime(file, FileTime.fromMillis(loaded.toMillis() + 1_000));
+        fromFile.reloadKeysIfChanged();
+        assertThat(fromFile.getSigningKeyId()).isEqualTo("v1");
+    }
+
+    @Test
+    void verifyOnlyKeys_shouldAcceptTokensFromConfiguredPreviousKey() {
+        JwtTokenProvider previous = newProvider(SECRET_V2, "v0", List.of(), false);
+        String token = previous.generateToken(userDetails);
+
+        JwtTokenProvider current = newProvider(SECRET_V1, "v1", List.of("v0=" + SECRET_V2), false);
+
+        assertThat(current.getEmailFromToken(token)).isEqualTo("user@example.com");
+        assertThat(current.getSigningKeyId()).isEqualTo("v1");
+    }
+
+    @Test
+    void statelessPrincipal_shouldRebuildUserFromClaims() {
+        JwtTokenProvider stateless = newProvider(SECRET_V1, "v1", List.of(), true);
+        CustomUserDetails principal = new CustomUserDetails(
+                7L, "user@example.com", "hash", 3L, Set.of("ADMIN"), Set.of("USER_VIEW_ALL"));
+
+        CustomUserDetails rebuilt = stateless.getPrincipalFromClaims(
+                stateless.parseToken(stateless.generateToken(principal)));
+
+        assertThat(rebuilt).isNotNull();
+        assertThat(rebuilt.getId()).isEqualTo(7L);
+        assertThat(rebuilt.getOrganizationId()).isEqualTo(3L);
+        assertThat(rebuilt.getUsername()).isEqualTo("user@example.com");
+        assertThat(rebuilt.getPassword()).isNull();
+        assertThat(rebuilt.getAuthorities()).extracting(Object::toString)
+            .containsExactlyInAnyOrder("ROLE_ADMIN", "USER_VIEW_ALL");
+    }
+
+    @Test
+    void statelessPrincipal_shouldBeIgnoredOnceUserIsRevoked() {
+        JwtTokenProvider stateless = newProvider(SECRET_V1, "v1", List.of(), true);
+        CustomUserDetails principal = new CustomUserDetails(
+                7L, "user@example.com", "hash", 3L, Set.of("USER"), Set.of());
+        ParsedToken token = stateless.parseToken(stateless.generateToken(principal));
+
+        revocationRegistry.revokeUser(7L);
+
+        assertThat(stateless.getPrincipalFromClaims(token)).isNull();
+    }
+
+    @Test
+    void statelessPrincipal_disabled_shouldNotEmbedClaims() {
+        CustomUserDetails principal = new CustomUserDetails(
+                7L, "user@example.com", "hash", 3L, Set.of("USER"), Set.of());
+        ParsedToken token = provider.parseToken(provider.generateToken(principal));
+
+        assertThat(token.getClaims()).doesNotContainKey(JwtTokenProvider.CLAIM_USER_ID);
+        assertThat(provider.getPrincipalFromClaims(token)).isNull();
+    }
+
+    @Test
+    void hmacMode_shouldNotExposePublicKeys() {
+        assertThat(provider.getPublicKeys()).isEmpty();
+    }
+
+    @Test
+    void keystoreMode_shouldSignWithNewestKeyAndVerifyOlderKeys(@TempDir Path dir) throws Exception {
+        Path keystore = dir.resolve("jwt-keys.p12");
+        keytool(keystore, "k1");
+        JwtTokenProvider asymmetric = newKeystoreProvider(keystore);
+        String oldToken = asymmetric.generateToken(userDetails);
+
+        Thread.sleep(5);
+        keytool(keystore, "k2");
+        asymmetric.reloadKeys();
+        String newToken = asymmetric.generateToken(userDetails);
+
+        assertThat(asymmetric.getSigningKeyId()).isEqualTo("k2");
+        assertThat(asymmetric.parseToken(oldToken).getKeyId()).isEqualTo("k1");
+        assertThat(asymmetric.parseToken(newToken).getKeyId()).isEqualTo("k2");
+        assertThat(new String(Base64.getUrlDecoder().decode(newToken.substring(0, newToken.indexOf('.')))))
+            .contains("\"alg\":\"ES256\"");
+        assertThat(asymmetric.getPublicKeys()).containsOnlyKeys("k1", "k2")
+            .allSatisfy((kid, key) -> assertThat(key).isInstanceOf(ECPublicKey.class));
+    }
+
+    @Test
+    void keystoreMode_scheduledReloadPicksUpChangedFileAndKeepsKeysOnError(@TempDir Path dir) throws Exception {
+        Path keystore = dir.resolve("jwt-keys.p12");
+        keytool(keystore, "k1");
+        JwtTokenProvider asymmetric = newKeystoreProvider(keystore);
+        FileTime loaded = Files.getLastModifiedTime(keystore);
+
+        asymmetric.reloadKeysIfChanged();
+        assertThat(asymmetric.getKeyIds()).containsExactly("k1");
+
+        keytool(keystore, "k2");
+        Files.setLastModifiedTime(keystore, FileTime.fromMillis(loaded.toMillis() + 1_000));
+        asymmetric.reloadKeysIfChanged();
+        assertThat(asymmetric.getSigningKeyId()).isEqualTo("k2");
+
+        byte[] valid = Files.readAllBytes(keystore);
+        Files.write(keystore, new byte[] {1, 2, 3});
+        Files.setLastModifiedTime(keystore, FileTime.fromMillis(loaded.toMillis() + 2_000));
+        asymmetric.reloadKeysIfChanged();
+        assertThat(asymmetric.getSigningKeyId()).isEqualTo("k2");
+        assertThat(asymmetric.getKeyIds()).containsOnly("k1", "k2");
+
+        // The failed file is retried until it loads.
+        Files.write(keystore, valid);
+        keytool(keystore, "k3");
+        Files.setLastModifiedTime(keystore, FileTime.fromMillis(loaded.toMillis() + 2_000));
+        asymmetric.reloadKeysIfChanged();
+        assertThat(asymmetric.getSigningKeyId()).isEqualTo("k3");
+    }
+
+    @Test
+    void hmacMode_propertyKeysAreNotReloadable() {
+        provider.reloadKeysIfChanged();
+
+        assertThat(provider.isReloadable()).isFalse();
+        assertThat(provider.getSigningKeyId()).isEqualTo("v1");
+        assertThatThrownBy(provider::reloadKeys).isInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    void keystoreMode_shouldRejectHmacTokensAndUnknownKeys(@TempDir Path dir) throws Exception {
+        Path keystore = dir.resolve("jwt-keys.p12");
+        keytool(keystore, "k1");
+        JwtTokenProvider asymmetric = newKeystoreProvider(keystore);
+
+        assertThatThrownBy(() -> asymmetric.parseToken(provider.generateToken(userDetails)))
+            .isInstanceOf(io.jsonwebtoken.JwtException.class);
+    }
+
+    private JwtTokenProvider newProvider(String secret, String keyId, List<String> verifyOnlyKeys, boolean stateless) {
+        return new JwtTokenProvider(secret, keyId, verifyOnlyKeys, "", 60_000, stateless,
+                "hmac", "", "", revocationRegistry);
+    }
+
+    private JwtTokenProvider newHmacFileProvider(Path file) {
+        return new JwtTokenProvider(SECRET_V1, "ignored", List.of(), file.toString(), 60_000, false,
+                "hmac", "", "", revocationRegistry);
+    }
+
+    private JwtTokenProvider newKeystoreProvider(Path keystore) {
+        return new JwtTokenProvider(SECRET_V1, "v1", List.of(), "", 60_000, false,
+                "keystore", keystore.toString(), "changeit", revocationRegistry);
+    }
+
+    private static void keytool(Path keystore, String alias) throws Exception {
+        Process process = new ProcessBuilder(
+                Path.of(System.getProperty("java.home"), "bin", "keytool").toString(),
+                "-genkeypair", "-alias", alias, "-keyalg", "EC", "-groupname", "secp256r1",
+                "-sigalg", "SHA256withECDSA", "-dname", "CN=test", "-validity", "1",
+                "-storetype", "PKCS12", "-keystore", keystore.toString(), "-storepass", "changeit")
+                .redirectErrorStream(true)
+                .start();
+        assertThat(process.waitFor()).as(new String(process.getInputStream().readAllBytes())).isZero();
+    }
+}
@@ -0,0 +1,145 @@
+package com.urke.saasbackendstarter.security;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LoginAttemptServiceTest {
+
+    private static final Duration WINDOW = Duration.ofMinutes(15);
+    /** Distinct emails tried by the credential-stuffing test; raise with -Dlogin-attempts.stress-keys=... */
+    private static final int STRESS_KEYS = Integer.getInteger("login-attempts.stress-keys", 2_000_000);
+
+    private final MutableClock clock = new MutableClock(Instant.parse("2026-01-01T00:00:00Z"));
+
+    @Test
+    void shouldBlockAfterMaxAttemptsAndUnblockAfterDuration() {
+        LoginAttemptService service = new LoginAttemptService(5, WINDOW, WINDOW, 1024, clock);
+
+        for (int i = 0; i < 4; i++) service.loginFailed("user@example.com");
+        assertThat(service.isBlocked("user@example.com")).isFalse();
+
+        service.loginFailed("USER@example.com ");
+        assertThat(service.isBlocked("user@example.com")).isTrue();
+        assertThat(service.getBlockTimeRemaining("user@example.com")).isEqualTo(WINDOW.toMillis());
+
+        clock.advance(WINDOW.plusSeconds(1));
+        assertThat(service.isBlocked("user@example.com")).isFalse();
+        service.loginFailed("user@example.com");
+        assertThat(service.isBlocked("user@example.com")).isFalse();
+    }
+
+    @Test
+    void loginSucceeded_shouldResetCounterAndBlock() {
+        LoginAttemptService service = new LoginAttemptService(3, WINDOW, WINDOW, 1024, clock);
+        for (int i = 0; i < 3; i++) service.loginFailed("a@example.com");
+
+        service.loginSucceeded("a@example.com");
+
+        assertThat(service.isBlocked("a@example.com")).isFalse();
+        service.loginFailed("a@example.com");
+        assertThat(service.isBlocked("a@example.com")).isFalse();
+    }
+
+    @Test
+    void failuresShouldAgeOutOfSlidingWindow() {
+        LoginAttemptService service = new LoginAttemptService(5, WINDOW, WINDOW, 1024, clock);
+        for (int i = 0; i < 4; i++) service.loginFailed("a@example.com");
+
+        clock.advance(WINDOW.multipliedBy(2));
+        service.loginFailed("a@example.com");
+
+        assertThat(service.isBlocked("a@example.com")).isFalse();
+    }
+
+    @Test
+    void sweep_shouldFreeIdleSlotsOnly() {
+        LoginAttemptService service = new LoginAttemptService(2, WINDOW, WINDOW, 1024, clock);
+        service.loginFailed("idle@example.com");
+        service.loginFailed("blocked@example.com");
+        service.loginFailed("blocked@example.com");
+
+        clock.advance(WINDOW.multipliedBy(2).plusSeconds(1));
+        service.loginFailed("blocked@example.com");
+        service.loginFailed("blocked@example.com");
+        service.sweep();
+
+        assertThat(service.trackedKeys()).isEqualTo(1);
+        assertThat(service.isBlocked("blocked@example.com")).isTrue();
+    }
+
+    @Test
+    void concurrentFailuresOnOneKey_shouldNotLoseCounts() throws Exception {
+        int threads = 8;
+        int perThread = 500;
+        LoginAttemptService exact = new LoginAttemptService(threads * perThread, WINDOW, WINDOW, 1024, clock);
+        LoginAttemptService oneShort = new LoginAttemptService(threads * perThread + 1, WINDOW, WINDOW, 1024, clock);
+
+        runConcurrently(threads, () -> {
+            for (int i = 0; i < perThread; i++) {
+                exact.loginFailed("target@example.com");
+                oneShort.loginFailed("target@example.com");
+            }
+        });
+
+        assertThat(exact.isBlocked("target@example.com")).isTrue();
+        assertThat(oneShort.isBlocked("target@example.com")).isFalse();
+    }
+
+    @Test
+    void manyDistinctKeys_shouldStayWithinCapacityAndKeepBlockedEntries() throws Exception {
+        LoginAttemptService service = new LoginAttemptService(3, WINDOW, WINDOW, 4096, clock);
+        for (int i = 0; i < 3; i++) service.loginFailed("victim@example.com");
+
+        int threads = 8;
+        runConcurrently(threads, () -> {
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            for (int i = 0; i < STRESS_KEYS / threads; i++) {
+                service.loginFailed("stuffing-" + random.nextLong() + "@example.com");
+            }
+        });
+
+        assertThat(service.trackedKeys()).isLessThanOrEqualTo(service.capacity());
+        assertThat(service.isBlocked("victim@example.com")).isTrue();
+    }
+
+    private static void runConcurrently(int threads, Runnable task) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int i = 0; i < threads; i++) {
+            futures.add(executor.submit(() -> {
+                start.await();
+                task.run();
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> future : futures) future.get();
+        executor.shutdown();
+    }
+
+    private static final class MutableClock extends Clock {
+        private volatile Instant now;
+
+        MutableClock(Instant now) { this.now = now; }
+
+        void advance(Duration duration) { now = now.plus(duration); }
+
+        @Override public ZoneOffset getZone() { return ZoneOffset.UTC; }
+        @Override public Clock withZone(java.time.ZoneId zone) { return this; }
+        @Override public Instant instant() { return now; }
+    }
+}
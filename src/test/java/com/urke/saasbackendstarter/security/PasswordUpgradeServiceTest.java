@@ -0,0 +1,90 @@
+package com.urke.saasbackendstarter.security;
+
+import com.urke.saasbackendstarter.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class PasswordUpgradeServiceTest {
+
+    private PasswordEncoder passwordEncoder;
+    private UserRepository userRepository;
+    private UserDetailsCache userDetailsCache;
+    private PasswordUpgradeService service;
+
+    @BeforeEach
+    void setUp() {
+        passwordEncoder = PasswordEncoderFactory.create("pbkdf2", 4, 1000, 19456, 2, 1);
+        userRepository = mock(UserRepository.class);
+        userDetailsCache = mock(UserDetailsCache.class);
+        service = new PasswordUpgradeService(passwordEncoder, userRepository, userDetailsCache, true);
+    }
+
+    @Test
+    void factory_shouldVerifyLegacyBcryptHashesAndFlagThemForUpgrade() {
+        String legacy = new BCryptPasswordEncoder(4).encode("secret");
+
+        assertThat(passwordEncoder.matches("secret", legacy)).isTrue();
+        assertThat(passwordEncoder.upgradeEncoding(legacy)).isTrue();
+
+        String current = passwordEncoder.encode("secret");
+        assertThat(current).startsWith("{pbkdf2}");
+        assertThat(passwordEncoder.matches("secret", current)).isTrue();
+        assertThat(passwordEncoder.upgradeEncoding(current)).isFalse();
+    }
+
+    @Test
+    void factory_shouldRejectUnknownAlgorithm() {
+        assertThatThrownBy(() -> PasswordEncoderFactory.create("md5", 4, 1000, 19456, 2, 1))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void upgradeIfNeeded_shouldRehashLegacyHashInBackground() throws Exception {
+        String legacy = new BCryptPasswordEncoder(4).encode("secret");
+        when(userRepository.updatePasswordIfUnchanged(eq("a@acme.com"), eq(legacy), anyString())).thenReturn(1);
+
+        service.upgradeIfNeeded(user(legacy), "secret");
+        service.stop();
+
+        verify(userRepository).updatePasswordIfUnchanged(eq("a@acme.com"), eq(legacy),
+                argThat(hash -> hash.startsWith("{pbkdf2}") && passwordEncoder.matches("secret", hash)));
+        verify(userDetailsCache).invalidate("a@acme.com");
+    }
+
+    @Test
+    void upgradeIfNeeded_shouldSkipCurrentHashes() throws Exception {
+        service.upgradeIfNeeded(user(passwordEncoder.encode("secret")), "secret");
+        service.stop();
+
+        verify(userRepository, never()).updatePasswordIfUnchanged(anyString(), anyString(), anyString());
+    }
+
+    @Test
+    void upgradeIfNeeded_shouldKeepCacheWhenHashChangedConcurrently() throws Exception {
+        String legacy = new BCryptPasswordEncoder(4).encode("secret");
+        when(userRepository.updatePasswordIfUnchanged(anyString(), anyString(), anyString())).thenReturn(0);
+
+        service.upgradeIfNeeded(user(legacy), "secret");
+        service.stop();
+
+        verify(userDetailsCache, never()).invalidate(anyString());
+    }
+
+    private static CustomUserDetails user(String hash) {
+        return new CustomUserDetails(1L, "a@acme.com", hash, 7L, Set.of("USER"), Set.of());
+    }
+}
@@ -0,0 +1,110 @@
+package com.urke.saasbackendstarter.security;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.support.StaticMessageSource;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RateLimitFilterTest {
+
+    private static final String SECRET = "rate-limit-secret-key-that-is-long-enough-for-hmac-sha-256";
+
+    private JwtTokenProvider jwtTokenProvider;
+    private RateLimitFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        jwtTokenProvider = new JwtTokenProvider(SECRET, "v1", List.of(), "", 60_000, false,
+                "hmac", "", "", new PrincipalRevocationRegistry(60_000));
+        filter = new RateLimitFilter(jwtTokenProvider, new StaticMessageSource(), new ObjectMapper(), true, 1000,
+                List.of("/api/v1/auth/login", "/api/v1/users/register"), 3, Duration.ofMinutes(1),
+                5, 4, Duration.ofMinutes(1));
+    }
+
+    @Test
+    void authPath_shouldRejectAfterPerIpLimitWithRetryAfter() throws Exception {
+        for (int i = 0; i < 3; i++) {
+            assertThat(perform("/api/v1/auth/login", "10.0.0.1", null).getStatus()).isEqualTo(200);
+        }
+
+        MockHttpServletResponse rejected = perform("/api/v1/auth/login", "10.0.0.1", null);
+
+        assertThat(rejected.getStatus()).isEqualTo(429);
+        assertThat(Long.parseLong(rejected.getHeader("Retry-After"))).isBetween(1L, 20L);
+        assertThat(rejected.getContentAsString()).contains("too_many_requests");
+        assertThat(perform("/api/v1/auth/login", "10.0.0.2", null).getStatus()).isEqualTo(200);
+        assertThat(perform("/api/v1/users/me", "10.0.0.1", null).getStatus()).isEqualTo(200);
+    }
+
+    @Test
+    void apiPath_shouldLimitPerOrganizationAcrossIps() throws Exception {
+        String token = jwtTokenProvider.generateToken(
+                new CustomUserDetails(1L, "a@acme.com", "x", 42L, Set.of("USER"), Set.of()));
+
+        for (int i = 0; i < 4; i++) {
+            assertThat(perform("/api/v1/users", "10.0.1." + i, token).getStatus()).isEqualTo(200);
+        }
+
+        assertThat(perform("/api/v1/users", "10.0.1.9", token).getStatus()).isEqualTo(429);
+        assertThat(perform("/api/v1/users", "10.0.1.9", null).getStatus()).isEqualTo(200);
+    }
+
+    @Test
+    void apiPath_shouldLeaveParsedTokenForJwtFilter() throws Exception {
+        String token = jwtTokenProvider.generateToken(
+                new CustomUserDetails(1L, "a@acme.com", "x", 42L, Set.of("USER"), Set.of()));
+        MockHttpServletRequest request = request("/api/v1/users", "10.0.2.1", token);
+
+        filter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+
+        assertThat(request.getAttribute(ParsedToken.REQUEST_ATTRIBUTE))
+                .isInstanceOfSatisfying(ParsedToken.class, parsed -> assertThat(parsed.getOrganizationId()).isEqualTo(42L));
+    }
+
+    @Test
+    void nonApiPath_shouldNotBeLimited() throws Exception {
+        for (int i = 0; i < 20; i++) {
+            assertThat(perform("/actuator/health", "10.0.3.1", null).getStatus()).isEqualTo(200);
+        }
+    }
+
+    @Test
+    void limiter_shouldRefillOverTimeAndExpireIdleKeys() {
+        AtomicLong nanos = new AtomicLong();
+        TokenBucketRateLimiter limiter = new TokenBucketRateLimiter(100, Duration.ofMinutes(1), nanos::get);
+
+        assertThat(limiter.tryAcquire("k", 2, Duration.ofSeconds(10))).isZero();
+        assertThat(limiter.tryAcquire("k", 2, Duration.ofSeconds(10))).isZero();
+        assertThat(limiter.tryAcquire("k", 2, Duration.ofSeconds(10))).isEqualTo(TimeUnit.SECONDS.toNanos(5));
+
+        nanos.addAndGet(TimeUnit.SECONDS.toNanos(5));
+        assertThat(limiter.tryAcquire("k", 2, Duration.ofSeconds(10))).isZero();
+
+        nanos.addAndGet(TimeUnit.MINUTES.toNanos(2));
+        assertThat(limiter.trackedKeys()).isZero();
+    }
+
+    private MockHttpServletResponse perform(String path, String ip, String token) throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request(path, ip, token), response, new MockFilterChain());
+        return response;
+    }
+
+    private static MockHttpServletRequest request(String path, String ip, String token) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", path);
+        request.setRemoteAddr(ip);
+        if (token != null) request.addHeader("Authorization", "Bearer " + token);
+        return request;
+    }
+}
@@ -1,6 +1,5 @@
 package com.urke.saasbackendstarter.service.impl;
 
-import com.urke.saasbackendstarter.domain.RefreshToken;
 import com.urke.saasbackendstarter.domain.Role;
 import com.urke.saasbackendstarter.domain.User;
 import com.urke.saasbackendstarter.dto.auth.LoginRequest;
@@ -8,10 +7,12 @@ import com.urke.saasbackendstarter.dto.auth.LoginResponse;
 import com.urke.saasbackendstarter.dto.auth.RefreshTokenRequest;
 import com.urke.saasbackendstarter.dto.auth.RefreshTokenResponse;
 import com.urke.saasbackendstarter.exception.AuthException;
-import com.urke.saasbackendstarter.repository.RefreshTokenRepository;
 import com.urke.saasbackendstarter.repository.UserRepository;
 import com.urke.saasbackendstarter.security.JwtTokenProvider;
 import com.urke.saasbackendstarter.security.LoginAttemptService;
+import com.urke.saasbackendstarter.security.PasswordUpgradeService;
+import com.urke.saasbackendstarter.security.RefreshTokenRecord;
+import com.urke.saasbackendstarter.security.RefreshTokenStore;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -34,9 +35,10 @@ class AuthServiceImplTest {
     @Mock private AuthenticationManager authenticationManager;
     @Mock private JwtTokenProvider jwtTokenProvider;
     @Mock private UserRepository userRepository;
-    @Mock private RefreshTokenRepository refreshTokenRepository;
+    @Mock private RefreshTokenStore refreshTokenStore;
     @Mock private PasswordEncoder passwordEncoder;
     @Mock private LoginAttemptService loginAttemptService;
+    @Mock private PasswordUpgradeService passwordUpgradeService;
     @Mock private MessageSource messageSource;
 
     @InjectMocks
@@ -53,6 +55,7 @@ class AuthServiceImplTest {
 
         // Test user
         user = new User();
+        user.setId(1L);
         user.setEmail("user@example.com");
         user.setPassword("encodedPassword");
         user.setRoles(Set.of(role));
@@ -75,8 +78,6 @@ class AuthServiceImplTest {
         when(userRepository.findByEmailAndDeletedFalse(user.getEmail())).thenReturn(Optional.of(user));
         when(jwtTokenProvider.generateToken(any())).thenReturn("access.jwt.token");
         doNothing().when(loginAttemptService).loginSucceeded(user.getEmail());
-        when(refreshTokenRepository.deleteByUser(user)).thenReturn(1);
-        when(refreshTokenRepository.save(any(RefreshToken.class))).thenAnswer(inv -> inv.getArgument(0));
 
         LoginResponse response = authService.login(request);
 
@@ -84,6 +85,9 @@ class AuthServiceImplTest {
         assertThat(response.getRefreshToken()).isNotBlank();
         assertThat(response.getTokenType()).isEqualTo("Bearer");
         verify(loginAttemptService).loginSucceeded(user.getEmail());
+        verify(passwordUpgradeService).upgradeIfNeeded(userDetails, "Secret123");
+        verify(refreshTokenStore).issue(eq(response.getRefreshToken()),
+                argThat(record -> record.userId().equals(1L) && record.familyId() != null));
     }
 
     @Test
@@ -113,37 +117,46 @@ class AuthServiceImplTest {
             .isInstanceOf(AuthException.class)
             .hasMessageContaining("Invalid credentials");
         verify(loginAttemptService).loginFailed(user.getEmail());
+        verifyNoInteractions(passwordUpgradeService);
     }
 
     @Test
-    void refreshToken_successful() {
+    void refreshToken_successful_shouldRotateToken() {
         String refreshTokenValue = "refresh-token";
         RefreshTokenRequest request = new RefreshTokenRequest(refreshTokenValue);
-        RefreshToken refreshToken = RefreshToken.builder()
-                .token(refreshTokenValue)
-                .expiryDate(Instant.now().plusSeconds(600))
-                .user(user)
-                .build();
-        when(refreshTokenRepository.findByToken(refreshTokenValue)).thenReturn(Optional.of(refreshToken));
+        when(refreshTokenStore.rotate(eq(refreshTokenValue), anyString(), any()))
+            .thenReturn(Optional.of(new RefreshTokenRecord(1L, Instant.now().plusSeconds(600), "family-1")));
+        when(userRepository.findByIdAndDeletedFalse(1L)).thenReturn(Optional.of(user));
         when(jwtTokenProvider.generateToken(any(UserDetails.class))).thenReturn("new.access.token");
 
         RefreshTokenResponse response = authService.refreshToken(request);
 
         assertThat(response.getAccessToken()).isEqualTo("new.access.token");
-        assertThat(response.getRefreshToken()).isEqualTo(refreshTokenValue);
+        assertThat(response.getRefreshToken()).isNotBlank().isNotEqualTo(refreshTokenValue);
         assertThat(response.getTokenType()).isEqualTo("Bearer");
+        verify(refreshTokenStore).rotate(eq(refreshTokenValue), eq(response.getRefreshToken()), any());
     }
 
     @Test
-    void refreshToken_expired_shouldThrowException() {
-        String refreshTokenValue = "expired-token";
+    void refreshToken_rejectedByStore_shouldThrowException() {
+        String refreshTokenValue = "expired-or-reused-token";
         RefreshTokenRequest request = new RefreshTokenRequest(refreshTokenValue);
-        RefreshToken refreshToken = RefreshToken.builder()
-                .token(refreshTokenValue)
-                .expiryDate(Instant.now().minusSeconds(10))
-                .user(user)
-                .build();
-        when(refreshTokenRepository.findByToken(refreshTokenValue)).thenReturn(Optional.of(refreshToken));
+        when(refreshTokenStore.rotate(eq(refreshTokenValue), anyString(), any())).thenReturn(Optional.empty());
+        when(messageSource.getMessage(eq("auth.refresh.invalid"), any(), any())).thenReturn("Refresh token invalid");
+
+        assertThatThrownBy(() -> authService.refreshToken(request))
+            .isInstanceOf(AuthException.class)
+            .hasMessageContaining("Refresh token invalid");
+        verifyNoInteractions(jwtTokenProvider);
+    }
+
+    @Test
+    void refreshToken_deletedUser_shouldThrowException() {
+        String refreshTokenValue = "orphaned-token";
+        RefreshTokenRequest request = new RefreshTokenRequest(refreshTokenValue);
+        when(refreshTokenStore.rotate(eq(refreshTokenValue), anyString(), any()))
+            .thenReturn(Optional.of(new RefreshTokenRecord(1L, Instant.now().plusSeconds(600), "family-1")));
+        when(userRepository.findByIdAndDeletedFalse(1L)).thenReturn(Optional.empty());
         when(messageSource.getMessage(eq("auth.refresh.invalid"), any(), any())).thenReturn("Refresh token invalid");
 
         assertThatThrownBy(() -> authService.refreshToken(request))
@@ -154,12 +167,11 @@ class AuthServiceImplTest {
     @Test
     void logout_shouldDeleteRefreshTokenAndUnblockUser() {
         when(userRepository.findByEmailAndDeletedFalse(user.getEmail())).thenReturn(Optional.of(user));
-        when(refreshTokenRepository.deleteByUser(user)).thenReturn(1);
         doNothing().when(loginAttemptService).loginSucceeded(user.getEmail());
 
         assertThatCode(() -> authService.logout(user.getEmail())).doesNotThrowAnyException();
 
-        verify(refreshTokenRepository).deleteByUser(user);
+        verify(refreshTokenStore).revokeUser(1L);
         verify(loginAttemptService).loginSucceeded(user.getEmail());
     }
 
@@ -171,6 +183,6 @@ class AuthServiceImplTest {
         assertThatThrownBy(() -> authService.logout(user.getEmail()))
             .isInstanceOf(AuthException.class)
             .hasMessageContaining("User not found");
-        verify(refreshTokenRepository, never()).deleteByUser(any());
+        verify(refreshTokenStore, never()).revokeUser(any());
     }
 }
\ No newline at end of file
@@ -0,0 +1,207 @@
+package com.urke.saasbackendstarter.service.impl;
+
+import com.urke.saasbackendstarter.dto.ExportJobDTO;
+import com.urke.saasbackendstarter.dto.ExportJobDTO.Status;
+import com.urke.saasbackendstarter.service.UserExportService;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.core.io.Resource;
+import org.springframework.http.HttpStatus;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.LongConsumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class UserExportJobServiceImplTest {
+
+    private static final Duration TTL = Duration.ofHours(1);
+
+    private final UserExportService exportService = mock(UserExportService.class);
+    private final SimpMessagingTemplate messagingTemplate = mock(SimpMessagingTemplate.class);
+    private final MutableClock clock = new MutableClock(Instant.parse("2026-01-01T00:00:00Z"));
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void identicalRequestsShareOneRunningJob() {
+        List<Runnable> queued = new ArrayList<>();
+        UserExportJobServiceImpl service = service(queued::add);
+
+        ExportJobDTO first = service.submit(1L, 10L, "xlsx", "ann@");
+        ExportJobDTO second = service.submit(2L, 10L, "XLSX", " ANN@ ");
+        ExportJobDTO otherFormat = service.submit(1L, 10L, "pdf", "ann@");
+
+        assertThat(second.getId()).isEqualTo(first.getId());
+        assertThat(otherFormat.getId()).isNotEqualTo(first.getId());
+        assertThat(queued).hasSize(2);
+        assertThat(first.getStatus()).isEqualTo(Status.QUEUED);
+    }
+
+    @Test
+    void completedJobIsDownloadableAndReportsProgressToEverySubscriber() throws Exception {
+        List<Runnable> queued = new ArrayList<>();
+        UserExportJobServiceImpl service = service(queued::add);
+        when(exportService.countExportUsers(10L, null)).thenReturn(2500L);
+        doAnswer(invocation -> {
+            OutputStream out = invocation.getArgument(2);
+            LongConsumer progress = invocation.getArgument(3);
+            for (long row = 1; row <= 2500; row++) progress.accept(row);
+            out.write("xlsx-bytes".getBytes(StandardCharsets.UTF_8));
+            return null;
+        }).when(exportService).exportToExcel(eq(10L), isNull(), any(OutputStream.class), any(LongConsumer.class));
+
+        String id = service.submit(1L, 10L, "xlsx", " ").getId();
+        service.submit(2L, 10L, "xlsx", null);
+        queued.forEach(Runnable::run);
+
+        ExportJobDTO job = service.getJob(id, 10L);
+        assertThat(job.getStatus()).isEqualTo(Status.COMPLETED);
+        assertThat(job.getRowsWritten()).isEqualTo(2500);
+        assertThat(job.getTotalRows()).isEqualTo(2500);
+        assertThat(job.getExpiresAt()).isEqualTo(clock.instant().plus(TTL));
+        Resource result = service.getResult(id, 10L);
+        assertThat(result.getContentAsString(StandardCharsets.UTF_8)).isEqualTo("xlsx-bytes");
+        verify(messagingTemplate, atLeastOnce()).convertAndSend(eq("/queue/user-1"), any(ExportJobDTO.class));
+        verify(messagingTemplate, atLeastOnce()).convertAndSend(eq("/queue/user-2"), any(ExportJobDTO.class));
+
+        assertThatThrownBy(() -> service.getJob(id, 11L))
+                .isInstanceOfSatisfying(ResponseStatusException.class,
+                        ex -> assertThat(ex.getStatusCode()).isEqualTo(HttpStatus.NOT_FOUND));
+        // A finished job is not reused; the next request renders a fresh file.
+        assertThat(service.submit(1L, 10L, "xlsx", null).getId()).isNotEqualTo(id);
+    }
+
+    @Test
+    void userJoiningWhileTheJobFinishesGetsTheFinalPush() throws Exception {
+        List<Runnable> queued = new ArrayList<>();
+        UserExportJobServiceImpl service = service(queued::add);
+        List<String> joined = new ArrayList<>();
+        doAnswer(invocation -> {
+            // Last row written; the job is still in flight.
+            joined.add(service.submit(2L, 10L, "csv", null).getId());
+            return null;
+        }).when(exportService).exportToCsv(eq(10L), isNull(), any(OutputStream.class), any(LongConsumer.class));
+
+        String id = service.submit(1L, 10L, "csv", null).getId();
+        queued.forEach(Runnable::run);
+
+        assertThat(joined).containsExactly(id);
+        verify(messagingTemplate).convertAndSend(eq("/queue/user-2"),
+                argThat((ExportJobDTO dto) -> dto.getId().equals(id) && dto.getStatus() == Status.COMPLETED));
+    }
+
+    @Test
+    void unfinishedJobCannotBeDownloaded() {
+        UserExportJobServiceImpl service = service(runnable -> { });
+        String id = service.submit(1L, 10L, "pdf", null).getId();
+
+        assertThatThrownBy(() -> service.getResult(id, 10L))
+                .isInstanceOfSatisfying(ResponseStatusException.class,
+                        ex -> assertThat(ex.getStatusCode()).isEqualTo(HttpStatus.CONFLICT));
+    }
+
+    @Test
+    void failedJobLeavesNoFileBehind() throws Exception {
+        UserExportJobServiceImpl service = service(Runnable::run);
+        doAnswer(invocation -> {
+            OutputStream out = invocation.getArgument(2);
+            out.write(1);
+            throw new IOException("disk full");
+        }).when(exportService).exportToPdf(eq(10L), isNull(), any(OutputStream.class), any(LongConsumer.class));
+
+        String id = service.submit(1L, 10L, "pdf", null).getId();
+
+        assertThat(service.getJob(id, 10L).getStatus()).isEqualTo(Status.FAILED);
+        try (var files = Files.list(directory)) {
+            assertThat(files).isEmpty();
+        }
+    }
+
+    @Test
+    void expiredJobsArePurgedWithTheirFiles() throws Exception {
+        UserExportJobServiceImpl service = service(Runnable::run);
+        String id = service.submit(1L, 10L, "xlsx", null).getId();
+        Path file = service.getResult(id, 10L).getFile().toPath();
+        assertThat(file).exists();
+
+        clock.advance(TTL.minusSeconds(1));
+        service.purgeExpired();
+        assertThat(file).exists();
+
+        clock.advance(Duration.ofSeconds(1));
+        service.purgeExpired();
+        assertThat(file).doesNotExist();
+        assertThatThrownBy(() -> service.getJob(id, 10L))
+                .isInstanceOfSatisfying(ResponseStatusException.class,
+                        ex -> assertThat(ex.getStatusCode()).isEqualTo(HttpStatus.NOT_FOUND));
+    }
+
+    @Test
+    void fullQueueIsRejectedWithServiceUnavailable() {
+        AtomicBoolean full = new AtomicBoolean(true);
+        UserExportJobServiceImpl service = service(runnable -> {
+            if (full.get()) throw new RejectedExecutionException("full");
+        });
+
+        assertThatThrownBy(() -> service.submit(1L, 10L, "xlsx", null))
+                .isInstanceOfSatisfying(ResponseStatusException.class, ex -> {
+                    assertThat(ex.getStatusCode()).isEqualTo(HttpStatus.SERVICE_UNAVAILABLE);
+                    assertThat(ex.getReason()).isEqualTo("export.busy");
+                });
+        // The rejected job must not be joined by a retry.
+        full.set(false);
+        assertThat(service.submit(1L, 10L, "xlsx", null).getStatus()).isEqualTo(Status.QUEUED);
+    }
+
+    @Test
+    void unknownFormatIsBadRequest() {
+        UserExportJobServiceImpl service = service(Runnable::run);
+
+        assertThatThrownBy(() -> service.submit(1L, 10L, "docx", null))
+                .isInstanceOfSatisfying(ResponseStatusException.class,
+                        ex -> assertThat(ex.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST));
+    }
+
+    private UserExportJobServiceImpl service(Executor executor) {
+        return new UserExportJobServiceImpl(exportService, messagingTemplate, executor, directory, TTL, clock);
+    }
+
+    private static final class MutableClock extends Clock {
+        private volatile Instant now;
+
+        MutableClock(Instant now) { this.now = now; }
+
+        void advance(Duration duration) { now = now.plus(duration); }
+
+        @Override public ZoneOffset getZone() { return ZoneOffset.UTC; }
+        @Override public Clock withZone(java.time.ZoneId zone) { return this; }
+        @Override public Instant instant() { return now; }
+    }
+}
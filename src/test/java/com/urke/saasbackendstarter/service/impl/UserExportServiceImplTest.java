@@ -1,14 +1,22 @@
 package com.urke.saasbackendstarter.service.impl;
 
-import com.urke.saasbackendstarter.domain.Organization;
-import com.urke.saasbackendstarter.domain.Role;
-import com.urke.saasbackendstarter.domain.User;
+import com.urke.saasbackendstarter.repository.UserEmailFilter;
 import com.urke.saasbackendstarter.repository.UserRepository;
-import org.junit.jupiter.api.BeforeEach;
+import com.urke.saasbackendstarter.repository.UserSummaryRow;
+import com.lowagie.text.pdf.PdfReader;
+import com.lowagie.text.pdf.parser.PdfTextExtractor;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.ss.usermodel.Workbook;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.*;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
 import java.util.*;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
 import static org.assertj.core.api.Assertions.*;
 import static org.mockito.Mockito.*;
 
@@ -18,69 +26,126 @@ class UserExportServiceImplTest {
     @Mock
     private UserRepository userRepository;
 
+    @Spy
+    private UserEmailFilter emailFilter = new UserEmailFilter("contains");
+
     @InjectMocks
     private UserExportServiceImpl userExportService;
 
-    private Organization org;
-    private User user1, user2;
-    private Role roleUser, roleAdmin;
-
-    @BeforeEach
-    void setUp() {
-        org = Organization.builder().id(1L).name("Org").slug("org").deleted(false).build();
-
-        roleUser = new Role();
-        roleUser.setName("USER");
-        roleAdmin = new Role();
-        roleAdmin.setName("ADMIN");
-
-        user1 = new User();
-        user1.setId(1L);
-        user1.setEmail("first@example.com");
-        user1.setFullName("First User");
-        user1.setRoles(Set.of(roleUser));
-        user1.setOrganization(org);
-
-        user2 = new User();
-        user2.setId(2L);
-        user2.setEmail("second@example.com");
-        user2.setFullName("Second User");
-        user2.setRoles(Set.of(roleUser, roleAdmin));
-        user2.setOrganization(org);
+    @Test
+    void exportToExcel_shouldStreamExcelFile() throws Exception {
+        when(userRepository.streamSummariesByOrganizationId(1L, null)).thenReturn(Stream.of(
+                new UserSummaryRow(1L, "first@example.com", "First User", "USER"),
+                new UserSummaryRow(2L, "second@example.com", "Second User", "ADMIN" + UserSummaryRow.ROLE_SEPARATOR + "USER")));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        userExportService.exportToExcel(1L, " ", out);
+
+        byte[] data = out.toByteArray();
+        assertThat(data).isNotEmpty();
+        assertThat(data[0]).isEqualTo((byte) 'P');
+        assertThat(data[1]).isEqualTo((byte) 'K');
+        try (Workbook workbook = new XSSFWorkbook(new ByteArrayInputStream(data))) {
+            Sheet sheet = workbook.getSheet("Users");
+            assertThat(sheet.getLastRowNum()).isEqualTo(2);
+            assertThat(sheet.getRow(2).getCell(3).getStringCellValue()).isEqualTo("ADMIN, USER");
+        }
     }
 
     @Test
-    void findExportUsers_shouldReturnAll_whenNoEmail() {
-        when(userRepository.findAllByOrganizationAndDeletedFalse(org)).thenReturn(List.of(user1, user2));
-        List<User> users = userExportService.findExportUsers(org, "");
-        assertThat(users).containsExactlyInAnyOrder(user1, user2);
+    void exportToPdf_shouldProducePdfFile() throws Exception {
+        when(userRepository.streamSummariesByOrganizationId(1L, null)).thenReturn(Stream.of(
+                new UserSummaryRow(1L, "first@example.com", "First User", "USER"),
+                new UserSummaryRow(2L, "second@example.com", "Second User", "ADMIN" + UserSummaryRow.ROLE_SEPARATOR + "USER")));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        userExportService.exportToPdf(1L, null, out);
+
+        byte[] data = out.toByteArray();
+        assertThat(data).isNotEmpty();
+        String signature = new String(Arrays.copyOf(data, 4));
+        assertThat(signature).isEqualTo("%PDF");
     }
 
     @Test
-    void findExportUsers_shouldFilterByEmail() {
-        when(userRepository.findAllByOrganizationAndDeletedFalse(org)).thenReturn(List.of(user1, user2));
-        List<User> users = userExportService.findExportUsers(org, "second");
-        assertThat(users).containsExactly(user2);
+    void exportToPdf_shouldWriteAllChunksAndLeaveStreamOpen() throws Exception {
+        int rows = UserExportServiceImpl.PDF_CHUNK_ROWS * 2 + 7;
+        when(userRepository.streamSummariesByOrganizationId(1L, "%example%")).thenReturn(
+                LongStream.rangeClosed(1, rows)
+                        .mapToObj(id -> new UserSummaryRow(id, "user" + id + "@example.com", "User " + id, "USER")));
+        ByteArrayOutputStream out = spy(new ByteArrayOutputStream());
+
+        userExportService.exportToPdf(1L, "example", out);
+
+        verify(out, never()).close();
+        PdfReader reader = new PdfReader(out.toByteArray());
+        try {
+            String lastPage = new PdfTextExtractor(reader).getTextFromPage(reader.getNumberOfPages());
+            assertThat(reader.getNumberOfPages()).isGreaterThan(1);
+            assertThat(lastPage).contains("user" + rows + "@example.com");
+        } finally {
+            reader.close();
+        }
     }
 
     @Test
-    void exportToExcel_shouldProduceExcelFile() {
-        List<User> users = List.of(user1, user2);
-        byte[] data = userExportService.exportToExcel(users);
+    void exportToPdf_failureMidStream_shouldRethrowWithoutWritingTrailer() {
+        int rows = UserExportServiceImpl.PDF_CHUNK_ROWS + 3;
+        when(userRepository.streamSummariesByOrganizationId(1L, null)).thenReturn(
+                LongStream.rangeClosed(1, rows + 1).mapToObj(id -> {
+                    if (id > rows) throw new IllegalStateException("connection reset");
+                    return new UserSummaryRow(id, "user" + id + "@example.com", "User " + id, "USER");
+                }));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        assertThatThrownBy(() -> userExportService.exportToPdf(1L, null, out))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessage("connection reset");
+        assertThat(new String(out.toByteArray(), StandardCharsets.ISO_8859_1)).doesNotContain("%%EOF");
+    }
 
-        assertThat(data).isNotEmpty();
+    @Test
+    void exportToPdf_failureBeforeFirstPage_shouldRethrowOriginalError() {
+        when(userRepository.streamSummariesByOrganizationId(1L, null))
+                .thenReturn(Stream.<UserSummaryRow>generate(() -> { throw new IllegalStateException("query timeout"); }));
 
-        assertThat(data[0]).isEqualTo((byte) 'P');
-        assertThat(data[1]).isEqualTo((byte) 'K');
+        assertThatThrownBy(() -> userExportService.exportToPdf(1L, null, new ByteArrayOutputStream()))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessage("query timeout");
     }
 
     @Test
-    void exportToPdf_shouldProducePdfFile() {
-        List<User> users = List.of(user1, user2);
-        byte[] data = userExportService.exportToPdf(users);
+    void exportToCsv_shouldQuoteOnlyFieldsThatNeedIt() throws Exception {
+        when(userRepository.streamSummariesByOrganizationId(1L, null)).thenReturn(Stream.of(
+                new UserSummaryRow(1L, "first@example.com", "First User", "USER"),
+                new UserSummaryRow(2L, "second@example.com", "Second \"Quoted\" User", "ADMIN" + UserSummaryRow.ROLE_SEPARATOR + "USER"),
+                new UserSummaryRow(3L, "third@example.com", "Third User", null)));
+        ByteArrayOutputStream out = spy(new ByteArrayOutputStream());
+
+        userExportService.exportToCsv(1L, null, out);
+
+        verify(out, never()).close();
+        assertThat(out.toString(StandardCharsets.UTF_8)).isEqualTo(
+                "ID,Email,Full Name,Roles\r\n"
+                        + "1,first@example.com,First User,USER\r\n"
+                        + "2,second@example.com,\"Second \"\"Quoted\"\" User\",\"ADMIN,USER\"\r\n"
+                        + "3,third@example.com,Third User,\r\n");
+    }
 
-        assertThat(data).isNotEmpty();
-        String signature = new String(Arrays.copyOf(data, 4));
-        assertThat(signature).isEqualTo("%PDF");
+    @Test
+    void exportToNdjson_shouldWriteOneEscapedObjectPerLine() throws Exception {
+        when(userRepository.streamSummariesByOrganizationId(1L, "%example%")).thenReturn(Stream.of(
+                new UserSummaryRow(1L, "first@example.com", "First \"User\"", "USER"),
+                new UserSummaryRow(2L, "second@example.com", "\u0160ekularac", "ADMIN" + UserSummaryRow.ROLE_SEPARATOR + "Ops,Read")));
+        ByteArrayOutputStream out = spy(new ByteArrayOutputStream());
+        List<Long> progress = new ArrayList<>();
+
+        userExportService.exportToNdjson(1L, "example", out, progress::add);
+
+        verify(out, never()).close();
+        assertThat(out.toString(StandardCharsets.UTF_8)).isEqualTo(
+                "{\"id\":1,\"email\":\"first@example.com\",\"fullName\":\"First \\\"User\\\"\",\"roles\":[\"USER\"]}\n"
+                        + "{\"id\":2,\"email\":\"second@example.com\",\"fullName\":\"\u0160ekularac\",\"roles\":[\"ADMIN\",\"Ops,Read\"]}\n");
+        assertThat(progress).containsExactly(1L, 2L);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,71 @@
+package com.urke.saasbackendstarter.service.impl;
+
+import com.urke.saasbackendstarter.domain.User;
+import com.urke.saasbackendstarter.dto.user.UserSummary;
+import com.urke.saasbackendstarter.repository.UserEmailFilter;
+import com.urke.saasbackendstarter.repository.UserRepository;
+import com.urke.saasbackendstarter.repository.UserSummaryRow;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.*;
+import org.springframework.data.domain.*;
+
+import java.util.*;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(org.mockito.junit.jupiter.MockitoExtension.class)
+class UserServiceImplTest {
+
+    @Mock private UserRepository userRepository;
+    @Spy private UserEmailFilter emailFilter = new UserEmailFilter("contains");
+
+    @InjectMocks
+    private UserServiceImpl userService;
+
+    @Test
+    void findSummariesByOrganization_shouldPageInDatabaseAndSplitAggregatedRoles() {
+        Pageable requested = PageRequest.of(1, 2);
+        Pageable sorted = PageRequest.of(1, 2, Sort.by("email", "id"));
+        when(userRepository.findSummariesByOrganizationId(7L, "%acme%", sorted))
+                .thenReturn(new PageImpl<>(List.of(
+                        new UserSummaryRow(3L, "c@acme.com", "User 3", "ADMIN" + UserSummaryRow.ROLE_SEPARATOR + "Ops,Read"),
+                        new UserSummaryRow(4L, "d@acme.com", "User 4", null)), sorted, 5));
+
+        Page<UserSummary> page = userService.findSummariesByOrganization(7L, "acme", requested);
+
+        assertThat(page.getTotalElements()).isEqualTo(5);
+        assertThat(page.getContent()).extracting(UserSummary::getEmail).containsExactly("c@acme.com", "d@acme.com");
+        assertThat(page.getContent().get(0).getRoles()).containsExactly("ADMIN", "Ops,Read");
+        assertThat(page.getContent().get(1).getRoles()).isEmpty();
+        verify(userRepository, never()).findAllByOrganizationAndDeletedFalse(any());
+    }
+
+    @Test
+    void findSummaries_blankFilter_shouldQueryWithoutFilterAndKeepRequestedSort() {
+        Pageable requested = PageRequest.of(0, 10, Sort.by("fullName"));
+        when(userRepository.findSummaries(null, requested)).thenReturn(Page.empty(requested));
+
+        Page<UserSummary> page = userService.findSummaries("  ", requested);
+
+        assertThat(page.getContent()).isEmpty();
+        verify(userRepository, never()).findAllByDeletedFalse(any());
+    }
+
+    @Test
+    void scrollByOrganization_shouldSeekWithEmailFilterAndFetchOneExtraRow() {
+        User c = User.builder().id(3L).email("c@acme.com").build();
+        User d = User.builder().id(4L).email("d@acme.com").build();
+        User e = User.builder().id(5L).email("e@acme.com").build();
+        when(userRepository.scrollByOrganizationIdAndEmailPattern(7L, "%acme%", "b@acme.com", 2L, Limit.of(3)))
+                .thenReturn(List.of(c, d, e));
+
+        Window<User> window = userService.scrollByOrganization(
+                7L, "acme", ScrollPosition.forward(Map.of("email", "b@acme.com", "id", 2L)), 2);
+
+        assertThat(window.getContent()).containsExactly(c, d);
+        assertThat(window.hasNext()).isTrue();
+        assertThat(((KeysetScrollPosition) window.positionAt(1)).getKeys()).containsEntry("email", "d@acme.com").containsEntry("id", 4L);
+    }
+}